@@ -0,0 +1,68 @@
+package com.example.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.SamplingLogTrace;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+
+/**
+ * 컨트롤러 -> 서비스 -> 리포지토리 (3단계) 요청 하나를 추적하는 비용 비교 (요청당 ns)
+ * - noTrace: 추적하지 않음 (기준선)
+ * - unsampled: 샘플링되지 않은 요청 (rate=0.0)
+ * - sampled: 샘플링된 요청 (rate=1.0, 데코레이터 비용 + ThreadLocalLogTrace)
+ * - threadLocal: 데코레이터 없이 ThreadLocalLogTrace
+ * 로그 출력 비용을 빼기 위해 jmh 의 logback.xml 은 WARN 이상만 출력한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SamplingLogTraceBenchmark {
+
+    LogTrace threadLocal = new ThreadLocalLogTrace();
+    LogTrace sampled = new SamplingLogTrace(new ThreadLocalLogTrace(), 1.0);
+    LogTrace unsampled = new SamplingLogTrace(new ThreadLocalLogTrace(), 0.0);
+
+    @Benchmark
+    public int noTrace() {
+        return 0;
+    }
+
+    @Benchmark
+    public TraceStatus unsampled() {
+        return request(unsampled);
+    }
+
+    @Benchmark
+    public TraceStatus sampled() {
+        return request(sampled);
+    }
+
+    @Benchmark
+    public TraceStatus threadLocal() {
+        return request(threadLocal);
+    }
+
+    private static TraceStatus request(LogTrace trace) {
+        final TraceStatus controller = trace.begin("OrderControllerV5.request()");
+        final TraceStatus service = trace.begin("OrderServiceV5.orderItem()");
+        final TraceStatus repository = trace.begin("OrderRepositoryV5.save()");
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+        return controller;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * 로그 한 줄을 만드는 비용 비교 (초당 줄 수, -prof gc 로 줄당 할당량)
+ * - legacy: 기존 addSpace + SLF4J 의 {} 치환
+ * - formatter: TraceLineFormatter
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceLineFormatterBenchmark {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+
+    @Param({ "0", "3", "8" })
+    int level;
+
+    TraceId traceId;
+    String message = "OrderServiceV5.orderItem()";
+    long resultTimeMs = 1003;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traceId = new TraceId();
+        for (int i = 0; i < level; i++) {
+            traceId = traceId.createNextId();
+        }
+        traceId.getId(); // 16진수 문자열은 트레이스당 한번만 만들어지므로 측정에서 뺀다.
+    }
+
+    @Benchmark
+    public String legacyBegin() {
+        return MessageFormatter.arrayFormat("[{}] {}{}", new Object[] { traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message }).getMessage();
+    }
+
+    @Benchmark
+    public String legacyComplete() {
+        return MessageFormatter.arrayFormat("[{}] {}{} time={}ms", new Object[] { traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), message, resultTimeMs }).getMessage();
+    }
+
+    @Benchmark
+    public String formatterBegin() {
+        return TraceLineFormatter.begin(traceId, message);
+    }
+
+    @Benchmark
+    public String formatterComplete() {
+        return TraceLineFormatter.complete(traceId, message, resultTimeMs);
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.trace;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.trace.callback.TraceTemplate;
+import com.example.trace.hellotrace.HelloTraceV2;
+import com.example.trace.logtrace.FieldLogTrace;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+import com.example.trace.template.AbstractTemplate;
+
+/**
+ * 이 프로젝트의 로그 추적기 버전별로 요청 하나(controller -> service -> repository, begin/end 3쌍)의 비용 비교 <br/>
+ * - helloTraceV2: TraceId 를 파라미터로 넘기는 방식 (v2)
+ * - fieldLogTrace: 필드에 보관 (v3, 동시성 문제가 있으므로 쓰레드마다 인스턴스를 따로 둔다)
+ * - threadLocalLogTrace: ThreadLocal 에 보관 (v3 이후)
+ * - abstractTemplate: 템플릿 메서드 패턴, 호출마다 익명 클래스 생성 (v4)
+ * - traceTemplate: 템플릿 콜백 패턴, 템플릿은 한번만 생성 (v5)
+ * - traceTemplateSite: v5 + 호출 지점을 static final TraceSite 로 미리 등록
+ * 로그 출력 비용을 빼기 위해 jmh 의 logback.xml 은 WARN 이상만 출력한다. (로그 문자열을 만드는 비용은 구현에 따라 남는다)
+ * 쓰레드 수(1/4/16)별 결과는 {@link BenchmarkRunner} 로 구한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceStrategyBenchmark {
+
+    private static final String CONTROLLER = "OrderController.request()";
+    private static final String SERVICE = "OrderService.orderItem()";
+    private static final String REPOSITORY = "OrderRepository.save()";
+
+    private static final TraceSite CONTROLLER_SITE = TraceSite.of(CONTROLLER);
+    private static final TraceSite SERVICE_SITE = TraceSite.of(SERVICE);
+    private static final TraceSite REPOSITORY_SITE = TraceSite.of(REPOSITORY);
+
+    HelloTraceV2 helloTraceV2 = new HelloTraceV2();
+    LogTrace threadLocalLogTrace = new ThreadLocalLogTrace();
+    TraceTemplate traceTemplate = new TraceTemplate(threadLocalLogTrace);
+
+    @State(Scope.Thread)
+    public static class FieldLogTraceState {
+        LogTrace trace = new FieldLogTrace();
+    }
+
+    @Benchmark
+    public TraceStatus helloTraceV2() {
+        final TraceStatus controller = helloTraceV2.begin(CONTROLLER);
+        final TraceStatus service = helloTraceV2.beginSync(controller.getTraceId(), SERVICE);
+        final TraceStatus repository = helloTraceV2.beginSync(service.getTraceId(), REPOSITORY);
+        helloTraceV2.end(repository);
+        helloTraceV2.end(service);
+        helloTraceV2.end(controller);
+        return controller;
+    }
+
+    @Benchmark
+    public TraceStatus fieldLogTrace(FieldLogTraceState state) {
+        return request(state.trace);
+    }
+
+    @Benchmark
+    public TraceStatus threadLocalLogTrace() {
+        return request(threadLocalLogTrace);
+    }
+
+    @Benchmark
+    public String abstractTemplate() {
+        final AbstractTemplate<String> controller = new AbstractTemplate<>(threadLocalLogTrace) {
+            @Override
+            protected String call() {
+                final AbstractTemplate<Void> service = new AbstractTemplate<>(threadLocalLogTrace) {
+                    @Override
+                    protected Void call() {
+                        final AbstractTemplate<Void> repository = new AbstractTemplate<>(threadLocalLogTrace) {
+                            @Override
+                            protected Void call() {
+                                return null;
+                            }
+                        };
+                        return repository.execute(REPOSITORY);
+                    }
+                };
+                service.execute(SERVICE);
+                return "ok";
+            }
+        };
+        return controller.execute(CONTROLLER);
+    }
+
+    @Benchmark
+    public String traceTemplate() {
+        return traceTemplate.execute(CONTROLLER, () -> {
+            traceTemplate.execute(SERVICE, () ->
+                    traceTemplate.execute(REPOSITORY, () -> null));
+            return "ok";
+        });
+    }
+
+    @Benchmark
+    public String traceTemplateSite() {
+        return traceTemplate.execute(CONTROLLER_SITE, () -> {
+            traceTemplate.execute(SERVICE_SITE, () ->
+                    traceTemplate.execute(REPOSITORY_SITE, () -> null));
+            return "ok";
+        });
+    }
+
+    private static TraceStatus request(LogTrace trace) {
+        final TraceStatus controller = trace.begin(CONTROLLER);
+        final TraceStatus service = trace.begin(SERVICE);
+        final TraceStatus repository = trace.begin(REPOSITORY);
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+        return controller;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import com.example.trace.callback.TraceTemplate;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+import com.example.trace.scoped.ScopedLogTrace;
+import com.example.trace.scoped.ScopedValueScopeCarrier;
+import com.example.trace.scoped.ThreadLocalScopeCarrier;
+
+/**
+ * 가상 쓰레드 100,000 개가 동시에 요청(controller -> service -> repository) 처리 중일 때 트레이스 상태가 차지하는 힙 비교 <br/>
+ * 모든 요청이 repository 에서 멈춰 있는 상태(1초 블로킹을 흉내)에서 GC 후 사용 중인 힙을 측정한다.
+ * 가상 쓰레드 자체의 스택도 포함되므로 절댓값보다 구현체 간 차이를 본다. <br/>
+ * ./gradlew -Pjava21 virtualThreadFootprint
+ */
+public class VirtualThreadFootprint {
+
+    private static final int REQUESTS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : REQUESTS;
+        measure("baseline(no trace)", null, requests); // 가상 쓰레드만
+        measure("ThreadLocalLogTrace", new ThreadLocalLogTrace(), requests);
+        measure("ScopedLogTrace(ThreadLocal)", new ScopedLogTrace(new ThreadLocalScopeCarrier(), TracePrecision.MILLIS), requests);
+        measure("ScopedLogTrace(ScopedValue)", new ScopedLogTrace(new ScopedValueScopeCarrier(), TracePrecision.MILLIS), requests);
+    }
+
+    private static void measure(String name, LogTrace trace, int requests) throws Exception {
+        final TraceTemplate template = trace == null ? null : new TraceTemplate(trace);
+        final CountDownLatch saving = new CountDownLatch(requests);
+        final CountDownLatch release = new CountDownLatch(1);
+        final long before = usedHeap();
+
+        final List<Thread> threads = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            threads.add(Thread.ofVirtual().start(() -> request(template, saving, release)));
+        }
+        saving.await();
+        final long during = usedHeap();
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        System.out.printf("%-30s threads=%d heap=%,d bytes (%,d bytes/request)%n", name, requests, during - before, (during - before) / requests);
+    }
+
+    private static void request(TraceTemplate template, CountDownLatch saving, CountDownLatch release) {
+        if (template == null) {
+            block(saving, release);
+            return;
+        }
+        template.execute("OrderControllerV5.request()", () ->
+                template.execute("OrderServiceV5.orderItem()", () ->
+                        template.execute("OrderRepositoryV5.save()", () -> {
+                            block(saving, release);
+                            return null;
+                        })));
+    }
+
+    private static void block(CountDownLatch saving, CountDownLatch release) {
+        saving.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,18 +1,150 @@
 package com.example;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.trace.RandomTraceIdScheme;
+import com.example.trace.TimeOrderedTraceIdScheme;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceSwitch;
+import com.example.trace.journal.TraceJournal;
+import com.example.trace.logtrace.AsyncLogTrace;
 import com.example.trace.logtrace.FieldLogTrace;
+import com.example.trace.logtrace.JournalLogTrace;
 import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.SamplingLogTrace;
+import com.example.trace.logtrace.SpanTreeLogTrace;
+import com.example.trace.logtrace.TailSamplingLogTrace;
 import com.example.trace.logtrace.ThreadLocalLogTrace;
+import com.example.trace.metrics.LatencyRegistry;
+import com.example.trace.reactive.ReactiveLogTrace;
+import com.example.trace.scoped.ScopeCarriers;
+import com.example.trace.scoped.ScopedLogTrace;
+import com.example.trace.slow.SlowCallDetector;
+import com.example.trace.web.TraceLeakFilter;
+import com.example.trace.web.TraceParentExchangeFilter;
+import com.example.trace.web.TraceParentFilter;
+import com.example.trace.web.TraceParentInterceptor;
 
 @Configuration
 public class LogTraceConfig {
 
+    /**
+     * trace.precision (ms, us, ns) 으로 걸린 시간 출력 단위를 정한다.
+     */
     @Bean
-    public LogTrace logTrace() {
+    public LogTrace logTrace(@Value("${trace.precision:ms}") String precision, LatencyRegistry latencyRegistry,
+                             SlowCallDetector slowCallDetector, TraceSwitch traceSwitch, TraceIdScheme traceIdScheme) throws IOException {
 //        return new FieldLogTrace();
-        return new ThreadLocalLogTrace();
+//        return new AsyncLogTrace(8192, AsyncLogTrace.OverflowPolicy.DROP, TracePrecision.of(precision), traceIdScheme); // 로그 출력을 백그라운드 쓰레드로 넘긴다.
+//        return new SpanTreeLogTrace(TracePrecision.of(precision), 1024, traceIdScheme); // 요청 하나를 한 줄(JSON)로 남긴다.
+//        return new JournalLogTrace(new TraceJournal(Paths.get("trace-journal")), traceIdScheme); // 텍스트 대신 바이너리 저널에 남긴다. (decodeTraceJournal 로 확인)
+//        return new ScopedLogTrace(ScopeCarriers.create(), TracePrecision.of(precision), traceIdScheme); // 쓰레드별 상태 없이 scope 로 depth 를 전달한다. (가상 쓰레드)
+//        return new TailSamplingLogTrace(500, 0.01, 256, TracePrecision.of(precision), traceIdScheme); // 예외, 500ms 이상 걸린 요청 + 정상 요청 1% 만 남긴다.
+//        return new SamplingLogTrace(new ThreadLocalLogTrace(TracePrecision.of(precision), traceSwitch, traceIdScheme), 0.1); // 요청 10% 만 추적한다.
+        return new ThreadLocalLogTrace(TracePrecision.of(precision), traceSwitch, traceIdScheme, latencyRegistry, slowCallDetector);
+    }
+
+    /**
+     * Mono/Flux 를 사용하는 v6 에서 사용한다.
+     */
+    @Bean
+    public ReactiveLogTrace reactiveLogTrace(@Value("${trace.precision:ms}") String precision, TraceIdScheme traceIdScheme) {
+        return new ReactiveLogTrace(TracePrecision.of(precision), traceIdScheme);
+    }
+
+    /**
+     * trace.slow.threshold-ms 보다 오래 걸린 span 을 남긴다. GET /trace/slow-calls 로 조회한다.
+     * trace.slow.stack-sampling-ms 가 0 보다 크면 그 간격으로 진행 중인 느린 호출의 스택도 잡는다.
+     */
+    @Bean
+    public SlowCallDetector slowCallDetector(@Value("${trace.slow.threshold-ms:2000}") long thresholdMs,
+                                             @Value("${trace.slow.stack-sampling-ms:0}") long stackSamplingMs) {
+        return new SlowCallDetector(thresholdMs, stackSamplingMs, 100);
+    }
+
+    /**
+     * trace.enabled=false 로 시작하면 추적하지 않는다. POST /trace/enabled?value=true 로 실행 중에 바꿀 수 있다.
+     */
+    @Bean
+    public TraceSwitch traceSwitch(@Value("${trace.enabled:true}") boolean enabled) {
+        return new TraceSwitch(enabled);
+    }
+
+    /**
+     * 메시지별 지연 시간 히스토그램, GET /trace/latency 로 조회한다.
+     * 메모리는 최대 trace.latency.max-messages * trace.latency.stripes * 약 9KB 이다.
+     */
+    @Bean
+    public LatencyRegistry latencyRegistry(@Value("${trace.latency.max-messages:256}") int maxMessages,
+                                           @Value("${trace.latency.stripes:1}") int stripes) {
+        return new LatencyRegistry(maxMessages, stripes);
+    }
+
+    /**
+     * 요청이 끝날 때 쓰레드에 남은 트레이스 상태를 확인하고 비운다. 다른 필터보다 바깥에서 실행되도록 앞쪽에 등록한다.
+     * (traceparent 필터는 끝날 때 상태를 비우므로 그보다는 안쪽이어야 누수를 셀 수 있다)
+     */
+    @Bean
+    public TraceLeakFilter traceLeakFilter(LogTrace logTrace) {
+        return new TraceLeakFilter(logTrace);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TraceLeakFilter> traceLeakFilterRegistration(TraceLeakFilter traceLeakFilter) {
+        final FilterRegistrationBean<TraceLeakFilter> registration = new FilterRegistrationBean<>(traceLeakFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    /**
+     * 들어온 traceparent 헤더의 트랜잭션 ID 로 root span 을 시작한다.
+     */
+    @Bean
+    public FilterRegistrationBean<TraceParentFilter> traceParentFilterRegistration(LogTrace logTrace) {
+        final FilterRegistrationBean<TraceParentFilter> registration = new FilterRegistrationBean<>(new TraceParentFilter(logTrace));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    /**
+     * 다른 서비스를 호출할 때 사용한다. 현재 span 을 traceparent 헤더로 전달한다.
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, LogTrace logTrace) {
+        return builder.additionalInterceptors(new TraceParentInterceptor(logTrace)).build();
+    }
+
+    @Bean
+    public WebClient webClient(WebClient.Builder builder, LogTrace logTrace) {
+        return builder.filter(new TraceParentExchangeFilter(logTrace)).build();
+    }
+
+    /**
+     * 여러 인스턴스에서 로그를 모아서 볼 때는 trace.id-scheme=time-ordered 를 사용한다.
+     * 전역 설정이 아니라 LogTrace 빈을 만들 때 넘겨주므로, 이 빈을 쓰는 LogTrace 에만 적용된다.
+     */
+    @Bean
+    public TraceIdScheme traceIdScheme(@Value("${trace.id-scheme:random}") String scheme,
+                                       @Value("${trace.node-id:#{null}}") Integer nodeId) {
+        final TraceIdScheme traceIdScheme;
+        if ("time-ordered".equals(scheme)) {
+            traceIdScheme = nodeId == null ? TimeOrderedTraceIdScheme.withDefaultNodeId() : new TimeOrderedTraceIdScheme(nodeId);
+        } else {
+            traceIdScheme = new RandomTraceIdScheme();
+        }
+        return traceIdScheme;
     }
 }
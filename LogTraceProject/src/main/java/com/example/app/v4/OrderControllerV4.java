@@ -3,6 +3,7 @@ package com.example.app.v4;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.trace.TraceSite;
 import com.example.trace.logtrace.LogTrace;
 import com.example.trace.template.AbstractTemplate;
 
@@ -12,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderControllerV4 {
 
+    private static final TraceSite REQUEST = TraceSite.of("OrderControllerV4.request()");
+
     private final OrderServiceV4 orderService;
     private final LogTrace trace;
 
@@ -26,6 +29,6 @@ public class OrderControllerV4 {
             }
         };
 
-        return template.execute("OrderControllerV4.request()");
+        return template.execute(REQUEST);
     }
 }
@@ -2,6 +2,7 @@ package com.example.app.v4;
 
 import org.springframework.stereotype.Repository;
 
+import com.example.trace.TraceSite;
 import com.example.trace.logtrace.LogTrace;
 import com.example.trace.template.AbstractTemplate;
 
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderRepositoryV4 {
 
+    private static final TraceSite SAVE = TraceSite.of("OrderRepositoryV4.save()");
+
     private final LogTrace trace;
 
     public void save(String itemId) {
@@ -28,7 +31,7 @@ public class OrderRepositoryV4 {
                 return null;
             }
         };
-        template.execute("OrderRepositoryV4.save()");
+        template.execute(SAVE);
     }
 
     private void sleep(final int millis) {
@@ -2,6 +2,7 @@ package com.example.app.v4;
 
 import org.springframework.stereotype.Service;
 
+import com.example.trace.TraceSite;
 import com.example.trace.logtrace.LogTrace;
 import com.example.trace.template.AbstractTemplate;
 
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderServiceV4 {
 
+    private static final TraceSite ORDER_ITEM = TraceSite.of("OrderServiceV4.orderItem()");
+
     private final OrderRepositoryV4 orderRepository;
     private final LogTrace trace;
 
@@ -23,6 +26,6 @@ public class OrderServiceV4 {
                 return null;
             }
         };
-        template.execute("OrderServiceV4.orderItem()");
+        template.execute(ORDER_ITEM);
     }
 }
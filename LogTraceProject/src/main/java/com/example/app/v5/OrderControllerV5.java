@@ -3,6 +3,7 @@ package com.example.app.v5;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.trace.TraceSite;
 import com.example.trace.callback.TraceCallback;
 import com.example.trace.callback.TraceTemplate;
 import com.example.trace.logtrace.LogTrace;
@@ -10,6 +11,8 @@ import com.example.trace.logtrace.LogTrace;
 @RestController
 public class OrderControllerV5 {
 
+    private static final TraceSite REQUEST = TraceSite.of("OrderControllerV5.request()");
+
     private final OrderServiceV5 orderService;
     private final TraceTemplate template;
 
@@ -20,7 +23,7 @@ public class OrderControllerV5 {
 
     @GetMapping("/v5/request")
     public String request(String itemId) {
-        return template.execute("OrderControllerV5.request()", new TraceCallback<>() {
+        return template.execute(REQUEST, new TraceCallback<>() {
             @Override
             public String call() {
                 orderService.orderItem(itemId);
@@ -2,12 +2,15 @@ package com.example.app.v5;
 
 import org.springframework.stereotype.Repository;
 
+import com.example.trace.TraceSite;
 import com.example.trace.callback.TraceTemplate;
 import com.example.trace.logtrace.LogTrace;
 
 @Repository
 public class OrderRepositoryV5 {
 
+    private static final TraceSite SAVE = TraceSite.of("OrderRepositoryV5.save()");
+
     private TraceTemplate template;
 
     public OrderRepositoryV5(final LogTrace trace) {
@@ -15,7 +18,7 @@ public class OrderRepositoryV5 {
     }
 
     public void save(String itemId) {
-        template.execute("OrderRepositoryV5.save()", () -> {
+        template.execute(SAVE, () -> {
             if (itemId.equals("ex")) {
                 throw new IllegalStateException("예외 발생!");
             }
@@ -2,12 +2,15 @@ package com.example.app.v5;
 
 import org.springframework.stereotype.Service;
 
+import com.example.trace.TraceSite;
 import com.example.trace.callback.TraceTemplate;
 import com.example.trace.logtrace.LogTrace;
 
 @Service
 public class OrderServiceV5 {
 
+    private static final TraceSite ORDER_ITEM = TraceSite.of("OrderServiceV5.orderItem()");
+
     private final OrderRepositoryV5 orderRepository;
     private final TraceTemplate template;
 
@@ -17,7 +20,7 @@ public class OrderServiceV5 {
     }
 
     public void orderItem(String itemId) {
-        template.execute("OrderServiceV5.orderItem()", () -> {
+        template.execute(ORDER_ITEM, () -> {
             orderRepository.save(itemId);
             return null;
         });
@@ -0,0 +1,28 @@
+package com.example.app.v6;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.trace.reactive.ReactiveLogTrace;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * v5 와 같은 흐름을 논블로킹으로 처리한다. 저장(1초)을 기다리는 동안 요청 쓰레드를 붙잡지 않는다.
+ */
+@RestController
+public class OrderControllerV6 {
+
+    private final OrderServiceV6 orderService;
+    private final ReactiveLogTrace trace;
+
+    public OrderControllerV6(final OrderServiceV6 orderService, final ReactiveLogTrace trace) {
+        this.orderService = orderService;
+        this.trace = trace;
+    }
+
+    @GetMapping("/v6/request")
+    public Mono<String> request(String itemId) {
+        return trace.mono("OrderControllerV6.request()", orderService.orderItem(itemId).thenReturn("ok"));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.app.v6;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.trace.reactive.ReactiveLogTrace;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public class OrderRepositoryV6 {
+
+    private final ReactiveLogTrace trace;
+
+    public OrderRepositoryV6(final ReactiveLogTrace trace) {
+        this.trace = trace;
+    }
+
+    public Mono<Void> save(String itemId) {
+        return trace.mono("OrderRepositoryV6.save()", Mono.defer(() -> {
+            if (itemId.equals("ex")) {
+                return Mono.error(new IllegalStateException("예외 발생!"));
+            }
+
+            // 상품을 저장하는데 1초정도 걸린다고 가정하자. (쓰레드를 붙잡지 않고 1초 뒤에 신호만 보낸다)
+            return Mono.delay(Duration.ofSeconds(1)).then();
+        }));
+    }
+}
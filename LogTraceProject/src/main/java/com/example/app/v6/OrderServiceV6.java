@@ -0,0 +1,23 @@
+package com.example.app.v6;
+
+import org.springframework.stereotype.Service;
+
+import com.example.trace.reactive.ReactiveLogTrace;
+
+import reactor.core.publisher.Mono;
+
+@Service
+public class OrderServiceV6 {
+
+    private final OrderRepositoryV6 orderRepository;
+    private final ReactiveLogTrace trace;
+
+    public OrderServiceV6(final OrderRepositoryV6 orderRepository, final ReactiveLogTrace trace) {
+        this.orderRepository = orderRepository;
+        this.trace = trace;
+    }
+
+    public Mono<Void> orderItem(String itemId) {
+        return trace.mono("OrderServiceV6.orderItem()", orderRepository.save(itemId));
+    }
+}
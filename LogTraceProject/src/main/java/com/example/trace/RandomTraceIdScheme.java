@@ -0,0 +1,17 @@
+package com.example.trace;
+
+/**
+ * 쓰레드별 난수 생성기로 만든 64비트 ID (기본값)
+ */
+public class RandomTraceIdScheme implements TraceIdScheme {
+
+    @Override
+    public long nextHigh() {
+        return 0L;
+    }
+
+    @Override
+    public long nextLow() {
+        return TraceIdGenerator.nextId();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.trace;
+
+import java.util.Arrays;
+
+/**
+ * 하나의 트레이스(root 요청)에서 발생한 span 들을 모아두는 쓰레드 전용 버퍼 <br/>
+ * span 마다 객체를 만들지 않고 필드별 배열(message, depth, start, duration, exception)에 순서대로 기록한다.
+ * root span 이 끝나면 {@link #appendJson} 으로 한 줄짜리 레코드를 만들고 {@link #clear()} 해서 다음 요청에 재사용한다. <br/>
+ * maxSpans 를 넘는 span 은 기록하지 않고 개수만 센다. (루프 안에서 호출되는 메서드 때문에 버퍼가 끝없이 커지는 것을 막는다)
+ */
+public final class SpanBuffer {
+
+    /**
+     * maxSpans 를 지정하지 않았을 때의 기본값
+     */
+    public static final int DEFAULT_MAX_SPANS = 1024;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_DEPTH = 8;
+
+    private String[] messages = new String[INITIAL_CAPACITY];
+    private int[] depths = new int[INITIAL_CAPACITY];
+    private long[] startTimeMs = new long[INITIAL_CAPACITY];
+    private long[] durationNanos = new long[INITIAL_CAPACITY];
+    private Exception[] exceptions = new Exception[INITIAL_CAPACITY];
+    private int size;
+    private final int maxSpans;
+    private int truncatedCount; // maxSpans 를 넘어서 기록하지 못한 span 수
+
+    private int[] openSpans = new int[INITIAL_DEPTH]; // depth 별로 아직 끝나지 않은 span 의 인덱스
+
+    public SpanBuffer() {
+        this(DEFAULT_MAX_SPANS);
+    }
+
+    public SpanBuffer(int maxSpans) {
+        if (maxSpans <= 0) {
+            throw new IllegalArgumentException("maxSpans must be positive: " + maxSpans);
+        }
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * @return maxSpans 를 넘어서 기록하지 못했으면 false
+     */
+    public boolean open(String message, int depth, long startTimeMs) {
+        if (depth >= openSpans.length) {
+            openSpans = Arrays.copyOf(openSpans, Math.max(openSpans.length * 2, depth + 1));
+        }
+        if (size == maxSpans) {
+            openSpans[depth] = -1;
+            truncatedCount++;
+            return false;
+        }
+        if (size == messages.length) {
+            grow();
+        }
+        messages[size] = message;
+        depths[size] = depth;
+        this.startTimeMs[size] = startTimeMs;
+        durationNanos[size] = -1L;
+        exceptions[size] = null;
+        openSpans[depth] = size;
+        size++;
+        return true;
+    }
+
+    public void close(int depth, long durationNanos, Exception e) {
+        final int index = openSpans[depth];
+        if (index < 0) { // 기록하지 못한 span
+            return;
+        }
+        this.durationNanos[index] = durationNanos;
+        exceptions[index] = e;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) { // 다음 요청까지 메시지, 예외를 붙잡고 있지 않도록 참조만 지운다.
+            messages[i] = null;
+            exceptions[i] = null;
+        }
+        size = 0;
+        truncatedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getTruncatedCount() {
+        return truncatedCount;
+    }
+
+    public int getMaxSpans() {
+        return maxSpans;
+    }
+
+    public String getMessage(int index) {
+        return messages[index];
+    }
+
+    public int getDepth(int index) {
+        return depths[index];
+    }
+
+    public long getStartTimeMs(int index) {
+        return startTimeMs[index];
+    }
+
+    public long getDurationNanos(int index) {
+        return durationNanos[index];
+    }
+
+    public Exception getException(int index) {
+        return exceptions[index];
+    }
+
+    /**
+     * {"traceId":"..","unit":"ms","spans":[{"depth":0,"message":"..","start":..,"time":..,"ex":".."}, ..]}
+     * span 은 시작한 순서대로 나오며, depth 로 트리를 복원할 수 있다.
+     * 기록하지 못한 span 이 있으면 마지막에 "truncated":N 이 붙는다.
+     */
+    public StringBuilder appendJson(StringBuilder sb, TraceId traceId, TracePrecision precision) {
+        sb.append("{\"traceId\":\"").append(traceId.getId())
+                .append("\",\"unit\":\"").append(precision.unit())
+                .append("\",\"spans\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"depth\":").append(depths[i])
+                    .append(",\"message\":");
+            appendJsonString(sb, messages[i]);
+            sb.append(",\"start\":").append(startTimeMs[i])
+                    .append(",\"time\":").append(precision.fromNanos(durationNanos[i]));
+            if (exceptions[i] != null) {
+                sb.append(",\"ex\":");
+                appendJsonString(sb, exceptions[i].toString());
+            }
+            sb.append('}');
+        }
+        sb.append(']');
+        if (truncatedCount > 0) {
+            sb.append(",\"truncated\":").append(truncatedCount);
+        }
+        return sb.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min((long) messages.length * 2, maxSpans);
+        messages = Arrays.copyOf(messages, capacity);
+        depths = Arrays.copyOf(depths, capacity);
+        startTimeMs = Arrays.copyOf(startTimeMs, capacity);
+        durationNanos = Arrays.copyOf(durationNanos, capacity);
+        exceptions = Arrays.copyOf(exceptions, capacity);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.trace;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * 시간 순으로 정렬되는 128비트 ID <br/>
+ * high = 생성 시각(epoch millis, 48비트) + 노드 ID(16비트), low = 64비트 난수 <br/>
+ * 16진수 문자열도 고정 길이(32자)이기 때문에 문자열로 정렬해도 (밀리초 단위로) 생성 시각 순서가 되고,
+ * 같은 밀리초 + 같은 노드에서도 64비트 난수가 겹쳐야 충돌하므로 여러 인스턴스에서 만든 ID 를 한곳에 모아도 안전하다.
+ */
+public class TimeOrderedTraceIdScheme implements TraceIdScheme {
+
+    private static final int NODE_BITS = 16;
+    private static final int NODE_MASK = (1 << NODE_BITS) - 1;
+
+    private final long nodeId;
+
+    public TimeOrderedTraceIdScheme(final int nodeId) {
+        if (nodeId < 0 || nodeId > NODE_MASK) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + NODE_MASK + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 노드 ID 를 따로 지정하지 않을 때 사용한다. 호스트 이름과 프로세스 ID 로 노드 ID 를 만든다.
+     */
+    public static TimeOrderedTraceIdScheme withDefaultNodeId() {
+        return new TimeOrderedTraceIdScheme(defaultNodeId());
+    }
+
+    @Override
+    public long nextHigh() {
+        return (System.currentTimeMillis() << NODE_BITS) | nodeId;
+    }
+
+    @Override
+    public long nextLow() {
+        return TraceIdGenerator.nextId();
+    }
+
+    public static long timestampMillis(final TraceId traceId) {
+        return traceId.getHighBits() >>> NODE_BITS;
+    }
+
+    public static int nodeId(final TraceId traceId) {
+        return (int) (traceId.getHighBits() & NODE_MASK);
+    }
+
+    static int defaultNodeId() {
+        final int hash = 31 * hostName().hashCode() + Long.hashCode(ProcessHandle.current().pid());
+        return (hash ^ (hash >>> NODE_BITS)) & NODE_MASK; // 같은 호스트의 여러 프로세스도 구분되도록 pid 를 섞는다.
+    }
+
+    private static String hostName() {
+        final String env = System.getenv("HOSTNAME");
+        if (env != null) {
+            return env;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
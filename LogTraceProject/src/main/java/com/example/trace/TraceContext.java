@@ -0,0 +1,160 @@
+package com.example.trace;
+
+/**
+ * 쓰레드 하나가 진행 중인 트레이스의 상태(트랜잭션 ID, depth)를 담는 가변 객체 <br/>
+ * depth 마다 TraceId, TraceStatus 를 미리 만들어두고 재사용하기 때문에, 한번 경험한 depth 까지는 begin/end 에서 객체를 새로 만들지 않는다. <br/>
+ * 한 쓰레드 안에서만 사용해야 한다. (ThreadLocal 에 담아서 사용)
+ */
+public final class TraceContext {
+
+    private static final int INITIAL_DEPTH = 8;
+    private static final int IDLE = -1;
+
+    private final TraceIdScheme scheme; // root span 의 트랜잭션 ID 발급 방식
+    private TraceStatus[] statuses = new TraceStatus[INITIAL_DEPTH];
+    private int level = IDLE; // 현재 depth, 진행 중인 트레이스가 없으면 -1
+    private TraceSnapshot remote; // 다른 프로세스에서 넘어온 위치, 있으면 root span 이 같은 트랜잭션 ID 로 시작한다.
+
+    public TraceContext() {
+        this(TraceId.DEFAULT_SCHEME);
+    }
+
+    public TraceContext(final TraceIdScheme scheme) {
+        this.scheme = scheme;
+        fill(0);
+    }
+
+    /**
+     * depth 를 하나 증가시키고 해당 depth 의 TraceStatus 를 돌려준다.
+     * level 0 이면 새로운 트랜잭션 ID 를 발급한다.
+     */
+    public TraceStatus begin(String message, long startTimeMs, long startTimeNanos) {
+        return begin(message, null, startTimeMs, startTimeNanos);
+    }
+
+    /**
+     * {@link TraceSite} 로 시작한다. 끝날 때 {@link TraceStatus#getSite()} 로 다시 찾을 수 있다.
+     */
+    public TraceStatus begin(TraceSite site, long startTimeMs, long startTimeNanos) {
+        return begin(site.getMessage(), site, startTimeMs, startTimeNanos);
+    }
+
+    private TraceStatus begin(String message, TraceSite site, long startTimeMs, long startTimeNanos) {
+        final int next = level + 1;
+        if (next == statuses.length) {
+            grow();
+        }
+
+        final TraceStatus status = statuses[next];
+        if (next == 0) {
+            if (remote == null) {
+                status.getTraceId().renew(scheme);
+            } else {
+                status.getTraceId().assign(remote.getTraceId(), 0);
+            }
+        } else {
+            status.getTraceId().assign(statuses[level].getTraceId(), next);
+        }
+        status.assign(startTimeMs, startTimeNanos, message, site);
+        if (next == 0 && remote != null) {
+            status.assignParentSpanId(remote.getSpanId());
+        }
+        level = next;
+        return status;
+    }
+
+    /**
+     * depth 를 하나 감소시킨다. level 0 이 끝나면 다음 요청을 위해 비어있는 상태로 돌아간다.
+     */
+    public void release() {
+        statuses[level].assign(0L, 0L, null, null); // 메시지 참조를 들고 있지 않도록 비워준다.
+        level--;
+    }
+
+    /**
+     * 현재 depth 의 트랜잭션 ID 와 span ID, level 0 부터 현재 depth 까지의 메시지와 시작 시간을 불변 스냅샷으로 만든다.
+     * 진행 중인 트레이스가 없으면 붙여둔 remote 스냅샷, 그것도 없으면 null
+     */
+    public TraceSnapshot capture() {
+        if (level == IDLE) {
+            return remote;
+        }
+        final String[] messages = new String[level + 1];
+        final long[] startTimeNanos = new long[level + 1];
+        for (int i = 0; i <= level; i++) {
+            messages[i] = statuses[i].getMessage();
+            startTimeNanos[i] = statuses[i].getStartTimeNanos();
+        }
+        final TraceStatus status = statuses[level];
+        return new TraceSnapshot(status.getTraceId().copy(), status.getSpanId(), messages, startTimeNanos);
+    }
+
+    /**
+     * 비어있는 컨텍스트를 다른 쓰레드에서 만든 스냅샷의 위치에서 이어서 시작한다.
+     * 이후 begin() 은 스냅샷의 다음 depth 로 기록된다. (스냅샷의 span 자체는 원래 쓰레드에서 끝난다)
+     * 이어받은 depth 에는 원래 쓰레드의 메시지와 시작 시간이 들어있으므로 {@link TraceListener} 가 상위 span 경로를 볼 수 있다.
+     * remote 스냅샷이면 {@link #reset()} 전까지 root span 이 스냅샷의 트랜잭션 ID 로 시작한다.
+     */
+    public void attach(TraceSnapshot snapshot) {
+        if (level != IDLE) {
+            throw new IllegalStateException("trace context is already active: level=" + level);
+        }
+        if (snapshot.isRemote()) {
+            remote = snapshot;
+            return;
+        }
+        final int attachLevel = snapshot.getLevel();
+        while (attachLevel >= statuses.length) {
+            grow();
+        }
+        for (int i = 0; i <= attachLevel; i++) {
+            statuses[i].getTraceId().assign(snapshot.getTraceId(), i);
+            statuses[i].assign(0L, snapshot.getStartTimeNanos(i), snapshot.getMessage(i));
+        }
+        level = attachLevel;
+    }
+
+    /**
+     * 끝나지 않은 span 이 남아 있어도 비어있는 상태로 되돌린다. (쓰레드 풀의 쓰레드에 상태가 남지 않도록)
+     */
+    public void reset() {
+        for (int i = 0; i <= level; i++) {
+            statuses[i].assign(0L, 0L, null);
+        }
+        level = IDLE;
+        remote = null;
+    }
+
+    public boolean isActive() {
+        return level != IDLE;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 해당 depth 의 TraceStatus, 진행 중이 아니면 null <br/>
+     * 다른 쓰레드에서 관찰용으로 호출해도 예외는 나지 않지만, 그 사이에 값이 바뀔 수 있다. (샘플링 용도로만 사용)
+     */
+    public TraceStatus getStatus(int level) {
+        final TraceStatus[] current = statuses;
+        if (level < 0 || level > this.level || level >= current.length) {
+            return null;
+        }
+        return current[level];
+    }
+
+    private void grow() {
+        final TraceStatus[] old = statuses;
+        statuses = new TraceStatus[old.length * 2];
+        System.arraycopy(old, 0, statuses, 0, old.length);
+        fill(old.length);
+    }
+
+    private void fill(int from) {
+        for (int i = from; i < statuses.length; i++) {
+            statuses[i] = new TraceStatus(new TraceId(0L, i), 0L, 0L, null);
+        }
+    }
+}
@@ -1,32 +1,74 @@
 package com.example.trace;
 
-import java.util.UUID;
-
 public class TraceId {
 
-    private String id; // transactionId 를 의미
+    /**
+     * scheme 을 지정하지 않았을 때 사용한다. (64비트 랜덤 ID)
+     */
+    public static final TraceIdScheme DEFAULT_SCHEME = new RandomTraceIdScheme();
+
+    private long high; // transactionId 상위 64비트 (64비트 ID 를 쓰는 방식이면 0)
+    private long low; // transactionId 하위 64비트
     private int level; // depth를 표현하기 위함
+    private String id; // transactionId 를 16진수로 출력한 값. 출력할 때 한번만 만들어서 재사용한다.
 
     public TraceId() {
-        this.id = createId();
-        this.level = 0;
+        this(DEFAULT_SCHEME);
+    }
+
+    public TraceId(final TraceIdScheme scheme) {
+        renew(scheme);
     }
 
-    private TraceId(String id, int level) {
-        this.id = id;
+    TraceId(long low, int level) {
+        this.low = low;
         this.level = level;
     }
 
-    private String createId() {
-        return UUID.randomUUID().toString().substring(0, 8); // 너무 길기 때문에 앞 8자리만 사용
+    TraceId(long high, long low, int level) {
+        this.high = high;
+        this.low = low;
+        this.level = level;
+    }
+
+    private TraceId(TraceId source, int level) {
+        assign(source, level);
     }
 
     public TraceId createNextId() {
-        return new TraceId(id, level + 1);
+        return new TraceId(this, level + 1);
     }
 
     public TraceId createPreviousId() {
-        return new TraceId(id, level - 1);
+        return new TraceId(this, level - 1);
+    }
+
+    /**
+     * 주어진 scheme 으로 새로운 트랜잭션 ID 를 발급받는다. (level 0)
+     * {@link TraceContext} 가 쓰레드별로 미리 만들어둔 TraceId 를 재사용할 때도 사용한다.
+     */
+    void renew(TraceIdScheme scheme) {
+        this.high = scheme.nextHigh();
+        this.low = scheme.nextLow();
+        this.level = 0;
+        this.id = null;
+    }
+
+    /**
+     * {@link TraceContext} 가 쓰레드별로 미리 만들어둔 TraceId 를 재사용할 때 사용한다. (같은 트랜잭션의 다른 depth)
+     */
+    void assign(TraceId source, int level) {
+        this.high = source.high;
+        this.low = source.low;
+        this.id = source.id; // 이미 만들어진 문자열이 있다면 그대로 물려준다.
+        this.level = level;
+    }
+
+    /**
+     * 다른 쓰레드로 넘겨줄 수 있도록 현재 값을 복사한다. ({@link TraceSnapshot})
+     */
+    TraceId copy() {
+        return new TraceId(this, level);
     }
 
     public boolean isFirstLevel() {
@@ -34,9 +76,20 @@ public class TraceId {
     }
 
     public String getId() {
+        if (id == null) {
+            id = TraceIdGenerator.toHex(high, low);
+        }
         return id;
     }
 
+    public long getHighBits() {
+        return high;
+    }
+
+    public long getLowBits() {
+        return low;
+    }
+
     public int getLevel() {
         return level;
     }
@@ -0,0 +1,64 @@
+package com.example.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 트랜잭션 ID 생성/출력 유틸리티 <br/>
+ * UUID.randomUUID() 는 SecureRandom 을 거치고 36자 문자열까지 만들기 때문에, 쓰레드별 난수 생성기(ThreadLocalRandom)로 64비트 값만 만든다.
+ * 문자열(16진수)은 로그로 출력할 때 딱 한번만 만든다.
+ */
+public final class TraceIdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int HEX_LENGTH = 16;
+
+    private TraceIdGenerator() {
+    }
+
+    public static long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L); // 0 은 "아직 ID 없음" 으로 쓰기 위해 피한다.
+        return id;
+    }
+
+    /**
+     * 항상 16자리로 맞춰서 출력한다. (앞자리 0 포함)
+     */
+    public static String toHex(long id) {
+        final char[] chars = new char[HEX_LENGTH];
+        writeHex(id, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * high 가 0 이면 64비트 ID(16자리), 아니면 128비트 ID(32자리)로 출력한다.
+     */
+    public static String toHex(long high, long low) {
+        if (high == 0L) {
+            return toHex(low);
+        }
+        final char[] chars = new char[HEX_LENGTH * 2];
+        writeHex(high, chars, 0);
+        writeHex(low, chars, HEX_LENGTH);
+        return new String(chars);
+    }
+
+    static void writeHex(long value, char[] chars, int offset) {
+        for (int i = offset + HEX_LENGTH - 1; i >= offset; i--) {
+            chars[i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * {@link #writeHex} 와 같은 16자리를 로그 줄에 바로 붙인다. (traceparent 의 span ID 와 같은 모양)
+     */
+    static StringBuilder appendHex(StringBuilder sb, long value) {
+        for (int shift = (HEX_LENGTH - 1) * 4; shift >= 0; shift -= 4) {
+            sb.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+        return sb;
+    }
+}
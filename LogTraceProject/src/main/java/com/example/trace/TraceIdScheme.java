@@ -0,0 +1,19 @@
+package com.example.trace;
+
+/**
+ * 트랜잭션 ID 를 만드는 방식 <br/>
+ * ID 는 최대 128비트(high 64비트 + low 64비트)이며, high 가 0 이면 low 만 사용하는 64비트 ID 로 취급한다.
+ * LogTrace 를 만들 때 넘겨주면 그 LogTrace 의 {@link TraceContext} 가 root span 마다 이 방식으로 ID 를 발급한다.
+ */
+public interface TraceIdScheme {
+
+    /**
+     * 상위 64비트, 64비트 ID 를 쓰는 방식이면 0 을 돌려준다.
+     */
+    long nextHigh();
+
+    /**
+     * 하위 64비트, 0 이 아니어야 한다.
+     */
+    long nextLow();
+}
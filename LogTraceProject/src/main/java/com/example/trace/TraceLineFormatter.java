@@ -0,0 +1,245 @@
+package com.example.trace;
+
+/**
+ * 로그 추적기의 한 줄을 만드는 공용 포맷터 <br/>
+ * [traceId] |   |-->message <br/>
+ * [traceId] |   |<--message time=1ms (단위는 {@link TracePrecision}) <br/>
+ * [traceId] |   |<X-message time=1ms ex=java.lang.IllegalStateException <br/>
+ * 다른 프로세스와 이어진 span 은 줄 끝에 span ID 를 붙인다. ({@link TraceStatus} 로 만들 때만) <br/>
+ * [traceId] message parent=00f067aa0ba902b7 (들어온 traceparent 로 시작한 root span, 호출한 쪽의 span ID) <br/>
+ * [traceId] |   |<--message time=1ms span=5c1e4a7d93b2f061 (traceparent 로 다른 서비스에 전달한 span, 그쪽 root span 의 parent) <br/>
+ * depth 별 들여쓰기(addSpace)를 마커(-->, <--, <X-)마다 미리 만들어두고,
+ * 쓰레드별로 재사용하는 버퍼에 바로 써서 줄 하나당 String 하나만 만든다. (SLF4J 의 {} 치환도 거치지 않음)
+ */
+public final class TraceLineFormatter {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    static final int CACHED_LEVELS = 32;
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final char[][] START = prefixes(START_PREFIX);
+    private static final char[][] COMPLETE = prefixes(COMPLETE_PREFIX);
+    private static final char[][] EXCEPTION = prefixes(EX_PREFIX);
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private TraceLineFormatter() {
+    }
+
+    public static String begin(TraceId traceId, String message) {
+        return toLine(appendBegin(buffer(), traceId, message));
+    }
+
+    public static String complete(TraceId traceId, String message, long resultTimeMs) {
+        return complete(traceId, message, resultTimeMs, TracePrecision.MILLIS);
+    }
+
+    public static String exception(TraceId traceId, String message, long resultTimeMs, Exception e) {
+        return exception(traceId, message, resultTimeMs, TracePrecision.MILLIS, e);
+    }
+
+    public static String complete(TraceId traceId, String message, long resultTime, TracePrecision precision) {
+        return toLine(appendComplete(buffer(), traceId.getId(), traceId.getLevel(), message, resultTime, precision));
+    }
+
+    public static String exception(TraceId traceId, String message, long resultTime, TracePrecision precision, Exception e) {
+        return toLine(appendException(buffer(), traceId.getId(), traceId.getLevel(), message, resultTime, precision, e));
+    }
+
+    public static StringBuilder appendBegin(StringBuilder sb, TraceId traceId, String message) {
+        return appendBegin(sb, traceId.getId(), traceId.getLevel(), message);
+    }
+
+    public static StringBuilder appendComplete(StringBuilder sb, TraceId traceId, String message, long resultTimeMs) {
+        return appendComplete(sb, traceId.getId(), traceId.getLevel(), message, resultTimeMs, TracePrecision.MILLIS);
+    }
+
+    public static StringBuilder appendException(StringBuilder sb, TraceId traceId, String message, long resultTimeMs, Exception e) {
+        return appendException(sb, traceId.getId(), traceId.getLevel(), message, resultTimeMs, TracePrecision.MILLIS, e);
+    }
+
+    /**
+     * {@link TraceSite} 가 미리 만들어둔 줄 앞부분을 사용한다. (depth 가 너무 깊으면 메시지로 만든다)
+     */
+    public static String begin(TraceId traceId, TraceSite site) {
+        final int level = traceId.getLevel();
+        final StringBuilder sb = appendId(buffer(), traceId.getId());
+        return toLine(level < CACHED_LEVELS ? sb.append(site.beginLine(level)) : appendBegin(sb, level, site.getMessage()));
+    }
+
+    public static String complete(TraceId traceId, TraceSite site, long resultTime, TracePrecision precision) {
+        final int level = traceId.getLevel();
+        final StringBuilder sb = appendId(buffer(), traceId.getId());
+        (level < CACHED_LEVELS ? sb.append(site.completeLine(level)) : appendCompleteHead(sb, level, site.getMessage()))
+                .append(resultTime).append(precision.unit());
+        return toLine(sb);
+    }
+
+    public static String exception(TraceId traceId, TraceSite site, long resultTime, TracePrecision precision, Exception e) {
+        final int level = traceId.getLevel();
+        final StringBuilder sb = appendId(buffer(), traceId.getId());
+        (level < CACHED_LEVELS ? sb.append(site.exceptionLine(level)) : appendExceptionHead(sb, level, site.getMessage()))
+                .append(resultTime).append(precision.unit())
+                .append(" ex=");
+        return toLine(appendException(sb, e));
+    }
+
+    /**
+     * TraceSite 로 시작했으면 미리 만들어둔 줄 앞부분을 사용하고, 다른 프로세스와 이어진 span 이면 span ID 를 붙인다.
+     */
+    public static String begin(TraceStatus status) {
+        final TraceId traceId = status.getTraceId();
+        final TraceSite site = status.getSite();
+        final int level = traceId.getLevel();
+        final StringBuilder sb = appendId(buffer(), traceId.getId());
+        if (site != null && level < CACHED_LEVELS) {
+            sb.append(site.beginLine(level));
+        } else {
+            appendBegin(sb, level, status.getMessage());
+        }
+        return toLine(appendParentSpanId(sb, status.getParentSpanId()));
+    }
+
+    public static String complete(TraceStatus status, long resultTime, TracePrecision precision) {
+        final StringBuilder sb = appendEndHead(status, false).append(resultTime).append(precision.unit());
+        return toLine(appendSpanId(sb, status.hasSpanId() ? status.getSpanId() : 0L));
+    }
+
+    public static String exception(TraceStatus status, long resultTime, TracePrecision precision, Exception e) {
+        final StringBuilder sb = appendEndHead(status, true).append(resultTime).append(precision.unit()).append(" ex=");
+        return toLine(appendSpanId(appendException(sb, e), status.hasSpanId() ? status.getSpanId() : 0L));
+    }
+
+    private static StringBuilder appendEndHead(TraceStatus status, boolean exception) {
+        final TraceId traceId = status.getTraceId();
+        final TraceSite site = status.getSite();
+        final int level = traceId.getLevel();
+        final StringBuilder sb = appendId(buffer(), traceId.getId());
+        if (site != null && level < CACHED_LEVELS) {
+            return sb.append(exception ? site.exceptionLine(level) : site.completeLine(level));
+        }
+        return exception ? appendExceptionHead(sb, level, status.getMessage()) : appendCompleteHead(sb, level, status.getMessage());
+    }
+
+    /**
+     * 들어온 traceparent 의 parent-id, 0 이면 아무것도 쓰지 않는다.
+     */
+    public static StringBuilder appendParentSpanId(StringBuilder sb, long parentSpanId) {
+        return parentSpanId == 0L ? sb : TraceIdGenerator.appendHex(sb.append(" parent="), parentSpanId);
+    }
+
+    /**
+     * 나가는 traceparent 의 parent-id 로 보낸 span ID, 0 이면 아무것도 쓰지 않는다.
+     */
+    public static StringBuilder appendSpanId(StringBuilder sb, long spanId) {
+        return spanId == 0L ? sb : TraceIdGenerator.appendHex(sb.append(" span="), spanId);
+    }
+
+    /**
+     * TraceId 객체 없이 ID 문자열과 depth 만 가지고 있을 때 사용한다. (예: 다른 쓰레드로 넘겨진 이벤트)
+     */
+    public static StringBuilder appendBegin(StringBuilder sb, String traceId, int level, String message) {
+        return appendHead(sb, traceId, level, START, START_PREFIX).append(message);
+    }
+
+    public static StringBuilder appendComplete(StringBuilder sb, String traceId, int level, String message, long resultTime, TracePrecision precision) {
+        return appendHead(sb, traceId, level, COMPLETE, COMPLETE_PREFIX).append(message)
+                .append(" time=").append(resultTime).append(precision.unit());
+    }
+
+    public static StringBuilder appendException(StringBuilder sb, String traceId, int level, String message, long resultTime, TracePrecision precision, Exception e) {
+        appendHead(sb, traceId, level, EXCEPTION, EX_PREFIX).append(message)
+                .append(" time=").append(resultTime).append(precision.unit())
+                .append(" ex=");
+        return appendException(sb, e);
+    }
+
+    /**
+     * 예외 객체 없이 출력할 문자열(예: 예외 클래스 이름)만 가지고 있을 때 사용한다. (예: 바이너리 저널 디코딩)
+     */
+    public static StringBuilder appendException(StringBuilder sb, String traceId, int level, String message, long resultTime, TracePrecision precision, String exception) {
+        return appendHead(sb, traceId, level, EXCEPTION, EX_PREFIX).append(message)
+                .append(" time=").append(resultTime).append(precision.unit())
+                .append(" ex=").append(exception);
+    }
+
+    /**
+     * e.toString() 과 같은 결과를 중간 문자열 없이 버퍼에 바로 쓴다.
+     */
+    public static StringBuilder appendException(StringBuilder sb, Exception e) {
+        sb.append(e.getClass().getName());
+        final String message = e.getLocalizedMessage();
+        if (message != null) {
+            sb.append(": ").append(message);
+        }
+        return sb;
+    }
+
+    private static StringBuilder appendHead(StringBuilder sb, String traceId, int level, char[][] prefixes, String marker) {
+        return appendSpace(appendId(sb, traceId), prefixes, marker, level);
+    }
+
+    private static StringBuilder appendId(StringBuilder sb, String traceId) {
+        return sb.append('[').append(traceId).append("] ");
+    }
+
+    /*
+     * [traceId] 뒤에 오는 부분, TraceSite 가 depth 별로 미리 만들어둘 때 사용한다.
+     */
+
+    static StringBuilder appendBegin(StringBuilder sb, int level, String message) {
+        return appendSpace(sb, START, START_PREFIX, level).append(message);
+    }
+
+    static StringBuilder appendCompleteHead(StringBuilder sb, int level, String message) {
+        return appendSpace(sb, COMPLETE, COMPLETE_PREFIX, level).append(message).append(" time=");
+    }
+
+    static StringBuilder appendExceptionHead(StringBuilder sb, int level, String message) {
+        return appendSpace(sb, EXCEPTION, EX_PREFIX, level).append(message).append(" time=");
+    }
+
+    /**
+     level=0 => 아무것도 없음 <br/>
+     level=1 => |--> <br/>
+     level=2 => |    |--> <br/>
+     */
+    private static StringBuilder appendSpace(StringBuilder sb, char[][] prefixes, String marker, int level) {
+        if (level < CACHED_LEVELS) {
+            return sb.append(prefixes[level]);
+        }
+        for (int i = 0; i < level - 1; i++) { // 미리 만들어두지 않은 깊은 depth 는 버퍼에 바로 쓴다.
+            sb.append("|   ");
+        }
+        return sb.append('|').append(marker);
+    }
+
+    private static char[][] prefixes(String marker) {
+        final char[][] prefixes = new char[CACHED_LEVELS][];
+        for (int level = 0; level < CACHED_LEVELS; level++) {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < level; i++) {
+                sb.append((i == level - 1) ? "|" + marker : "|   ");
+            }
+            prefixes[level] = sb.toString().toCharArray();
+        }
+        return prefixes;
+    }
+
+    private static StringBuilder buffer() {
+        final StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    private static String toLine(StringBuilder sb) {
+        final String line = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) { // 아주 긴 메시지 때문에 커진 버퍼는 계속 들고 있지 않는다.
+            BUFFER.remove();
+        }
+        return line;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.trace;
+
+/**
+ * span 이 끝날 때마다 호출되는 확장 지점 <br/>
+ * 요청 쓰레드에서 바로 호출되므로 구현체는 블로킹 없이 빠르게 끝나야 한다.
+ */
+public interface TraceListener {
+
+    /**
+     * @param status        끝난 span 의 상태 (메시지, TraceId, 시작 시간)
+     * @param durationNanos 걸린 시간 (System.nanoTime() 기준)
+     * @param e             exception() 으로 끝났으면 예외, 정상 종료면 null
+     */
+    void onComplete(TraceStatus status, long durationNanos, Exception e);
+
+    /**
+     * 끝난 span 의 상위 span 들이 필요할 때 구현한다. 호출되는 시점에는 context 에 아직 이 span 까지 남아있다.
+     * ({@link TraceContext#getStatus(int)} 로 level 0 부터 조회)
+     */
+    default void onComplete(TraceContext context, TraceStatus status, long durationNanos, Exception e) {
+        onComplete(status, durationNanos, e);
+    }
+
+    /**
+     * 쓰레드마다 TraceContext 를 처음 만들 때 한번 호출된다. 다른 쓰레드에서 진행 중인 span 을 관찰할 때 사용한다. <br/>
+     * 제출한 쓰레드에서 바로 실행되는 작업은 잠시 새 컨텍스트를 만들어서 실행하므로 그때도 호출되고,
+     * 작업이 끝나 원래 컨텍스트로 돌아갈 때 원래 컨텍스트로 한번 더 호출된다. (쓰레드의 현재 컨텍스트로 바꿔서 관찰하면 된다)
+     */
+    default void onContextCreated(Thread thread, TraceContext context) {
+    }
+}
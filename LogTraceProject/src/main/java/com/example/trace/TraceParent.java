@@ -0,0 +1,110 @@
+package com.example.trace;
+
+/**
+ * W3C Trace Context 의 traceparent 헤더 <br/>
+ * {@code 00-<trace-id 32자리>-<parent-id 16자리>-<flags 2자리>} (예: 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01) <br/>
+ * 요청마다 실행되므로 split, 정규식, substring 없이 글자 단위로 바로 읽고 쓴다.
+ * 읽을 때는 {@link TraceSnapshot} 하나, 쓸 때는 55자 문자열 하나만 만든다.
+ */
+public final class TraceParent {
+
+    public static final String HEADER = "traceparent";
+
+    private static final int LENGTH = 55;
+    private static final int TRACE_ID_OFFSET = 3;
+    private static final int PARENT_ID_OFFSET = 36;
+    private static final int FLAGS_OFFSET = 53;
+
+    private TraceParent() {
+    }
+
+    /**
+     * @return 형식이 맞지 않으면 null (헤더가 없는 것과 같이 취급한다)
+     */
+    public static TraceSnapshot parse(final CharSequence header) {
+        if (header == null || header.length() < LENGTH) {
+            return null;
+        }
+        // 00 은 정확히 55자, 이후 버전은 뒤에 필드가 더 붙을 수 있다. ff 는 사용할 수 없는 버전
+        final int version = hexByte(header, 0);
+        if (version < 0 || version == 0xff
+                || (version == 0 ? header.length() != LENGTH : header.length() > LENGTH && header.charAt(LENGTH) != '-')) {
+            return null;
+        }
+        if (header.charAt(2) != '-' || header.charAt(PARENT_ID_OFFSET - 1) != '-' || header.charAt(FLAGS_OFFSET - 1) != '-'
+                || !isHex(header, TRACE_ID_OFFSET, PARENT_ID_OFFSET - 1) || !isHex(header, PARENT_ID_OFFSET, FLAGS_OFFSET - 1)
+                || hexByte(header, FLAGS_OFFSET) < 0) {
+            return null;
+        }
+
+        final long high = parseHex(header, TRACE_ID_OFFSET);
+        final long low = parseHex(header, TRACE_ID_OFFSET + 16);
+        final long parentId = parseHex(header, PARENT_ID_OFFSET);
+        if ((high == 0L && low == 0L) || parentId == 0L) { // 모두 0 인 ID 는 유효하지 않다.
+            return null;
+        }
+        return TraceSnapshot.remote(high, low, parentId);
+    }
+
+    public static String format(final TraceSnapshot snapshot) {
+        final TraceId traceId = snapshot.getTraceId();
+        return format(traceId.getHighBits(), traceId.getLowBits(), snapshot.getSpanId());
+    }
+
+    /**
+     * trace-id 는 64비트 ID 여도 앞을 0 으로 채워서 항상 32자리로 쓴다.
+     */
+    public static String format(final long high, final long low, final long spanId) {
+        final char[] chars = new char[LENGTH];
+        chars[0] = '0';
+        chars[1] = '0';
+        chars[2] = '-';
+        TraceIdGenerator.writeHex(high, chars, TRACE_ID_OFFSET);
+        TraceIdGenerator.writeHex(low, chars, TRACE_ID_OFFSET + 16);
+        chars[PARENT_ID_OFFSET - 1] = '-';
+        TraceIdGenerator.writeHex(spanId, chars, PARENT_ID_OFFSET);
+        chars[FLAGS_OFFSET - 1] = '-';
+        chars[FLAGS_OFFSET] = '0'; // 이 프로세스는 항상 기록하므로 sampled(01)
+        chars[FLAGS_OFFSET + 1] = '1';
+        return new String(chars);
+    }
+
+    private static boolean isHex(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (hexValue(s.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 16자리를 읽는다. isHex 로 먼저 확인한 범위에만 사용한다.
+     */
+    private static long parseHex(CharSequence s, int from) {
+        long value = 0L;
+        for (int i = from; i < from + 16; i++) {
+            value = (value << 4) | hexValue(s.charAt(i));
+        }
+        return value;
+    }
+
+    private static int hexByte(CharSequence s, int from) {
+        final int high = hexValue(s.charAt(from));
+        final int low = hexValue(s.charAt(from + 1));
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    /**
+     * 명세상 소문자만 허용한다.
+     */
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
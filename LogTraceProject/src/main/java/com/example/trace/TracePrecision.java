@@ -0,0 +1,43 @@
+package com.example.trace;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 걸린 시간(time=) 을 어떤 단위로 출력할지 <br/>
+ * 측정은 항상 System.nanoTime() (단조 증가, NTP 보정에 영향 없음) 으로 하고 출력할 때만 단위를 바꾼다.
+ * 1ms 보다 빠른 repository/service 호출은 MICROS, NANOS 로 보면 0ms 로 묻히지 않는다.
+ */
+public enum TracePrecision {
+
+    MILLIS("ms", TimeUnit.MILLISECONDS),
+    MICROS("us", TimeUnit.MICROSECONDS),
+    NANOS("ns", TimeUnit.NANOSECONDS);
+
+    private final String unit;
+    private final TimeUnit timeUnit;
+
+    TracePrecision(String unit, TimeUnit timeUnit) {
+        this.unit = unit;
+        this.timeUnit = timeUnit;
+    }
+
+    public long fromNanos(long nanos) {
+        return timeUnit.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    /**
+     * "ms", "us", "ns" (설정 파일에서 사용하는 값) 로 찾는다.
+     */
+    public static TracePrecision of(String unit) {
+        for (TracePrecision precision : values()) {
+            if (precision.unit.equals(unit)) {
+                return precision;
+            }
+        }
+        throw new IllegalArgumentException("unknown trace precision: " + unit);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 로그를 남기는 호출 지점(call site) 하나를 나타내는 핸들 <br/>
+ * static final 필드로 한번만 만들어두고 {@code template.execute(SITE, callback)} 처럼 사용한다.
+ * <pre>
+ * private static final TraceSite ORDER_ITEM = TraceSite.of("OrderServiceV5.orderItem()");
+ * </pre>
+ * 메시지마다 고유한 ID 를 하나 받고, depth 별 로그 줄 앞부분(들여쓰기 + 메시지)을 처음 사용할 때 한번만 만들어서 재사용한다.
+ * 호출 지점별 호출 수, 예외 수, 걸린 시간도 함께 센다. <br/>
+ * 등록된 호출 지점은 지워지지 않으므로 메시지는 소스에 고정된 문자열이어야 한다. (요청 값을 이어붙인 메시지 X)
+ * 등록 수가 {@link #MAX_SITES} 를 넘으면 더 이상 등록하지 않고 매번 새 TraceSite 를 돌려준다. (ID 는 0, {@link #sites()} 에 없음)
+ */
+public final class TraceSite {
+
+    public static final int MAX_SITES = 4096;
+
+    private static final ConcurrentHashMap<String, TraceSite> SITES = new ConcurrentHashMap<>();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final int id;
+    private final String message;
+
+    // depth 별 "|   |-->message", "|   |<--message time=", "|   |<X-message time=" (처음 사용할 때 만든다)
+    private final AtomicReferenceArray<char[]> beginLines = new AtomicReferenceArray<>(TraceLineFormatter.CACHED_LEVELS);
+    private final AtomicReferenceArray<char[]> completeLines = new AtomicReferenceArray<>(TraceLineFormatter.CACHED_LEVELS);
+    private final AtomicReferenceArray<char[]> exceptionLines = new AtomicReferenceArray<>(TraceLineFormatter.CACHED_LEVELS);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder exceptionCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    private TraceSite(int id, String message) {
+        this.id = id;
+        this.message = message;
+    }
+
+    /**
+     * 같은 메시지는 항상 같은 TraceSite 를 돌려준다.
+     */
+    public static TraceSite of(final String message) {
+        return of(message, MAX_SITES);
+    }
+
+    static TraceSite of(final String message, final int maxSites) {
+        final TraceSite site = SITES.get(message);
+        if (site != null) {
+            return site;
+        }
+        if (SITES.size() >= maxSites) { // 동시에 등록하면 조금 넘을 수 있다.
+            return new TraceSite(0, message);
+        }
+        return SITES.computeIfAbsent(message, key -> new TraceSite(SEQUENCE.incrementAndGet(), key));
+    }
+
+    /**
+     * 지금까지 등록된 모든 호출 지점 (ID 순)
+     */
+    public static List<TraceSite> sites() {
+        final List<TraceSite> sites = new ArrayList<>(SITES.values());
+        sites.sort((a, b) -> Integer.compare(a.id, b.id));
+        return sites;
+    }
+
+    /**
+     * span 이 끝날 때 호출한다.
+     */
+    public void record(final long durationNanos, final boolean failed) {
+        count.increment();
+        totalNanos.add(durationNanos);
+        maxNanos.accumulate(durationNanos);
+        if (failed) {
+            exceptionCount.increment();
+        }
+    }
+
+    /*
+     * 여러 쓰레드가 동시에 처음 사용하면 같은 내용을 두 번 만들 수 있지만, 결과가 같으므로 락을 잡지 않는다.
+     * 배열 내용까지 다 채운 뒤 setRelease 로 공개하고 getAcquire 로 읽으므로, 다른 쓰레드가 덜 채워진 배열을 보지 않는다.
+     */
+
+    char[] beginLine(int level) {
+        char[] line = beginLines.getAcquire(level);
+        if (line == null) {
+            line = TraceLineFormatter.appendBegin(new StringBuilder(), level, message).toString().toCharArray();
+            beginLines.setRelease(level, line);
+        }
+        return line;
+    }
+
+    char[] completeLine(int level) {
+        char[] line = completeLines.getAcquire(level);
+        if (line == null) {
+            line = TraceLineFormatter.appendCompleteHead(new StringBuilder(), level, message).toString().toCharArray();
+            completeLines.setRelease(level, line);
+        }
+        return line;
+    }
+
+    char[] exceptionLine(int level) {
+        char[] line = exceptionLines.getAcquire(level);
+        if (line == null) {
+            line = TraceLineFormatter.appendExceptionHead(new StringBuilder(), level, message).toString().toCharArray();
+            exceptionLines.setRelease(level, line);
+        }
+        return line;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getExceptionCount() {
+        return exceptionCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TraceSite{id=" + id + ", message=" + message + "}";
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.trace;
+
+/**
+ * 다른 쓰레드로 넘겨주기 위해 캡처한 트레이스 위치 (트랜잭션 ID + depth + 그 depth 의 span ID + level 0 부터 그 depth 까지의 메시지) <br/>
+ * 불변 객체라서 여러 쓰레드가 동시에 사용해도 된다. 작업을 제출할 때 캡처하고, 작업을 실행하는 쓰레드에서 {@link TraceContext#attach} 한다. <br/>
+ * 다른 프로세스에서 넘어온 위치({@link #remote})는 level 이 -1 이다. 붙이면 이 프로세스의 root span(level 0)이 같은 트랜잭션 ID 로 시작한다. <br/>
+ * 샘플링에서 빠진 트레이스의 위치({@link #unsampled})는 depth 만 가진다. 작업 쓰레드도 root 의 결정을 따라 기록하지 않는다.
+ */
+public final class TraceSnapshot {
+
+    private final TraceId traceId;
+    private final long spanId;
+    private final String[] messages; // depth 별 메시지, remote 이면 null
+    private final long[] startTimeNanos; // depth 별 시작 시간 (System.nanoTime()), remote 이면 null
+    private final boolean sampled;
+
+    TraceSnapshot(TraceId traceId, long spanId, String[] messages, long[] startTimeNanos) {
+        this(traceId, spanId, messages, startTimeNanos, true);
+    }
+
+    private TraceSnapshot(TraceId traceId, long spanId, String[] messages, long[] startTimeNanos, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.messages = messages;
+        this.startTimeNanos = startTimeNanos;
+        this.sampled = sampled;
+    }
+
+    /**
+     * 다른 프로세스(예: traceparent 헤더)에서 받은 트랜잭션 ID 와 호출한 쪽의 span ID
+     */
+    public static TraceSnapshot remote(final long high, final long low, final long parentSpanId) {
+        return new TraceSnapshot(new TraceId(high, low, -1), parentSpanId, null, null);
+    }
+
+    /**
+     * 샘플링에서 빠진 트레이스의 level 위치, 트랜잭션 ID 와 span ID 는 없다. (0)
+     */
+    public static TraceSnapshot unsampled(final int level) {
+        return new TraceSnapshot(new TraceId(0L, 0L, level), 0L, null, null, false);
+    }
+
+    public TraceId getTraceId() {
+        return traceId;
+    }
+
+    public int getLevel() {
+        return traceId.getLevel();
+    }
+
+    /**
+     * 캡처한 depth 의 span ID, remote 이면 호출한 쪽의 span ID
+     */
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * 해당 depth 에서 진행 중이던 span 의 메시지, remote 이면 null
+     */
+    public String getMessage(int level) {
+        return messages == null ? null : messages[level];
+    }
+
+    long getStartTimeNanos(int level) {
+        return startTimeNanos == null ? 0L : startTimeNanos[level];
+    }
+
+    public boolean isRemote() {
+        return traceId.getLevel() < 0;
+    }
+
+    /**
+     * false 면 root 에서 샘플링하지 않기로 한 트레이스다. 이어받은 쪽도 기록하지 않고, 다른 프로세스로 전달하지 않는다.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+}
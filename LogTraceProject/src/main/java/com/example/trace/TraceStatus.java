@@ -5,25 +5,86 @@ package com.example.trace;
  */
 public class TraceStatus {
 
+    /**
+     * 추적하지 않기로 한 span 에 돌려주는 공용 상태 (로그를 남기지 않는다)
+     * begin 에서 이 값을 돌려줬다면 end/exception 에서도 아무 일도 하지 않아야 한다.
+     */
+    public static final TraceStatus NOOP = new TraceStatus(new TraceId(0L, 0), 0L, 0L, "");
+
     private TraceId traceId;
-    private Long startTimeMs; //로그를 시작할 때의 상태 정보를 갖고 있다. 이 상태 정보는 로그를 종료할 때 사용된다.
+    private long startTimeMs; //로그를 시작할 때의 상태 정보를 갖고 있다. 이 상태 정보는 로그를 종료할 때 사용된다. (박싱을 피하기 위해 원시 타입)
+    private long startTimeNanos; // 걸린 시간 측정용 System.nanoTime(), 시각(wall-clock)이 아니므로 차이를 구할 때만 사용한다.
     private String message;
+    private TraceSite site; // TraceSite 로 시작했을 때만 있다.
+    private long spanId; // 다른 프로세스로 전달할 때(traceparent)만 필요하므로 처음 조회할 때 만든다. (0 이면 아직 없음)
+    private long parentSpanId; // 다른 프로세스에서 이어진 root span 이면 호출한 쪽의 span ID (0 이면 없음)
+
+    public TraceStatus(final TraceId traceId, final long startTimeMs, final String message) {
+        this(traceId, startTimeMs, 0L, message);
+    }
 
-    public TraceStatus(final TraceId traceId, final Long startTimeMs, final String message) {
+    public TraceStatus(final TraceId traceId, final long startTimeMs, final long startTimeNanos, final String message) {
         this.traceId = traceId;
         this.startTimeMs = startTimeMs;
+        this.startTimeNanos = startTimeNanos;
         this.message = message;
     }
 
+    /**
+     * {@link TraceContext} 가 쓰레드별로 미리 만들어둔 TraceStatus 를 재사용할 때 사용한다.
+     */
+    void assign(final long startTimeMs, final long startTimeNanos, final String message) {
+        assign(startTimeMs, startTimeNanos, message, null);
+    }
+
+    void assign(final long startTimeMs, final long startTimeNanos, final String message, final TraceSite site) {
+        this.startTimeMs = startTimeMs;
+        this.startTimeNanos = startTimeNanos;
+        this.message = message;
+        this.site = site;
+        this.spanId = 0L;
+        this.parentSpanId = 0L;
+    }
+
+    void assignParentSpanId(final long parentSpanId) {
+        this.parentSpanId = parentSpanId;
+    }
+
     public TraceId getTraceId() {
         return traceId;
     }
 
-    public Long getStartTimeMs() {
+    public long getStartTimeMs() {
         return startTimeMs;
     }
 
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
     public String getMessage() {
         return message;
     }
+
+    public long getSpanId() {
+        if (spanId == 0L) {
+            spanId = TraceIdGenerator.nextId();
+        }
+        return spanId;
+    }
+
+    /**
+     * span ID 를 이미 만들었는지 (다른 프로세스로 전달한 span 인지), 조회만 하고 새로 만들지 않는다.
+     */
+    public boolean hasSpanId() {
+        return spanId != 0L;
+    }
+
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public TraceSite getSite() {
+        return site;
+    }
 }
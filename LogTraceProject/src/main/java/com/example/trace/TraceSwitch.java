@@ -0,0 +1,29 @@
+package com.example.trace;
+
+/**
+ * 트레이스 전체를 실행 중에 켜고 끄는 스위치 <br/>
+ * 꺼져 있으면 begin 은 {@link TraceStatus#NOOP} 을 돌려주고 end/exception 은 NOOP 을 무시한다.
+ * 그래서 ThreadLocal 조회, TraceId 발급, 로그 문자열 생성을 모두 건너뛰고 객체를 하나도 만들지 않는다. <br/>
+ * 켜져 있을 때 시작한 span 은 도중에 꺼져도 자기 TraceStatus 로 끝나기 때문에 depth 가 어긋나지 않는다.
+ * (반대로 꺼져 있을 때 시작한 span 은 도중에 켜져도 NOOP 으로 끝난다)
+ */
+public final class TraceSwitch {
+
+    private volatile boolean enabled;
+
+    public TraceSwitch() {
+        this(true);
+    }
+
+    public TraceSwitch(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+}
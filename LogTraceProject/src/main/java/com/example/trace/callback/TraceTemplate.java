@@ -1,6 +1,6 @@
 package com.example.trace.callback;
 
-import com.example.trace.TraceStatus;
+import com.example.trace.TraceSite;
 import com.example.trace.logtrace.LogTrace;
 
 public class TraceTemplate {
@@ -11,16 +11,17 @@ public class TraceTemplate {
         this.trace = trace;
     }
 
+    /**
+     * span 을 어떻게 열고 닫을지는 LogTrace 가 정한다. ({@link LogTrace#execute(String, TraceCallback)})
+     */
     public <T> T execute(String message, TraceCallback<T> callback) {
-        TraceStatus status = null;
-        try {
-            status = trace.begin(message);
-            T result = callback.call(); // 로직 호출
-            trace.end(status);
-            return result;
-        } catch (Exception e) {
-            trace.exception(status, e);
-            throw e;
-        }
+        return trace.execute(message, callback);
+    }
+
+    /**
+     * 미리 등록해둔 호출 지점으로 실행한다. 메시지 문자열을 다시 다루지 않는다.
+     */
+    public <T> T execute(TraceSite site, TraceCallback<T> callback) {
+        return trace.execute(site, callback);
     }
 }
@@ -3,6 +3,7 @@ package com.example.trace.hellotrace;
 import org.springframework.stereotype.Component;
 
 import com.example.trace.TraceId;
+import com.example.trace.TraceLineFormatter;
 import com.example.trace.TraceStatus;
 
 import lombok.extern.slf4j.Slf4j;
@@ -11,14 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class HelloTraceV2 {
 
-    private static final String START_PREFIX = "-->";
-    private static final String COMPLETE_PREFIX = "<--";
-    private static final String EX_PREFIX = "<X-";
-
     public TraceStatus begin(String message) {
         final TraceId traceId = new TraceId();
         final long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        log.info(TraceLineFormatter.begin(traceId, message));
         return new TraceStatus(traceId, startTimeMs, message);
     }
 
@@ -26,7 +23,7 @@ public class HelloTraceV2 {
     public TraceStatus beginSync(TraceId beforeTraceId, String message) {
         final TraceId nextId = beforeTraceId.createNextId();
         final long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", nextId.getId(), addSpace(START_PREFIX, nextId.getLevel()), message);
+        log.info(TraceLineFormatter.begin(nextId, message));
         return new TraceStatus(nextId, startTimeMs, message);
     }
 
@@ -43,23 +40,10 @@ public class HelloTraceV2 {
         final long resultTimeMs = stopTimeMs - status.getStartTimeMs();
         final TraceId traceId = status.getTraceId();
         if (e == null) {
-            log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
+            log.info(TraceLineFormatter.complete(traceId, status.getMessage(), resultTimeMs));
         } else {
-            log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
-        }
-    }
-
-    /**
-     level=0 => 아무것도 없음 <br/>
-     level=1 => |--> <br/>
-     level=2 => |    |--> <br/>
-     */
-    private static String addSpace(String prefix, int level) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < level; i++) {
-            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+            log.info(TraceLineFormatter.exception(traceId, status.getMessage(), resultTimeMs, e));
         }
-        return sb.toString();
     }
 
 }
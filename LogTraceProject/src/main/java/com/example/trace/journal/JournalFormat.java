@@ -0,0 +1,112 @@
+package com.example.trace.journal;
+
+/**
+ * 저널 세그먼트 파일의 바이너리 레이아웃 (빅 엔디언, 레코드 하나 48바이트 고정) <br/>
+ * <pre>
+ * 세그먼트 헤더 (첫 48바이트)
+ *   0  int   magic ("TRJ1")
+ *   4  int   version
+ *   8  int   recordSize
+ *   12 int   segmentIndex
+ *   16 long  세그먼트를 만든 시각 (System.currentTimeMillis)
+ *   24 long  세그먼트를 만든 시각 (System.nanoTime) - 레코드의 nanos 를 벽시계 시간으로 바꿀 때 사용
+ *
+ * 레코드
+ *   0  long  traceId 상위 64비트 (64비트 ID 면 0)
+ *   8  long  traceId 하위 64비트
+ *   16 long  이벤트 시각 (System.nanoTime)
+ *   24 long  걸린 시간 ns (BEGIN 은 -1)
+ *   32 int   메시지 ID (메시지 사전)
+ *   36 int   예외 클래스 ID (메시지 사전, 없으면 0)
+ *   40 int   depth
+ *   44 int   이벤트 타입 (0 이면 비어있거나 기록 중인 슬롯, 마지막에 기록한다)
+ * </pre>
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x54524A31; // "TRJ1"
+    static final int VERSION = 1;
+    static final int RECORD_SIZE = 48;
+
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 4;
+    static final int HEADER_RECORD_SIZE = 8;
+    static final int HEADER_SEGMENT_INDEX = 12;
+    static final int HEADER_WALL_CLOCK_MILLIS = 16;
+    static final int HEADER_NANO_TIME = 24;
+
+    static final int TRACE_ID_HIGH = 0;
+    static final int TRACE_ID_LOW = 8;
+    static final int NANOS = 16;
+    static final int DURATION = 24;
+    static final int MESSAGE_ID = 32;
+    static final int EXCEPTION_ID = 36;
+    static final int DEPTH = 40;
+    static final int TYPE = 44;
+
+    static final int EMPTY = 0;
+    static final int BEGIN = 1;
+    static final int END = 2;
+    static final int EXCEPTION = 3;
+
+    static final String SEGMENT_PREFIX = "trace-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String DICTIONARY_FILE = "messages.dict";
+
+    private JournalFormat() {
+    }
+
+    static String segmentFileName(int index) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * trace-000012.journal => 12, 세그먼트 파일이 아니면 -1
+     */
+    static int segmentIndex(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 사전 파일은 한 줄에 "id\t문자열", 문자열 안의 \, 탭, 줄바꿈은 이스케이프한다.
+     */
+    static String escape(String value) {
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\') {
+                sb.append("\\\\");
+            } else if (c == '\t') {
+                sb.append("\\t");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c == '\r') {
+                sb.append("\\r");
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String unescape(String value) {
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                final char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
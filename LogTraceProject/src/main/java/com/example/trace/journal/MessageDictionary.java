@@ -0,0 +1,79 @@
+package com.example.trace.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메시지(예: OrderServiceV5.orderItem())와 예외 클래스 이름을 int ID 로 바꿔서 레코드에는 ID 만 기록한다. <br/>
+ * 처음 보는 문자열일 때만 락을 잡고 사전 파일에 한 줄을 추가한다. (레코드보다 먼저 기록되므로 디코더는 항상 ID 를 찾을 수 있다)
+ * 이미 사전 파일이 있으면 읽어서 이어서 사용하므로 재시작해도 ID 가 바뀌지 않는다.
+ */
+@Slf4j
+final class MessageDictionary implements AutoCloseable {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Writer writer;
+    private int lastId;
+
+    MessageDictionary(Path file) throws IOException {
+        if (Files.exists(file)) {
+            for (Map.Entry<Integer, String> entry : read(file).entrySet()) {
+                ids.put(entry.getValue(), entry.getKey());
+                lastId = Math.max(lastId, entry.getKey());
+            }
+        }
+        this.writer = Files.newBufferedWriter(file, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    int idOf(String value) {
+        final Integer id = ids.get(value);
+        return id != null ? id : register(value);
+    }
+
+    private synchronized int register(String value) {
+        final Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        final int next = ++lastId;
+        try {
+            writer.write(next + "\t" + JournalFormat.escape(value) + "\n");
+            writer.flush();
+        } catch (IOException e) { // 요청 처리에 영향을 주지 않도록 ID 0 (알 수 없음) 으로 기록한다.
+            log.warn("failed to write message dictionary: {}", value, e);
+            return 0;
+        }
+        ids.put(value, next);
+        return next;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    static Map<Integer, String> read(Path file) throws IOException {
+        final Map<Integer, String> values = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final int tab = line.indexOf('\t');
+                if (tab > 0) { // 마지막 줄이 쓰다가 끊겼으면 무시한다.
+                    values.put(Integer.parseInt(line.substring(0, tab)), JournalFormat.unescape(line.substring(tab + 1)));
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.trace.journal;
+
+import static com.example.trace.journal.JournalFormat.*;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import com.example.trace.TraceId;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 트레이스 이벤트를 고정 크기(48바이트) 바이너리 레코드로 메모리 맵 세그먼트 파일에 기록한다. (레이아웃은 {@link JournalFormat}) <br/>
+ * 요청 쓰레드는 세그먼트의 위치를 getAndAdd 로 하나 차지한 뒤 자기 슬롯에만 쓰기 때문에 락이 없고, 문자열 포맷팅이나 write 시스템 콜도 없다.
+ * 세그먼트가 가득 차면 다음 파일로 넘어가고(이때만 락), 가득 찬 세그먼트는 디스크에 내려쓴 뒤 오래된 세그먼트를 maxSegments 개만 남기고 지운다. <br/>
+ * 매핑 해제: JDK 에는 MappedByteBuffer 의 매핑을 바로 해제하는 공개 API 가 없어서, 매핑은 버퍼가 GC 될 때 풀린다.
+ * 저널은 다음 세그먼트로 넘어갈 때 이전 세그먼트의 참조를 버리지만, 지운 파일의 디스크 공간은 매핑이 풀릴 때까지 반환되지 않는다.
+ * (다른 쓰레드가 아직 이전 세그먼트에 쓰고 있을 수 있으므로 강제로 해제하지 않는다. 해제된 메모리에 쓰면 JVM 이 죽는다)
+ * 따라서 디스크 사용량은 일시적으로 maxSegments * segmentSize 보다 커질 수 있다. <br/>
+ * 텍스트로 보려면 {@link TraceJournalDecoder} 를 사용한다.
+ */
+@Slf4j
+public final class TraceJournal implements AutoCloseable {
+
+    public static final int BEGIN = JournalFormat.BEGIN;
+    public static final int END = JournalFormat.END;
+    public static final int EXCEPTION = JournalFormat.EXCEPTION;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024 / RECORD_SIZE * RECORD_SIZE; // 64MB 이하에서 레코드 크기의 배수
+    private static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    // 타입은 레코드의 나머지를 모두 쓴 뒤에 release 로 기록한다. (타입이 보이면 레코드 전체가 보인다)
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final MessageDictionary dictionary;
+
+    private volatile Segment current;
+    private volatile boolean closed;
+    private final LongAdder droppedCount = new LongAdder();
+
+    public TraceJournal(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public TraceJournal(final Path directory, final int segmentSize, final int maxSegments) throws IOException {
+        if (segmentSize < RECORD_SIZE * 2 || segmentSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("segmentSize must be a multiple of " + RECORD_SIZE + ": " + segmentSize);
+        }
+        if (maxSegments <= 0) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.dictionary = new MessageDictionary(directory.resolve(DICTIONARY_FILE));
+        this.current = openSegment(lastSegmentIndex() + 1); // 이전 실행의 세그먼트는 덮어쓰지 않는다.
+    }
+
+    /**
+     * @param type          {@link #BEGIN}, {@link #END}, {@link #EXCEPTION}
+     * @param durationNanos BEGIN 이면 -1
+     * @param exceptionType 예외로 끝났으면 예외 클래스, 아니면 null
+     */
+    public void write(final int type, final TraceId traceId, final String message, final long nanoTime, final long durationNanos, final Class<?> exceptionType) {
+        if (closed) {
+            droppedCount.increment();
+            return;
+        }
+        final int messageId = dictionary.idOf(message);
+        final int exceptionId = exceptionType == null ? 0 : dictionary.idOf(exceptionType.getName());
+
+        while (true) {
+            final Segment segment = current;
+            final int offset = segment.position.getAndAdd(RECORD_SIZE);
+            if (offset <= segmentSize - RECORD_SIZE) {
+                final MappedByteBuffer buffer = segment.buffer;
+                buffer.putLong(offset + TRACE_ID_HIGH, traceId.getHighBits());
+                buffer.putLong(offset + TRACE_ID_LOW, traceId.getLowBits());
+                buffer.putLong(offset + NANOS, nanoTime);
+                buffer.putLong(offset + DURATION, durationNanos);
+                buffer.putInt(offset + MESSAGE_ID, messageId);
+                buffer.putInt(offset + EXCEPTION_ID, exceptionId);
+                buffer.putInt(offset + DEPTH, traceId.getLevel());
+                INT.setRelease(buffer, offset + TYPE, type);
+                return;
+            }
+            if (!rotate(segment)) {
+                droppedCount.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 가득 찬 세그먼트를 처음 발견한 쓰레드 하나만 다음 세그먼트를 만든다. 나머지는 바뀐 current 를 보고 다시 시도한다.
+     * 다음 세그먼트로 넘어간 뒤 가득 찬 세그먼트를 디스크에 내려쓴다. (락 밖에서, 넘긴 쓰레드 하나만 기다린다)
+     */
+    private boolean rotate(Segment full) {
+        synchronized (this) {
+            if (current != full) {
+                return true;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                final int next = full.index + 1;
+                current = openSegment(next);
+                deleteOldSegments(next - maxSegments + 1); // 새 세그먼트를 포함해서 maxSegments 개만 남긴다.
+            } catch (IOException e) {
+                log.error("failed to rotate trace journal segment: {}", directory, e);
+                return false;
+            }
+        }
+        full.buffer.force(); // 이미 차지된 슬롯에 아직 쓰는 중인 레코드는 이후 OS 가 내려쓴다.
+        return true;
+    }
+
+    private Segment openSegment(int index) throws IOException {
+        final Path file = directory.resolve(segmentFileName(index));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize); // 채널을 닫아도 매핑은 유지된다.
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_VERSION, VERSION);
+            buffer.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+            buffer.putInt(HEADER_SEGMENT_INDEX, index);
+            buffer.putLong(HEADER_WALL_CLOCK_MILLIS, System.currentTimeMillis());
+            buffer.putLong(HEADER_NANO_TIME, System.nanoTime());
+            return new Segment(index, buffer);
+        }
+    }
+
+    private void deleteOldSegments(int keepFrom) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                final int index = segmentIndex(file.getFileName().toString());
+                return index >= 0 && index < keepFrom;
+            }).forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("failed to delete trace journal segment: {}", file, e);
+                }
+            });
+        }
+    }
+
+    private int lastSegmentIndex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToInt(file -> segmentIndex(file.getFileName().toString())).max().orElse(-1);
+        }
+    }
+
+    /**
+     * 현재 세그먼트를 디스크에 내려쓰고 더 이상 기록하지 않는다.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current.buffer.force();
+        dictionary.close();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    private static final class Segment {
+        private final int index;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger position = new AtomicInteger(RECORD_SIZE); // 첫 슬롯은 헤더
+
+        private Segment(int index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+}
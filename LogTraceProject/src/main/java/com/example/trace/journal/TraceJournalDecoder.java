@@ -0,0 +1,117 @@
+package com.example.trace.journal;
+
+import static com.example.trace.journal.JournalFormat.*;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.example.trace.TraceIdGenerator;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TracePrecision;
+
+/**
+ * 바이너리 저널을 지금의 텍스트 로그 형식으로 되돌린다. <br/>
+ * 04:20:11.123 [1c9e7b20d4a5f3e8] |-->OrderServiceV5.orderItem() <br/>
+ * java -cp ... com.example.trace.journal.TraceJournalDecoder &lt;저널 디렉토리&gt; [ms|us|ns] <br/>
+ * ./gradlew decodeTraceJournal -PjournalDir=trace-journal
+ */
+public final class TraceJournalDecoder {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final Map<Integer, String> dictionary;
+    private final TracePrecision precision;
+
+    public TraceJournalDecoder(final Path directory, final TracePrecision precision) throws IOException {
+        this.dictionary = MessageDictionary.read(directory.resolve(DICTIONARY_FILE));
+        this.precision = precision;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: TraceJournalDecoder <journal-dir> [ms|us|ns]");
+            System.exit(1);
+        }
+        final Path directory = Paths.get(args[0]);
+        final TracePrecision precision = args.length > 1 ? TracePrecision.of(args[1]) : TracePrecision.MILLIS;
+        final PrintStream out = System.out;
+        new TraceJournalDecoder(directory, precision).decodeAll(directory, out::println);
+    }
+
+    /**
+     * 디렉토리의 세그먼트를 순서대로 디코딩한다.
+     */
+    public void decodeAll(final Path directory, final Consumer<String> out) throws IOException {
+        final List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> segmentIndex(file.getFileName().toString()) >= 0)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path segment : segments) {
+            decode(segment, out);
+        }
+    }
+
+    public void decode(final Path segment, final Consumer<String> out) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(HEADER_MAGIC) != MAGIC) {
+                throw new IOException("not a trace journal segment: " + segment);
+            }
+            if (buffer.getInt(HEADER_VERSION) != VERSION || buffer.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+                throw new IOException("unsupported trace journal version: " + segment);
+            }
+            final long wallClockMillis = buffer.getLong(HEADER_WALL_CLOCK_MILLIS);
+            final long baseNanoTime = buffer.getLong(HEADER_NANO_TIME);
+
+            final StringBuilder line = new StringBuilder(256);
+            for (int offset = RECORD_SIZE; offset <= buffer.limit() - RECORD_SIZE; offset += RECORD_SIZE) {
+                final int type = buffer.getInt(offset + TYPE);
+                if (type == EMPTY) { // 아직 쓰이지 않았거나, 기록 중에 종료된 슬롯
+                    continue;
+                }
+                final long nanos = buffer.getLong(offset + NANOS);
+                line.setLength(0);
+                TIME.formatTo(Instant.ofEpochMilli(wallClockMillis + (nanos - baseNanoTime) / 1_000_000L), line);
+                line.append(' ');
+                appendRecord(line, buffer, offset, type);
+                out.accept(line.toString());
+            }
+        }
+    }
+
+    private void appendRecord(StringBuilder line, MappedByteBuffer buffer, int offset, int type) {
+        final String traceId = TraceIdGenerator.toHex(buffer.getLong(offset + TRACE_ID_HIGH), buffer.getLong(offset + TRACE_ID_LOW));
+        final int level = buffer.getInt(offset + DEPTH);
+        final String message = lookup(buffer.getInt(offset + MESSAGE_ID));
+        final long resultTime = precision.fromNanos(buffer.getLong(offset + DURATION));
+
+        if (type == BEGIN) {
+            TraceLineFormatter.appendBegin(line, traceId, level, message);
+        } else if (type == END) {
+            TraceLineFormatter.appendComplete(line, traceId, level, message, resultTime, precision);
+        } else {
+            TraceLineFormatter.appendException(line, traceId, level, message, resultTime, precision, lookup(buffer.getInt(offset + EXCEPTION_ID)));
+        }
+    }
+
+    private String lookup(int id) {
+        final String value = dictionary.get(id);
+        return value != null ? value : "#" + id;
+    }
+}
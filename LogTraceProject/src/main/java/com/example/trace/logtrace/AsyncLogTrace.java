@@ -0,0 +1,295 @@
+package com.example.trace.logtrace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.trace.TraceContext;
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceSnapshot;
+import com.example.trace.TraceStatus;
+import com.example.trace.propagation.ThreadLocalTraceContexts;
+import com.example.trace.propagation.TraceContextPropagator;
+import com.example.trace.propagation.TraceScope;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청 쓰레드에서는 begin/end/exception 이벤트를 미리 할당된 링 버퍼에 기록만 하고,
+ * 실제 로그 출력(포맷팅 + appender I/O)은 백그라운드 writer 쓰레드 하나가 담당한다. <br/>
+ * 여러 요청 쓰레드가 동시에 기록할 수 있으며(multi-producer), 버퍼가 가득 찼을 때는 {@link OverflowPolicy}에 따라 기다리거나 버린다.
+ */
+@Slf4j
+public class AsyncLogTrace implements LogTrace, TraceContextPropagator, ThreadBoundLogTrace {
+
+    private static final byte BEGIN = 0;
+    private static final byte END = 1;
+    private static final byte EXCEPTION = 2;
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long WRITER_PARK_NANOS = 100_000L;
+    private static final long CLOSED = Long.MAX_VALUE; // writer 가 끝나면서 claimSequence 에 넣는 값, 이후에는 차지할 수 없다.
+
+    /**
+     * 링 버퍼가 가득 찼을 때의 처리 방법
+     */
+    public enum OverflowPolicy {
+        WAIT, // writer 가 자리를 비워줄 때까지 요청 쓰레드가 기다린다. (이벤트 유실 없음)
+        DROP // 이벤트를 버리고 droppedCount 만 증가시킨다. (요청 쓰레드는 절대 기다리지 않음)
+    }
+
+    private final ThreadLocal<TraceContext> traceIdHolder;
+    private final TraceIdScheme scheme;
+
+    private final Event[] events;
+    private final AtomicLongArray published; // 슬롯별로 마지막으로 기록이 끝난 시퀀스
+    private final int mask;
+    private final OverflowPolicy policy;
+    private final TracePrecision precision;
+
+    private final AtomicLong claimSequence = new AtomicLong(); // 다음에 producer 가 차지할 시퀀스
+    private volatile long consumeSequence; // 다음에 writer 가 읽을 시퀀스
+
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile long writtenCount;
+    private long reportedDroppedCount;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogTrace() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    public AsyncLogTrace(final int capacity, final OverflowPolicy policy) {
+        this(capacity, policy, TracePrecision.MILLIS);
+    }
+
+    public AsyncLogTrace(final int capacity, final OverflowPolicy policy, final TracePrecision precision) {
+        this(capacity, policy, precision, TraceId.DEFAULT_SCHEME);
+    }
+
+    public AsyncLogTrace(final int capacity, final OverflowPolicy policy, final TracePrecision precision, final TraceIdScheme scheme) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        final int size = ceilingPowerOfTwo(capacity); // 인덱스 계산을 & 연산으로 하기 위해 2의 제곱수로 맞춘다.
+        this.events = new Event[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            events[i] = new Event();
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+        this.precision = precision;
+        this.scheme = scheme;
+        this.traceIdHolder = ThreadLocal.withInitial(() -> new TraceContext(scheme));
+
+        this.writer = new Thread(this::drain, "log-trace-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        final TraceStatus status = traceIdHolder.get().begin(message, System.currentTimeMillis(), System.nanoTime());
+        publish(BEGIN, status.getTraceId(), message, 0L, null, status.getParentSpanId());
+        return status;
+    }
+
+    @Override
+    public TraceSnapshot capture() {
+        return ThreadLocalTraceContexts.capture(traceIdHolder);
+    }
+
+    @Override
+    public TraceScope restore(final TraceSnapshot snapshot) {
+        return ThreadLocalTraceContexts.restore(traceIdHolder, snapshot, () -> new TraceContext(scheme), context -> { });
+    }
+
+    @Override
+    public int resetCurrentThread() {
+        return ThreadLocalTraceContexts.reset(traceIdHolder);
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        final long resultTime = precision.fromNanos(System.nanoTime() - status.getStartTimeNanos());
+        publish(e == null ? END : EXCEPTION, status.getTraceId(), status.getMessage(), resultTime, e,
+                status.hasSpanId() ? status.getSpanId() : 0L);
+
+        traceIdHolder.get().release();
+    }
+
+    /**
+     * 시퀀스를 CAS 로 하나 차지한 뒤, 해당 슬롯에 값을 채우고 published 에 시퀀스를 기록해서 writer 에게 공개한다.
+     * @param spanId BEGIN 이면 호출한 프로세스의 span ID, END/EXCEPTION 이면 다른 프로세스로 전달한 span ID (없으면 0)
+     */
+    private void publish(byte type, TraceId traceId, String message, long resultTime, Exception e, long spanId) {
+        if (!running) { // close() 이후에는 writer 가 없으므로 버린다.
+            droppedCount.increment();
+            return;
+        }
+
+        long sequence;
+        int idleCount = 0;
+        while (true) {
+            sequence = claimSequence.get();
+            if (sequence == CLOSED) { // running 을 확인한 뒤에 writer 가 끝났다.
+                droppedCount.increment();
+                return;
+            }
+            if (sequence - consumeSequence >= events.length) { // 버퍼가 가득 참
+                if (policy == OverflowPolicy.DROP || !running) { // 종료 중에는 WAIT 이어도 기다리지 않는다.
+                    droppedCount.increment();
+                    return;
+                }
+                idleCount = backOff(idleCount);
+                continue;
+            }
+            if (claimSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        final int index = (int) sequence & mask;
+        final Event event = events[index];
+        event.type = type;
+        event.traceId = traceId.getId();
+        event.level = traceId.getLevel();
+        event.message = message;
+        event.resultTime = resultTime;
+        event.exception = e;
+        event.spanId = spanId;
+        published.lazySet(index, sequence);
+    }
+
+    private static int backOff(int idleCount) {
+        if (idleCount < 100) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(1_000L);
+        }
+        return idleCount + 1;
+    }
+
+    /**
+     * writer 쓰레드 루프. 공개된 이벤트를 순서대로 꺼내서 로그로 출력한다.
+     * 종료 요청이 들어오면 이미 차지된 이벤트까지 모두 출력하고 끝난다.
+     * 끝낼 때 claimSequence 를 CAS 로 CLOSED 로 바꾸므로, 그 사이에 차지된 이벤트가 있으면 CAS 가 실패하고 계속 출력한다.
+     * (그 이후의 publish 는 droppedCount 로 센다)
+     */
+    private void drain() {
+        long sequence = consumeSequence;
+        while (true) {
+            final int index = (int) sequence & mask;
+            if (published.get(index) == sequence) {
+                final Event event = events[index];
+                write(event);
+                event.clear(); // 메시지, 예외 참조가 버퍼에 남아서 GC 되지 않는 것을 막는다.
+                sequence++;
+                consumeSequence = sequence;
+                writtenCount++;
+                continue;
+            }
+
+            reportDropped();
+            if (!running && claimSequence.compareAndSet(sequence, CLOSED)) {
+                return;
+            }
+            LockSupport.parkNanos(WRITER_PARK_NANOS);
+        }
+    }
+
+    private void write(Event event) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        line.setLength(0); // writer 쓰레드 하나만 사용하는 버퍼
+        if (event.type == BEGIN) {
+            TraceLineFormatter.appendBegin(line, event.traceId, event.level, event.message);
+            TraceLineFormatter.appendParentSpanId(line, event.spanId);
+        } else {
+            if (event.type == END) {
+                TraceLineFormatter.appendComplete(line, event.traceId, event.level, event.message, event.resultTime, precision);
+            } else {
+                TraceLineFormatter.appendException(line, event.traceId, event.level, event.message, event.resultTime, precision, event.exception);
+            }
+            TraceLineFormatter.appendSpanId(line, event.spanId);
+        }
+        log.info(line.toString());
+    }
+
+    private void reportDropped() {
+        final long dropped = droppedCount.sum();
+        if (dropped != reportedDroppedCount) {
+            log.warn("trace events dropped={} (total={})", dropped - reportedDroppedCount, dropped);
+            reportedDroppedCount = dropped;
+        }
+    }
+
+    /**
+     * 남아있는 이벤트를 모두 출력한 뒤 writer 쓰레드를 종료한다.
+     * 스프링 빈으로 등록하면 컨테이너 종료 시 자동으로 호출된다.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
+    /**
+     * 링 버퍼의 슬롯. 미리 할당해두고 계속 재사용한다.
+     */
+    private static final class Event {
+        private byte type;
+        private String traceId;
+        private int level;
+        private String message;
+        private long resultTime; // precision 단위
+        private Exception exception;
+        private long spanId; // 다른 프로세스와 이어진 span 이 아니면 0
+
+        private void clear() {
+            traceId = null;
+            message = null;
+            exception = null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.trace.logtrace;
 
 import com.example.trace.TraceId;
+import com.example.trace.TraceLineFormatter;
 import com.example.trace.TraceStatus;
 
 import lombok.extern.slf4j.Slf4j;
@@ -8,10 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class FieldLogTrace implements LogTrace {
 
-    private static final String START_PREFIX = "-->";
-    private static final String COMPLETE_PREFIX = "<--";
-    private static final String EX_PREFIX = "<X-";
-
     private TraceId traceIdHolder; // traceId 동기화, 동시성 이슈 발생
 
     @Override
@@ -20,7 +17,7 @@ public class FieldLogTrace implements LogTrace {
         final TraceId traceId = this.traceIdHolder;
 
         final long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
+        log.info(TraceLineFormatter.begin(traceId, message));
         return new TraceStatus(traceId, startTimeMs, message);
     }
 
@@ -47,9 +44,9 @@ public class FieldLogTrace implements LogTrace {
         final long resultTimeMs = stopTimeMs - status.getStartTimeMs();
         final TraceId traceId = status.getTraceId();
         if (e == null) {
-            log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
+            log.info(TraceLineFormatter.complete(traceId, status.getMessage(), resultTimeMs));
         } else {
-            log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+            log.info(TraceLineFormatter.exception(traceId, status.getMessage(), resultTimeMs, e));
         }
 
         releaseTraceId();
@@ -62,17 +59,4 @@ public class FieldLogTrace implements LogTrace {
             traceIdHolder = traceIdHolder.createPreviousId();
         }
     }
-
-    /**
-     level=0 => 아무것도 없음 <br/>
-     level=1 => |--> <br/>
-     level=2 => |    |--> <br/>
-     */
-    private static String addSpace(String prefix, int level) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < level; i++) {
-            sb.append((i == level - 1) ? "|" + prefix : "|   ");
-        }
-        return sb.toString();
-    }
 }
@@ -0,0 +1,70 @@
+package com.example.trace.logtrace;
+
+import java.io.IOException;
+
+import com.example.trace.TraceContext;
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TraceStatus;
+import com.example.trace.journal.TraceJournal;
+import com.example.trace.propagation.ThreadLocalTraceContexts;
+
+/**
+ * 텍스트 로그 대신 {@link TraceJournal} 에 바이너리 레코드로 남기는 LogTrace <br/>
+ * begin/end 마다 문자열을 만들지 않고 48바이트 레코드 하나만 메모리 맵 파일에 쓴다.
+ */
+public class JournalLogTrace implements LogTrace, ThreadBoundLogTrace, AutoCloseable {
+
+    private final ThreadLocal<TraceContext> traceIdHolder;
+
+    private final TraceJournal journal;
+
+    public JournalLogTrace(final TraceJournal journal) {
+        this(journal, TraceId.DEFAULT_SCHEME);
+    }
+
+    public JournalLogTrace(final TraceJournal journal, final TraceIdScheme scheme) {
+        this.journal = journal;
+        this.traceIdHolder = ThreadLocal.withInitial(() -> new TraceContext(scheme));
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        final TraceStatus status = traceIdHolder.get().begin(message, System.currentTimeMillis(), System.nanoTime());
+        journal.write(TraceJournal.BEGIN, status.getTraceId(), message, status.getStartTimeNanos(), -1L, null);
+        return status;
+    }
+
+    @Override
+    public int resetCurrentThread() {
+        return ThreadLocalTraceContexts.reset(traceIdHolder);
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        if (status == TraceStatus.NOOP || status == null) { // 추적하지 않은 span 이거나 begin 전에 실패한 span
+            return;
+        }
+        final long now = System.nanoTime();
+        journal.write(e == null ? TraceJournal.END : TraceJournal.EXCEPTION, status.getTraceId(), status.getMessage(),
+                now, now - status.getStartTimeNanos(), e == null ? null : e.getClass());
+        traceIdHolder.get().release();
+    }
+
+    /**
+     * 스프링 빈으로 등록하면 컨테이너 종료 시 자동으로 호출된다.
+     */
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+}
@@ -1,12 +1,62 @@
 package com.example.trace.logtrace;
 
+import com.example.trace.TraceSite;
 import com.example.trace.TraceStatus;
+import com.example.trace.callback.TraceCallback;
 
 public interface LogTrace {
 
+    /**
+     * 돌려받은 TraceStatus 는 end/exception 을 호출하기 전까지만 유효하다. <br/>
+     * 구현체는 쓰레드별로 depth 마다 미리 만들어둔 객체를 재사용할 수 있으므로 ({@link com.example.trace.TraceContext}),
+     * end/exception 이후에 보관하거나 다시 넘기면 같은 depth 에서 나중에 시작한 다른 span 을 가리키게 된다.
+     * 다른 LogTrace 를 감싸는 데코레이터도 end/exception 으로 넘긴 뒤에는 상태를 들고 있지 않아야 한다.
+     */
     TraceStatus begin(String message);
 
+    /**
+     * 미리 등록해둔 호출 지점으로 시작한다. 구현체가 지원하지 않으면 메시지로 시작한다.
+     */
+    default TraceStatus begin(TraceSite site) {
+        return begin(site.getMessage());
+    }
+
     void end(TraceStatus status);
 
     void exception(TraceStatus status, Exception e);
+
+    /**
+     * span 하나로 callback 을 감싸서 실행한다. ({@link com.example.trace.callback.TraceTemplate} 이 사용한다) <br/>
+     * 기본 구현은 begin -> callback -> end/exception 이다. scope 기반 구현체는 callback 이 그 span 의 scope 안에서 실행되도록,
+     * 다른 LogTrace 를 감싸는 데코레이터는 감싼 LogTrace 의 execute 로 넘기도록 재정의한다.
+     */
+    default <T> T execute(String message, TraceCallback<T> callback) {
+        return executeInSpan(message, null, callback);
+    }
+
+    /**
+     * 미리 등록해둔 호출 지점으로 실행한다. 메시지 문자열을 다시 다루지 않는다.
+     */
+    default <T> T execute(TraceSite site, TraceCallback<T> callback) {
+        return executeInSpan(null, site, callback);
+    }
+
+    /**
+     * site 가 있으면 site 로, 없으면 message 로 시작한다.
+     */
+    private <T> T executeInSpan(String message, TraceSite site, TraceCallback<T> callback) {
+        TraceStatus status = null;
+        T result;
+        try {
+            status = site == null ? begin(message) : begin(site);
+            result = callback.call(); // 로직 호출
+        } catch (Exception e) {
+            if (status != null) { // begin 자체가 실패했다면 끝낼 span 이 없다.
+                exception(status, e);
+            }
+            throw e;
+        }
+        end(status); // try 밖에서 호출해야 end 가 실패해도 같은 span 을 두 번 끝내지 않는다.
+        return result;
+    }
 }
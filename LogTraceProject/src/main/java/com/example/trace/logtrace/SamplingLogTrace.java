@@ -0,0 +1,189 @@
+package com.example.trace.logtrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.trace.TraceSite;
+import com.example.trace.TraceSnapshot;
+import com.example.trace.TraceStatus;
+import com.example.trace.callback.TraceCallback;
+import com.example.trace.propagation.TraceContextPropagator;
+import com.example.trace.propagation.TraceScope;
+
+/**
+ * 헤드 기반 샘플링 데코레이터 <br/>
+ * root begin (level 0) 에서 한번만 추적 여부를 정하고, 그 결과를 트레이스가 끝날 때까지 쓰레드에 보관한다.
+ * 추적하지 않는 트레이스의 하위 begin/end/exception 은 depth 만 세고 {@link TraceStatus#NOOP} 을 돌려준다.
+ * (TraceId, 로그 문자열, 시간 측정 모두 생략) <br/>
+ * 샘플링 비율은 기본값 + root 메시지별로 지정할 수 있다. <br/>
+ * 감싼 LogTrace 가 {@link TraceContextPropagator} 면 쓰레드 간 전달도 그대로 넘기고, 샘플링 여부는 스냅샷에 담아서
+ * 작업 쓰레드도 root 의 결정을 따르게 한다.
+ */
+public class SamplingLogTrace implements LogTrace, TraceContextPropagator, ThreadBoundLogTrace {
+
+    private final LogTrace target;
+    private final double defaultRate;
+    private final Map<String, Double> rates = new ConcurrentHashMap<>(); // root 메시지별 샘플링 비율
+
+    private final ThreadLocal<SamplingState> stateHolder = ThreadLocal.withInitial(SamplingState::new);
+
+    private final LongAdder sampledCount = new LongAdder();
+    private final LongAdder unsampledCount = new LongAdder();
+
+    public SamplingLogTrace(final LogTrace target, final double defaultRate) {
+        this.target = target;
+        this.defaultRate = checkRate(defaultRate);
+    }
+
+    /**
+     * 특정 root 메시지(예: OrderControllerV5.request())의 샘플링 비율을 지정한다. 0.0 ~ 1.0
+     */
+    public void setRate(final String rootMessage, final double rate) {
+        rates.put(rootMessage, checkRate(rate));
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        return enter(message) ? target.begin(message) : TraceStatus.NOOP;
+    }
+
+    @Override
+    public TraceStatus begin(final TraceSite site) {
+        return enter(site.getMessage()) ? target.begin(site) : TraceStatus.NOOP;
+    }
+
+    /**
+     * 샘플링 대상이면 감싼 LogTrace 의 execute 로 넘긴다. (scope 기반 LogTrace 도 하위 span 이 이어지도록)
+     */
+    @Override
+    public <T> T execute(final String message, final TraceCallback<T> callback) {
+        final boolean sampled = enter(message);
+        try {
+            return sampled ? target.execute(message, callback) : callback.call();
+        } finally {
+            stateHolder.get().depth--;
+        }
+    }
+
+    @Override
+    public <T> T execute(final TraceSite site, final TraceCallback<T> callback) {
+        final boolean sampled = enter(site.getMessage());
+        try {
+            return sampled ? target.execute(site, callback) : callback.call();
+        } finally {
+            stateHolder.get().depth--;
+        }
+    }
+
+    /**
+     * @return 현재 트레이스가 샘플링 대상인지
+     */
+    private boolean enter(String message) {
+        final SamplingState state = stateHolder.get();
+        if (state.depth < 0) { // root
+            state.sampled = sample(message);
+            if (state.sampled) {
+                sampledCount.increment();
+            } else {
+                unsampledCount.increment();
+            }
+        }
+        state.depth++;
+        return state.sampled;
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        if (status != TraceStatus.NOOP) {
+            target.end(status);
+        }
+        stateHolder.get().depth--;
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        if (status != TraceStatus.NOOP) {
+            target.exception(status, e);
+        }
+        stateHolder.get().depth--;
+    }
+
+    /**
+     * 샘플링하지 않는 트레이스면 depth 만 담은 스냅샷, 아니면 감싼 LogTrace 의 스냅샷
+     */
+    @Override
+    public TraceSnapshot capture() {
+        final SamplingState state = stateHolder.get();
+        if (state.depth >= 0 && !state.sampled) {
+            return TraceSnapshot.unsampled(state.depth);
+        }
+        return target instanceof TraceContextPropagator ? ((TraceContextPropagator) target).capture() : null;
+    }
+
+    /**
+     * 스냅샷의 샘플링 여부와 depth 를 이 쓰레드에 적용한다. 샘플링하지 않는 트레이스면 감싼 LogTrace 는 비어있는 컨텍스트로 둔다.
+     * close() 하면 적용하기 전의 샘플링 상태로 되돌린다. (제출한 쓰레드에서 바로 실행되는 경우)
+     */
+    @Override
+    public TraceScope restore(final TraceSnapshot snapshot) {
+        final SamplingState state = stateHolder.get();
+        final int depth = state.depth;
+        final boolean sampled = state.sampled;
+
+        final boolean unsampled = snapshot != null && !snapshot.isSampled();
+        state.depth = snapshot == null ? -1 : snapshot.getLevel(); // remote 면 -1 이라서 root 에서 다시 정한다.
+        state.sampled = !unsampled;
+        final TraceScope targetScope = target instanceof TraceContextPropagator
+                ? ((TraceContextPropagator) target).restore(unsampled ? null : snapshot)
+                : null;
+        return () -> {
+            if (targetScope != null) {
+                targetScope.close();
+            }
+            state.depth = depth;
+            state.sampled = sampled;
+        };
+    }
+
+    /**
+     * 샘플링 상태를 비우고, 대상 LogTrace 도 쓰레드별 상태를 가진다면 함께 비운다.
+     */
+    @Override
+    public int resetCurrentThread() {
+        final SamplingState state = stateHolder.get();
+        final int leaked = state.depth + 1;
+        state.depth = -1;
+        final int targetLeaked = target instanceof ThreadBoundLogTrace ? ((ThreadBoundLogTrace) target).resetCurrentThread() : 0;
+        return Math.max(leaked, targetLeaked);
+    }
+
+    private boolean sample(String rootMessage) {
+        final double rate = rates.getOrDefault(rootMessage, defaultRate);
+        if (rate >= 1.0) {
+            return true;
+        }
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    public long getSampledCount() {
+        return sampledCount.sum();
+    }
+
+    public long getUnsampledCount() {
+        return unsampledCount.sum();
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0.0 || rate > 1.0) {
+            throw new IllegalArgumentException("sampling rate must be between 0.0 and 1.0: " + rate);
+        }
+        return rate;
+    }
+
+    private static final class SamplingState {
+        private int depth = -1; // 진행 중인 트레이스가 없으면 -1
+        private boolean sampled;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.trace.logtrace;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.trace.SpanBuffer;
+import com.example.trace.TraceContext;
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+import com.example.trace.propagation.ThreadLocalTraceContexts;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * begin/end 마다 로그를 남기지 않고, 쓰레드별 {@link SpanBuffer} 에 span 을 모아뒀다가
+ * level 0 span 이 끝날 때 트레이스 전체를 한 줄(JSON)로 남긴다. <br/>
+ * 3 depth 요청이면 6줄이 1줄이 되므로, 로그 양과 appender 경합이 호출 트리의 깊이만큼 줄어든다. <br/>
+ * 버퍼는 트레이스당 maxSpans 개(기본 {@value SpanBuffer#DEFAULT_MAX_SPANS})까지만 기록하고, 넘친 span 수는 truncated 로 남긴다. <br/>
+ * 트레이스를 남길지는 {@link #shouldEmit} 로 정한다. 기본은 모두 남긴다. ({@link TailSamplingLogTrace})
+ */
+@Slf4j
+public class SpanTreeLogTrace implements LogTrace, ThreadBoundLogTrace {
+
+    private static final int MAX_LINE_CAPACITY = 64 * 1024; // 이보다 커진 출력 버퍼는 버리고 새로 만든다.
+
+    private final ThreadLocal<SpanTreeState> stateHolder;
+
+    private final TracePrecision precision;
+
+    private final LongAdder truncatedTraceCount = new LongAdder();
+    private final LongAdder truncatedSpanCount = new LongAdder();
+
+    public SpanTreeLogTrace() {
+        this(TracePrecision.MILLIS);
+    }
+
+    public SpanTreeLogTrace(final TracePrecision precision) {
+        this(precision, SpanBuffer.DEFAULT_MAX_SPANS);
+    }
+
+    public SpanTreeLogTrace(final TracePrecision precision, final int maxSpans) {
+        this(precision, maxSpans, TraceId.DEFAULT_SCHEME);
+    }
+
+    public SpanTreeLogTrace(final TracePrecision precision, final int maxSpans, final TraceIdScheme scheme) {
+        if (maxSpans <= 0) {
+            throw new IllegalArgumentException("maxSpans must be positive: " + maxSpans);
+        }
+        this.precision = precision;
+        this.stateHolder = ThreadLocal.withInitial(() -> new SpanTreeState(maxSpans, scheme));
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        final SpanTreeState state = stateHolder.get();
+        final TraceStatus status = state.context.begin(message, System.currentTimeMillis(), System.nanoTime());
+        state.spans.open(message, status.getTraceId().getLevel(), status.getStartTimeMs());
+        return status;
+    }
+
+    @Override
+    public int resetCurrentThread() {
+        final SpanTreeState state = stateHolder.get();
+        state.spans.clear();
+        state.failed = false;
+        return ThreadLocalTraceContexts.reset(state.context);
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        final SpanTreeState state = stateHolder.get();
+        final long durationNanos = System.nanoTime() - status.getStartTimeNanos();
+        state.spans.close(status.getTraceId().getLevel(), durationNanos, e);
+        if (e != null) {
+            state.failed = true;
+        }
+
+        if (status.getTraceId().isFirstLevel()) {
+            emit(state, status, durationNanos);
+        }
+        state.context.release();
+    }
+
+    /**
+     * root span 이 끝났을 때 한번만 호출된다.
+     */
+    private void emit(SpanTreeState state, TraceStatus root, long durationNanos) {
+        final int truncated = state.spans.getTruncatedCount();
+        if (truncated > 0) {
+            truncatedTraceCount.increment();
+            truncatedSpanCount.add(truncated);
+        }
+
+        if (shouldEmit(root, durationNanos, state.failed) && log.isInfoEnabled()) {
+            state.line.setLength(0);
+            log.info(state.spans.appendJson(state.line, root.getTraceId(), precision).toString());
+            if (state.line.capacity() > MAX_LINE_CAPACITY) {
+                state.line = new StringBuilder(256);
+            }
+        }
+        state.spans.clear();
+        state.failed = false;
+    }
+
+    /**
+     * root span 이 끝날 때마다 호출된다. false 면 모아둔 span 을 남기지 않고 버린다.
+     *
+     * @param failed span 중 하나라도 exception() 으로 끝났는지 (maxSpans 를 넘어서 기록하지 못한 span 포함)
+     */
+    protected boolean shouldEmit(final TraceStatus root, final long durationNanos, final boolean failed) {
+        return true;
+    }
+
+    /**
+     * maxSpans 를 넘어서 일부 span 이 빠진 트레이스 수
+     */
+    public long getTruncatedTraceCount() {
+        return truncatedTraceCount.sum();
+    }
+
+    /**
+     * maxSpans 를 넘어서 기록하지 못한 span 수 (전체 트레이스 합계)
+     */
+    public long getTruncatedSpanCount() {
+        return truncatedSpanCount.sum();
+    }
+
+    private static final class SpanTreeState {
+        private final TraceContext context;
+        private final SpanBuffer spans;
+        private StringBuilder line = new StringBuilder(256);
+        private boolean failed; // 현재 트레이스에서 exception() 으로 끝난 span 이 있었는지
+
+        private SpanTreeState(int maxSpans, TraceIdScheme scheme) {
+            this.context = new TraceContext(scheme);
+            this.spans = new SpanBuffer(maxSpans);
+        }
+    }
+}
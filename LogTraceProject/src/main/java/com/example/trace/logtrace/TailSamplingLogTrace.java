@@ -0,0 +1,89 @@
+package com.example.trace.logtrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+
+/**
+ * 테일 기반 샘플링 <br/>
+ * {@link SpanTreeLogTrace} 로 span 을 쓰레드별 버퍼에 모아두고, root span 이 끝났을 때 남길지 버릴지 정한다.
+ * <ul>
+ *     <li>span 중 하나라도 exception() 으로 끝났으면 남긴다.</li>
+ *     <li>root span 의 걸린 시간이 root 메시지별 임계값(기본값) 이상이면 남긴다.</li>
+ *     <li>나머지는 baselineRate 비율만큼만 무작위로 남긴다. (정상 요청의 기준선)</li>
+ * </ul>
+ * 버퍼는 트레이스당 maxSpans 개까지만 기록하고, 넘친 span 수는 truncated 카운터로 확인할 수 있다.
+ */
+public class TailSamplingLogTrace extends SpanTreeLogTrace {
+
+    private static final int DEFAULT_MAX_SPANS = 256;
+
+    private final long defaultThresholdNanos;
+    private final Map<String, Long> thresholdNanos = new ConcurrentHashMap<>(); // root 메시지별 임계값
+    private final double baselineRate;
+
+    private final LongAdder keptCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+
+    public TailSamplingLogTrace(final long defaultThresholdMs, final double baselineRate) {
+        this(defaultThresholdMs, baselineRate, DEFAULT_MAX_SPANS, TracePrecision.MILLIS);
+    }
+
+    public TailSamplingLogTrace(final long defaultThresholdMs, final double baselineRate, final int maxSpans, final TracePrecision precision) {
+        this(defaultThresholdMs, baselineRate, maxSpans, precision, TraceId.DEFAULT_SCHEME);
+    }
+
+    public TailSamplingLogTrace(final long defaultThresholdMs, final double baselineRate, final int maxSpans, final TracePrecision precision,
+                                final TraceIdScheme scheme) {
+        super(precision, maxSpans, scheme);
+        if (baselineRate < 0.0 || baselineRate > 1.0) {
+            throw new IllegalArgumentException("baseline rate must be between 0.0 and 1.0: " + baselineRate);
+        }
+        this.defaultThresholdNanos = TimeUnit.MILLISECONDS.toNanos(defaultThresholdMs);
+        this.baselineRate = baselineRate;
+    }
+
+    /**
+     * 특정 root 메시지(예: OrderControllerV5.request())의 느린 요청 임계값을 지정한다.
+     */
+    public void setThreshold(final String rootMessage, final long thresholdMs) {
+        thresholdNanos.put(rootMessage, TimeUnit.MILLISECONDS.toNanos(thresholdMs));
+    }
+
+    @Override
+    protected boolean shouldEmit(final TraceStatus root, final long durationNanos, final boolean failed) {
+        final boolean keep = shouldKeep(failed, root.getMessage(), durationNanos);
+        if (keep) {
+            keptCount.increment();
+        } else {
+            discardedCount.increment();
+        }
+        return keep;
+    }
+
+    private boolean shouldKeep(boolean failed, String rootMessage, long durationNanos) {
+        if (failed) {
+            return true;
+        }
+        final Long threshold = thresholdNanos.get(rootMessage);
+        if (durationNanos >= (threshold == null ? defaultThresholdNanos : threshold)) {
+            return true;
+        }
+        return baselineRate > 0.0 && ThreadLocalRandom.current().nextDouble() < baselineRate;
+    }
+
+    public long getKeptCount() {
+        return keptCount.sum();
+    }
+
+    public long getDiscardedCount() {
+        return discardedCount.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.trace.logtrace;
+
+/**
+ * 쓰레드별 상태(ThreadLocal)에 진행 중인 트레이스를 보관하는 LogTrace <br/>
+ * end/exception 이 호출되지 않은 span 이 남으면 같은 쓰레드를 쓰는 다음 요청이 이전 트랜잭션 ID 와 depth 를 물려받는다.
+ * 요청이 끝나는 지점에서 {@link #resetCurrentThread()} 로 확인하고 비운다. ({@link com.example.trace.web.TraceLeakFilter})
+ */
+public interface ThreadBoundLogTrace {
+
+    /**
+     * 현재 쓰레드에 끝나지 않은 span 이 남아있으면 모두 버리고 비어있는 상태로 되돌린다.
+     *
+     * @return 버린 span 수 (정상적으로 끝났으면 0)
+     */
+    int resetCurrentThread();
+}
@@ -1,35 +1,87 @@
 package com.example.trace.logtrace;
 
+import com.example.trace.TraceContext;
 import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TraceListener;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceSite;
+import com.example.trace.TraceSnapshot;
 import com.example.trace.TraceStatus;
+import com.example.trace.TraceSwitch;
+import com.example.trace.propagation.ThreadLocalTraceContexts;
+import com.example.trace.propagation.TraceContextPropagator;
+import com.example.trace.propagation.TraceScope;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class ThreadLocalLogTrace implements LogTrace {
+public class ThreadLocalLogTrace implements LogTrace, TraceContextPropagator, ThreadBoundLogTrace {
 
-    private static final String START_PREFIX = "-->";
-    private static final String COMPLETE_PREFIX = "<--";
-    private static final String EX_PREFIX = "<X-";
+    // 쓰레드마다 가변 TraceContext 를 하나씩 두고 계속 재사용한다. (begin/end 마다 TraceId 를 새로 만들지 않음)
+    private ThreadLocal<TraceContext> traceIdHolder = ThreadLocal.withInitial(this::createContext);
 
-    private ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+    private final TracePrecision precision; // 걸린 시간 출력 단위, 측정은 항상 System.nanoTime()
+    private final TraceListener[] listeners; // span 이 끝날 때마다 호출 (예: 지연 시간 히스토그램)
+    private final TraceSwitch traceSwitch; // 꺼져 있으면 begin/end/exception 이 아무것도 하지 않는다.
+    private final TraceIdScheme scheme; // root span 의 트랜잭션 ID 발급 방식
+
+    public ThreadLocalLogTrace() {
+        this(TracePrecision.MILLIS);
+    }
+
+    public ThreadLocalLogTrace(final TracePrecision precision, final TraceListener... listeners) {
+        this(precision, new TraceSwitch(), listeners);
+    }
+
+    public ThreadLocalLogTrace(final TracePrecision precision, final TraceSwitch traceSwitch, final TraceListener... listeners) {
+        this(precision, traceSwitch, TraceId.DEFAULT_SCHEME, listeners);
+    }
+
+    public ThreadLocalLogTrace(final TracePrecision precision, final TraceSwitch traceSwitch, final TraceIdScheme scheme,
+                               final TraceListener... listeners) {
+        this.precision = precision;
+        this.traceSwitch = traceSwitch;
+        this.scheme = scheme;
+        this.listeners = listeners.clone();
+    }
 
     @Override
     public TraceStatus begin(final String message) {
-        syncTraceId();
-        final TraceId traceId = this.traceIdHolder.get();
-        final long startTimeMs = System.currentTimeMillis();
-        log.info("[{}] {}{}", traceId.getId(), addSpace(START_PREFIX, traceId.getLevel()), message);
-        return new TraceStatus(traceId, startTimeMs, message);
+        if (!traceSwitch.isEnabled()) {
+            return TraceStatus.NOOP;
+        }
+        final TraceStatus status = traceIdHolder.get().begin(message, System.currentTimeMillis(), System.nanoTime());
+        if (log.isInfoEnabled()) { // 로그를 남기지 않을 때는 로그 문자열을 만들지 않는다.
+            log.info(TraceLineFormatter.begin(status));
+        }
+        return status;
     }
 
-    private void syncTraceId() {
-        final TraceId traceId = traceIdHolder.get();
-        if (traceId == null) {
-            traceIdHolder.set(new TraceId());
-        } else {
-            traceIdHolder.set(traceId.createNextId());
+    /**
+     * 로그 줄 앞부분을 TraceSite 가 미리 만들어둔 것으로 쓰고, 끝날 때 TraceSite 의 카운터도 함께 기록한다.
+     */
+    @Override
+    public TraceStatus begin(final TraceSite site) {
+        if (!traceSwitch.isEnabled()) {
+            return TraceStatus.NOOP;
+        }
+        final TraceStatus status = traceIdHolder.get().begin(site, System.currentTimeMillis(), System.nanoTime());
+        if (log.isInfoEnabled()) {
+            log.info(TraceLineFormatter.begin(status));
         }
+        return status;
+    }
+
+    @Override
+    public TraceSnapshot capture() {
+        return ThreadLocalTraceContexts.capture(traceIdHolder);
+    }
+
+    @Override
+    public TraceScope restore(final TraceSnapshot snapshot) {
+        return ThreadLocalTraceContexts.restore(traceIdHolder, snapshot, this::createContext, this::notifyContext);
     }
 
     @Override
@@ -43,37 +95,46 @@ public class ThreadLocalLogTrace implements LogTrace {
     }
 
     private void complete(TraceStatus status, Exception e) {
-        final long stopTimeMs = System.currentTimeMillis();
-        final long resultTimeMs = stopTimeMs - status.getStartTimeMs();
-        final TraceId traceId = status.getTraceId();
-        if (e == null) {
-            log.info("[{}] {}{} time={}ms", traceId.getId(), addSpace(COMPLETE_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs);
-        } else {
-            log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), addSpace(EX_PREFIX, traceId.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+        if (status == TraceStatus.NOOP || status == null) { // 꺼져 있을 때 시작했거나 begin 전에 실패한 span
+            return;
+        }
+        final TraceContext context = traceIdHolder.get();
+        final long durationNanos = System.nanoTime() - status.getStartTimeNanos();
+        for (TraceListener listener : listeners) {
+            listener.onComplete(context, status, durationNanos, e);
+        }
+        final TraceSite site = status.getSite();
+        if (site != null) {
+            site.record(durationNanos, e != null);
+        }
+
+        if (log.isInfoEnabled()) { // TraceSite 로 시작했으면 미리 만들어둔 줄 앞부분을 사용한다.
+            final long resultTime = precision.fromNanos(durationNanos);
+            log.info(e == null ? TraceLineFormatter.complete(status, resultTime, precision)
+                               : TraceLineFormatter.exception(status, resultTime, precision, e));
         }
 
-        releaseTraceId();
+        context.release(); // level 0 이 끝나면 비어있는 상태로 돌아가고, 다음 요청에서 그대로 재사용된다.
     }
 
-    private void releaseTraceId() {
-        final TraceId traceId = traceIdHolder.get();
-        if (traceId.isFirstLevel()) {
-            traceIdHolder.remove(); // destroy (각 쓰레드의 전용 보관소만 삭제된다)
-        } else {
-            traceIdHolder.set(traceId.createPreviousId());
-        }
+    @Override
+    public int resetCurrentThread() {
+        return ThreadLocalTraceContexts.reset(traceIdHolder);
     }
 
-    /**
-     level=0 => 아무것도 없음 <br/>
-     level=1 => |--> <br/>
-     level=2 => |    |--> <br/>
-     */
-    private static String addSpace(String prefix, int level) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < level; i++) {
-            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+    public TraceSwitch getTraceSwitch() {
+        return traceSwitch;
+    }
+
+    private TraceContext createContext() {
+        final TraceContext context = new TraceContext(scheme);
+        notifyContext(context);
+        return context;
+    }
+
+    private void notifyContext(TraceContext context) {
+        for (TraceListener listener : listeners) {
+            listener.onContextCreated(Thread.currentThread(), context);
         }
-        return sb.toString();
     }
 }
@@ -0,0 +1,81 @@
+package com.example.trace.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.trace.TraceListener;
+import com.example.trace.TraceStatus;
+
+/**
+ * 트레이스 메시지(예: OrderServiceV5.orderItem())마다 {@link LatencyHistogram} 을 하나씩 두고, span 이 끝날 때마다 걸린 시간을 기록한다. <br/>
+ * 메모리가 무한히 늘어나지 않도록 메시지 종류는 maxMessages 개까지만 받고, 넘치는 메시지는 버린 횟수만 센다. <br/>
+ * 최대 메모리는 maxMessages * {@link LatencyHistogram#footprintBytes(int)} 이다. (기본값 256개 * stripe 1개 = 약 2.4MB)
+ */
+public class LatencyRegistry implements TraceListener {
+
+    public static final int DEFAULT_MAX_MESSAGES = 256;
+
+    private final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final int maxMessages;
+    private final int stripes; // 메시지별 히스토그램의 stripe 수
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public LatencyRegistry() {
+        this(DEFAULT_MAX_MESSAGES);
+    }
+
+    public LatencyRegistry(final int maxMessages) {
+        this(maxMessages, 1);
+    }
+
+    public LatencyRegistry(final int maxMessages, final int stripes) {
+        if (maxMessages <= 0) {
+            throw new IllegalArgumentException("maxMessages must be positive: " + maxMessages);
+        }
+        this.maxMessages = maxMessages;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void onComplete(final TraceStatus status, final long durationNanos, final Exception e) {
+        record(status.getMessage(), durationNanos);
+    }
+
+    public void record(final String message, final long durationNanos) {
+        LatencyHistogram histogram = histograms.get(message); // 대부분은 이미 있으므로 락 없이 조회부터 한다.
+        if (histogram == null) {
+            if (histograms.size() >= maxMessages) {
+                rejectedCount.increment();
+                return;
+            }
+            histogram = histograms.computeIfAbsent(message, key -> new LatencyHistogram(stripes));
+        }
+        histogram.record(durationNanos);
+    }
+
+    /**
+     * 메시지 이름 순으로 정렬된 스냅샷
+     */
+    public Map<String, LatencySnapshot> snapshot() {
+        final Map<String, LatencySnapshot> result = new TreeMap<>();
+        histograms.forEach((message, histogram) -> result.put(message, histogram.snapshot()));
+        return result;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 히스토그램이 maxMessages 개까지 찼을 때 카운터 배열이 차지하는 최대 크기
+     */
+    public long getMaxFootprintBytes() {
+        return maxMessages * LatencyHistogram.footprintBytes(stripes);
+    }
+}
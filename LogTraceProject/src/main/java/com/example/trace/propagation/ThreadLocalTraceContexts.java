@@ -0,0 +1,66 @@
+package com.example.trace.propagation;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.example.trace.TraceContext;
+import com.example.trace.TraceSnapshot;
+
+/**
+ * ThreadLocal&lt;TraceContext&gt; 를 사용하는 LogTrace 구현체가 {@link TraceContextPropagator} 를 구현할 때 사용한다.
+ */
+public final class ThreadLocalTraceContexts {
+
+    private ThreadLocalTraceContexts() {
+    }
+
+    /**
+     * {@link com.example.trace.logtrace.ThreadBoundLogTrace#resetCurrentThread()} 구현에 사용한다.
+     *
+     * @return 끝나지 않고 남아있던 span 수
+     */
+    public static int reset(final ThreadLocal<TraceContext> holder) {
+        return reset(holder.get());
+    }
+
+    public static int reset(final TraceContext context) {
+        final int leaked = context.getLevel() + 1;
+        if (leaked > 0) {
+            context.reset();
+        }
+        return leaked;
+    }
+
+    public static TraceSnapshot capture(final ThreadLocal<TraceContext> holder) {
+        return holder.get().capture();
+    }
+
+    /**
+     * 보통은 쓰레드 풀의 쓰레드처럼 비어있는 컨텍스트에 스냅샷을 붙이고, 끝나면 다시 비운다. (쓰레드가 가진 TraceContext 를 그대로 재사용)
+     * 제출한 쓰레드에서 바로 실행되는 경우(CallerRunsPolicy, 이미 끝난 CompletableFuture 등)에는 진행 중인 컨텍스트를 잠시 치워두고
+     * 새 컨텍스트에서 실행한 뒤 원래 컨텍스트를 돌려놓는다.
+     *
+     * @param factory  새 컨텍스트를 만든다. holder 의 초기값과 같은 방법(scheme, listener 알림)을 사용해야 한다.
+     * @param restored 원래 컨텍스트를 돌려놓은 뒤 호출된다. (listener 가 다시 원래 컨텍스트를 관찰하도록)
+     */
+    public static TraceScope restore(final ThreadLocal<TraceContext> holder, final TraceSnapshot snapshot,
+                                     final Supplier<TraceContext> factory, final Consumer<TraceContext> restored) {
+        final TraceContext current = holder.get();
+        if (current.isActive()) {
+            final TraceContext attached = factory.get();
+            if (snapshot != null) {
+                attached.attach(snapshot);
+            }
+            holder.set(attached);
+            return () -> {
+                holder.set(current);
+                restored.accept(current);
+            };
+        }
+
+        if (snapshot != null) {
+            current.attach(snapshot);
+        }
+        return current::reset; // 작업 안에서 끝나지 않은 span 이 있어도 쓰레드에 남기지 않는다.
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.trace.propagation;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import com.example.trace.TraceSnapshot;
+
+/**
+ * 쓰레드를 넘어가는 작업에 트레이스 컨텍스트를 전달한다. <br/>
+ * 작업을 만드는(제출하는) 쓰레드에서 {@link #capture()} 하고, 실행하는 쓰레드에서 {@link #restore} 한 뒤 작업이 끝나면 원래 상태로 되돌린다.
+ * 그래서 작업 안에서 시작한 span 은 제출한 span 의 하위 depth 로 기록되고, 쓰레드 풀의 쓰레드에는 아무 상태도 남지 않는다.
+ */
+public interface TraceContextPropagator {
+
+    /**
+     * @return 현재 쓰레드의 트레이스 위치, 진행 중인 트레이스가 없으면 null
+     */
+    TraceSnapshot capture();
+
+    /**
+     * 현재 쓰레드에 스냅샷을 적용한다. null 이면 비어있는 컨텍스트로 실행한다.
+     */
+    TraceScope restore(TraceSnapshot snapshot);
+
+    /*
+     * Callable 과 Supplier 는 람다로 넘기면 구분할 수 없어서 Supplier 는 이름을 다르게 했다.
+     */
+    default Runnable wrap(final Runnable task) {
+        final TraceSnapshot snapshot = capture();
+        return () -> {
+            try (TraceScope ignored = restore(snapshot)) {
+                task.run();
+            }
+        };
+    }
+
+    default <T> Callable<T> wrap(final Callable<T> task) {
+        final TraceSnapshot snapshot = capture();
+        return () -> {
+            try (TraceScope ignored = restore(snapshot)) {
+                return task.call();
+            }
+        };
+    }
+
+    default <T> Supplier<T> wrapSupplier(final Supplier<T> task) {
+        final TraceSnapshot snapshot = capture();
+        return () -> {
+            try (TraceScope ignored = restore(snapshot)) {
+                return task.get();
+            }
+        };
+    }
+}
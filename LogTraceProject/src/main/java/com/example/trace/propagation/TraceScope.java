@@ -0,0 +1,11 @@
+package com.example.trace.propagation;
+
+/**
+ * {@link TraceContextPropagator#restore} 로 적용한 트레이스 컨텍스트의 범위 <br/>
+ * close() 하면 적용하기 전 쓰레드의 상태로 되돌린다. try-with-resources 로 사용한다.
+ */
+public interface TraceScope extends AutoCloseable {
+
+    @Override
+    void close();
+}
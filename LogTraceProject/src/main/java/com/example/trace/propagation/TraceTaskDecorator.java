@@ -0,0 +1,21 @@
+package com.example.trace.propagation;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 스프링 ThreadPoolTaskExecutor (@Async 등) 에 등록해서 트레이스 컨텍스트를 전달한다. <br/>
+ * executor.setTaskDecorator(new TraceTaskDecorator(propagator));
+ */
+public class TraceTaskDecorator implements TaskDecorator {
+
+    private final TraceContextPropagator propagator;
+
+    public TraceTaskDecorator(final TraceContextPropagator propagator) {
+        this.propagator = propagator;
+    }
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        return propagator.wrap(runnable);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.trace.reactive;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * 논블로킹(Reactor) 코드용 LogTrace <br/>
+ * 하나의 요청이 여러 쓰레드를 오가므로 ThreadLocal 대신 Reactor Context 에 TraceId 를 넣어서 하위 Mono/Flux 로 전달한다.
+ * 걸린 시간은 구독(subscribe) 시점부터 종료 신호(onComplete, onError, cancel)까지다.
+ * 값을 받은 하위(next(), zip, take)가 뒤이어 cancel 해도 구독 하나는 처음 온 종료 신호로 한 번만 끝난다. <br/>
+ * <pre>
+ * return trace.mono("OrderServiceV6.orderItem()", orderRepository.save(itemId));
+ * </pre>
+ */
+@Slf4j
+public class ReactiveLogTrace {
+
+    private static final Object TRACE_ID_KEY = TraceId.class; // Reactor Context 의 키
+
+    private final TracePrecision precision;
+    private final TraceIdScheme scheme;
+
+    private final AtomicInteger inFlight = new AtomicInteger(); // 진행 중인 root 트레이스 수
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public ReactiveLogTrace() {
+        this(TracePrecision.MILLIS);
+    }
+
+    public ReactiveLogTrace(final TracePrecision precision) {
+        this(precision, TraceId.DEFAULT_SCHEME);
+    }
+
+    public ReactiveLogTrace(final TracePrecision precision, final TraceIdScheme scheme) {
+        this.precision = precision;
+        this.scheme = scheme;
+    }
+
+    public <T> Mono<T> mono(final String message, final Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            final TraceStatus status = begin(message, context);
+            final AtomicBoolean completed = new AtomicBoolean(); // 구독마다 하나
+            return source
+                    .doOnSuccess(value -> complete(status, completed, null))
+                    .doOnError(e -> complete(status, completed, e))
+                    .doOnCancel(() -> complete(status, completed, new CancellationException("cancelled")))
+                    .contextWrite(c -> c.put(TRACE_ID_KEY, status.getTraceId())); // source 와 그 하위에서만 보인다.
+        });
+    }
+
+    public <T> Flux<T> flux(final String message, final Flux<T> source) {
+        return Flux.deferContextual(context -> {
+            final TraceStatus status = begin(message, context);
+            final AtomicBoolean completed = new AtomicBoolean(); // 구독마다 하나
+            return source
+                    .doOnComplete(() -> complete(status, completed, null))
+                    .doOnError(e -> complete(status, completed, e))
+                    .doOnCancel(() -> complete(status, completed, new CancellationException("cancelled")))
+                    .contextWrite(c -> c.put(TRACE_ID_KEY, status.getTraceId()));
+        });
+    }
+
+    /**
+     * 현재 Reactor Context 의 TraceId, 트레이스 밖이면 비어있는 Mono
+     */
+    public static Mono<TraceId> currentTraceId() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(currentTraceId(context)));
+    }
+
+    /**
+     * 주어진 Reactor Context 의 TraceId, 트레이스 밖이면 null
+     */
+    public static TraceId currentTraceId(final ContextView context) {
+        return context.getOrDefault(TRACE_ID_KEY, null);
+    }
+
+    private TraceStatus begin(String message, ContextView context) {
+        final TraceId parent = context.getOrDefault(TRACE_ID_KEY, null);
+        final TraceId traceId = parent == null ? new TraceId(scheme) : parent.createNextId();
+        if (parent == null) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        }
+        if (log.isInfoEnabled()) {
+            log.info(TraceLineFormatter.begin(traceId, message));
+        }
+        return new TraceStatus(traceId, System.currentTimeMillis(), System.nanoTime(), message);
+    }
+
+    private void complete(TraceStatus status, AtomicBoolean completed, Throwable e) {
+        if (!completed.compareAndSet(false, true)) {
+            return; // 이미 끝난 구독에 뒤늦게 온 cancel
+        }
+        if (log.isInfoEnabled()) {
+            final long resultTime = precision.fromNanos(System.nanoTime() - status.getStartTimeNanos());
+            if (e == null) {
+                log.info(TraceLineFormatter.complete(status.getTraceId(), status.getMessage(), resultTime, precision));
+            } else {
+                final Exception exception = e instanceof Exception ? (Exception) e : new RuntimeException(e);
+                log.info(TraceLineFormatter.exception(status.getTraceId(), status.getMessage(), resultTime, precision, exception));
+            }
+        }
+        if (status.getTraceId().isFirstLevel()) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.trace.scoped;
+
+import com.example.trace.TraceId;
+import com.example.trace.callback.TraceCallback;
+
+/**
+ * 현재 실행 범위(scope)의 TraceId 를 보관하는 방법 <br/>
+ * 값은 {@link #call} 이 실행되는 동안에만 보이고, 끝나면 이전 값으로 돌아간다. (바꿀 수 있는 상태가 없음)
+ */
+public interface ScopeCarrier {
+
+    /**
+     * @return 현재 scope 의 TraceId, scope 밖이면 null
+     */
+    TraceId current();
+
+    /**
+     * traceId 를 현재 scope 로 두고 callback 을 실행한다.
+     */
+    <T> T call(TraceId traceId, TraceCallback<T> callback);
+}
@@ -0,0 +1,27 @@
+package com.example.trace.scoped;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 실행 환경에 맞는 {@link ScopeCarrier} 를 고른다. <br/>
+ * -Pjava21 로 빌드하고 --enable-preview 로 실행하면 ScopedValue 기반 carrier 를, 그 외에는 ThreadLocal 기반 carrier 를 사용한다.
+ */
+@Slf4j
+public final class ScopeCarriers {
+
+    // src/main/java21 에 있어서 Java 11 빌드에는 포함되지 않으므로 이름으로 찾는다.
+    private static final String SCOPED_VALUE_CARRIER = "com.example.trace.scoped.ScopedValueScopeCarrier";
+
+    private ScopeCarriers() {
+    }
+
+    public static ScopeCarrier create() {
+        try {
+            final ScopeCarrier carrier = (ScopeCarrier) Class.forName(SCOPED_VALUE_CARRIER).getDeclaredConstructor().newInstance();
+            log.info("trace scope carrier={}", carrier.getClass().getSimpleName());
+            return carrier;
+        } catch (ReflectiveOperationException | LinkageError e) { // 클래스가 없거나, preview 기능이 꺼져 있어서 로딩할 수 없음
+            return new ThreadLocalScopeCarrier();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.trace.scoped;
+
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdScheme;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceSite;
+import com.example.trace.TraceStatus;
+import com.example.trace.callback.TraceCallback;
+import com.example.trace.logtrace.LogTrace;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 쓰레드별 가변 상태 대신, 실행 범위(scope)에 묶인 불변 TraceId 로 depth 를 표현하는 LogTrace <br/>
+ * {@link #execute} 가 span 을 시작하고, callback 이 실행되는 동안만 그 span 의 TraceId 를 현재 scope 로 둔다.
+ * 그 안에서 시작하는 span 은 현재 scope 의 다음 depth 가 되고, callback 이 끝나면 scope 도 함께 사라진다. <br/>
+ * 쓰레드마다 TraceContext 를 들고 있지 않으므로 가상 쓰레드를 수십만 개 만들어도 트레이스 상태가 쓰레드 수만큼 늘어나지 않는다.
+ * (진행 중인 span 의 TraceId 만 살아 있다) <br/>
+ * begin/end 를 직접 호출하면 현재 scope 아래의 leaf span 으로 기록된다. (하위 span 의 부모가 되려면 execute 를 사용해야 한다)
+ */
+@Slf4j
+public class ScopedLogTrace implements LogTrace {
+
+    private final ScopeCarrier carrier;
+    private final TracePrecision precision;
+    private final TraceIdScheme scheme;
+
+    public ScopedLogTrace() {
+        this(TracePrecision.MILLIS);
+    }
+
+    public ScopedLogTrace(final TracePrecision precision) {
+        this(ScopeCarriers.create(), precision);
+    }
+
+    public ScopedLogTrace(final ScopeCarrier carrier, final TracePrecision precision) {
+        this(carrier, precision, TraceId.DEFAULT_SCHEME);
+    }
+
+    public ScopedLogTrace(final ScopeCarrier carrier, final TracePrecision precision, final TraceIdScheme scheme) {
+        this.carrier = carrier;
+        this.precision = precision;
+        this.scheme = scheme;
+    }
+
+    /**
+     * callback 이 실행되는 동안 이 span 의 TraceId 를 현재 scope 로 둔다.
+     */
+    @Override
+    public <T> T execute(final String message, final TraceCallback<T> callback) {
+        final TraceStatus status = begin(message);
+        final T result;
+        try {
+            result = carrier.call(status.getTraceId(), callback);
+        } catch (RuntimeException e) {
+            exception(status, e);
+            throw e;
+        }
+        end(status); // try 밖에서 호출해야 end 가 실패해도 같은 span 을 두 번 끝내지 않는다.
+        return result;
+    }
+
+    @Override
+    public <T> T execute(final TraceSite site, final TraceCallback<T> callback) {
+        return execute(site.getMessage(), callback);
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        final TraceId parent = carrier.current();
+        final TraceId traceId = parent == null ? new TraceId(scheme) : parent.createNextId();
+        final TraceStatus status = new TraceStatus(traceId, System.currentTimeMillis(), System.nanoTime(), message);
+        if (log.isInfoEnabled()) {
+            log.info(TraceLineFormatter.begin(traceId, message));
+        }
+        return status;
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        if (log.isInfoEnabled()) {
+            final long resultTime = precision.fromNanos(System.nanoTime() - status.getStartTimeNanos());
+            if (e == null) {
+                log.info(TraceLineFormatter.complete(status.getTraceId(), status.getMessage(), resultTime, precision));
+            } else {
+                log.info(TraceLineFormatter.exception(status.getTraceId(), status.getMessage(), resultTime, precision, e));
+            }
+        }
+    }
+
+    public ScopeCarrier getCarrier() {
+        return carrier;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.trace.scoped;
+
+import com.example.trace.TraceId;
+import com.example.trace.callback.TraceCallback;
+
+/**
+ * Java 11 에서 사용하는 carrier. ThreadLocal 에 현재 scope 의 TraceId 하나만 두고, scope 가 끝나면 이전 값으로 돌려놓는다. <br/>
+ * root scope 가 끝나면 remove() 하기 때문에 요청이 끝난 쓰레드에는 아무것도 남지 않는다.
+ */
+public class ThreadLocalScopeCarrier implements ScopeCarrier {
+
+    private final ThreadLocal<TraceId> currentHolder = new ThreadLocal<>();
+
+    @Override
+    public TraceId current() {
+        return currentHolder.get();
+    }
+
+    @Override
+    public <T> T call(final TraceId traceId, final TraceCallback<T> callback) {
+        final TraceId previous = currentHolder.get();
+        currentHolder.set(traceId);
+        try {
+            return callback.call();
+        } finally {
+            if (previous == null) {
+                currentHolder.remove();
+            } else {
+                currentHolder.set(previous);
+            }
+        }
+    }
+}
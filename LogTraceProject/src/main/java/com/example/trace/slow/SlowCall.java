@@ -0,0 +1,72 @@
+package com.example.trace.slow;
+
+import java.util.List;
+
+/**
+ * 임계값을 넘긴 호출 하나 (불변)
+ */
+public final class SlowCall {
+
+    private final long timeMs; // 끝난 시각
+    private final String traceId;
+    private final String message;
+    private final List<String> path; // level 0 부터 이 span 까지의 메시지
+    private final long durationNanos;
+    private final long thresholdNanos;
+    private final String threadName;
+    private final String exception; // 정상 종료면 null
+    private final StackTraceElement[] stack; // 진행 중일 때 잡아둔 스택, 없으면 null
+
+    SlowCall(long timeMs, String traceId, String message, List<String> path, long durationNanos, long thresholdNanos,
+             String threadName, String exception, StackTraceElement[] stack) {
+        this.timeMs = timeMs;
+        this.traceId = traceId;
+        this.message = message;
+        this.path = path;
+        this.durationNanos = durationNanos;
+        this.thresholdNanos = thresholdNanos;
+        this.threadName = threadName;
+        this.exception = exception;
+        this.stack = stack;
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public List<String> getPath() {
+        return path;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getException() {
+        return exception;
+    }
+
+    public StackTraceElement[] getStack() {
+        return stack == null ? null : stack.clone();
+    }
+
+    public boolean hasStack() {
+        return stack != null;
+    }
+}
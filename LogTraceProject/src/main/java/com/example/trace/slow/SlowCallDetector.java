@@ -0,0 +1,233 @@
+package com.example.trace.slow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.trace.TraceContext;
+import com.example.trace.TraceListener;
+import com.example.trace.TraceStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메시지별 임계값보다 오래 걸린 span 을 {@link SlowCall} 로 남기는 {@link TraceListener} <br/>
+ * 빠른 호출은 가장 작은 임계값과 한번 비교하고 끝난다. 그보다 오래 걸린 호출만 메시지별 임계값을 조회한다. <br/>
+ * stackSamplingMs 를 지정하면 샘플러 쓰레드가 그 간격으로 각 쓰레드의 진행 중인 span 을 살펴보고,
+ * 이미 임계값을 넘긴 span 이 있으면 그 쓰레드의 스택을 한번 잡아둔다. (트레이스당 한번)
+ * 요청 쓰레드의 begin/end 에는 아무것도 추가되지 않는다.
+ */
+@Slf4j
+public class SlowCallDetector implements TraceListener, AutoCloseable {
+
+    private static final int DEFAULT_MAX_EVENTS = 100;
+
+    private final long defaultThresholdNanos;
+    private final Map<String, Long> thresholdNanos = new ConcurrentHashMap<>();
+    private volatile long minThresholdNanos; // 빠른 호출을 걸러내는 유일한 비교 대상
+
+    private final int maxEvents;
+    private final ArrayDeque<SlowCall> events = new ArrayDeque<>(); // 최근 maxEvents 개, this 로 동기화
+    private final LongAdder slowCount = new LongAdder();
+
+    private final Map<Thread, TraceContext> contexts = new ConcurrentHashMap<>(); // 샘플러가 관찰하는 쓰레드
+    private final Map<Thread, StackSample> samples = new ConcurrentHashMap<>();
+    private final Thread sampler; // stackSamplingMs 가 0 이면 null
+    private volatile boolean running = true;
+
+    public SlowCallDetector(final long defaultThresholdMs) {
+        this(defaultThresholdMs, 0L, DEFAULT_MAX_EVENTS);
+    }
+
+    /**
+     * @param stackSamplingMs 진행 중인 span 을 살펴보는 간격, 0 이면 스택을 잡지 않는다.
+     */
+    public SlowCallDetector(final long defaultThresholdMs, final long stackSamplingMs, final int maxEvents) {
+        this.defaultThresholdNanos = TimeUnit.MILLISECONDS.toNanos(defaultThresholdMs);
+        this.minThresholdNanos = defaultThresholdNanos;
+        this.maxEvents = maxEvents;
+        if (stackSamplingMs > 0) {
+            final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(stackSamplingMs);
+            this.sampler = new Thread(() -> sample(intervalNanos), "slow-call-sampler");
+            this.sampler.setDaemon(true);
+            this.sampler.start();
+        } else {
+            this.sampler = null;
+        }
+    }
+
+    /**
+     * 특정 메시지(예: OrderRepositoryV5.save())의 임계값을 지정한다. <br/>
+     * 동시에 호출되면 더 큰 최솟값이 나중에 기록될 수 있으므로, 임계값 저장과 minThresholdNanos 계산을 한번에 한다.
+     */
+    public synchronized void setThreshold(final String message, final long thresholdMs) {
+        thresholdNanos.put(message, TimeUnit.MILLISECONDS.toNanos(thresholdMs));
+        long min = defaultThresholdNanos;
+        for (long value : thresholdNanos.values()) {
+            min = Math.min(min, value);
+        }
+        minThresholdNanos = min;
+    }
+
+    public long getThresholdNanos(final String message) {
+        return thresholdNanos.getOrDefault(message, defaultThresholdNanos);
+    }
+
+    @Override
+    public void onComplete(final TraceStatus status, final long durationNanos, final Exception e) {
+        onComplete(null, status, durationNanos, e);
+    }
+
+    @Override
+    public void onComplete(final TraceContext context, final TraceStatus status, final long durationNanos, final Exception e) {
+        if (durationNanos < minThresholdNanos) {
+            return;
+        }
+        final long threshold = getThresholdNanos(status.getMessage());
+        if (durationNanos >= threshold) {
+            record(context, status, durationNanos, threshold, e);
+        }
+    }
+
+    private void record(TraceContext context, TraceStatus status, long durationNanos, long threshold, Exception e) {
+        final int level = status.getTraceId().getLevel();
+        final List<String> path = new ArrayList<>(level + 1);
+        if (context != null) {
+            for (int i = 0; i < level; i++) {
+                final TraceStatus parent = context.getStatus(i);
+                if (parent != null && parent.getMessage() != null) { // 도중에 다른 쓰레드가 값을 비웠을 수 있다.
+                    path.add(parent.getMessage());
+                }
+            }
+        }
+        path.add(status.getMessage());
+
+        final StackSample sample = sampler == null || context == null ? null : samples.get(Thread.currentThread());
+        final StackTraceElement[] stack = sample != null && sample.covers(context, status) ? sample.stack : null;
+
+        final SlowCall slowCall = new SlowCall(System.currentTimeMillis(), status.getTraceId().getId(), status.getMessage(),
+                Collections.unmodifiableList(path), durationNanos, threshold, Thread.currentThread().getName(),
+                e == null ? null : e.getClass().getName(), stack);
+        slowCount.increment();
+        synchronized (this) {
+            if (events.size() == maxEvents) {
+                events.pollFirst();
+            }
+            events.addLast(slowCall);
+        }
+        log.warn("slow call: [{}] {} time={}ms threshold={}ms path={}", slowCall.getTraceId(), status.getMessage(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), TimeUnit.NANOSECONDS.toMillis(threshold), path);
+    }
+
+    @Override
+    public void onContextCreated(final Thread thread, final TraceContext context) {
+        if (sampler != null) {
+            contexts.put(thread, context);
+        }
+    }
+
+    /**
+     * 샘플러 쓰레드 루프
+     */
+    private void sample(long intervalNanos) {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            final long now = System.nanoTime();
+            final Iterator<Map.Entry<Thread, TraceContext>> iterator = contexts.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Thread, TraceContext> entry = iterator.next();
+                final Thread thread = entry.getKey();
+                if (!thread.isAlive()) {
+                    iterator.remove();
+                    samples.remove(thread);
+                    continue;
+                }
+                sample(thread, entry.getValue(), now);
+            }
+        }
+    }
+
+    /**
+     * 바깥쪽 span 부터 보면서 임계값을 넘긴 span 이 있으면 스택을 잡는다.
+     * 요청 쓰레드가 동시에 값을 바꾸고 있으므로, 잡은 뒤에도 root 시작 시간이 그대로인지 확인한다.
+     */
+    private void sample(Thread thread, TraceContext context, long now) {
+        final TraceStatus root = context.getStatus(0);
+        if (root == null) {
+            return;
+        }
+        final long rootStart = root.getStartTimeNanos();
+        final StackSample existing = samples.get(thread);
+        if (existing != null && existing.rootStartNanos == rootStart) {
+            return; // 이번 트레이스는 이미 잡았다.
+        }
+
+        final int level = context.getLevel();
+        for (int i = 0; i <= level; i++) {
+            final TraceStatus status = context.getStatus(i);
+            final String message = status == null ? null : status.getMessage();
+            if (message != null && now - status.getStartTimeNanos() >= getThresholdNanos(message)) {
+                final StackTraceElement[] stack = thread.getStackTrace();
+                if (root.getStartTimeNanos() == rootStart && context.isActive()) {
+                    samples.put(thread, new StackSample(rootStart, now, stack));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 최근 slow call (오래된 것부터)
+     */
+    public synchronized List<SlowCall> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    public boolean isStackSampling() {
+        return sampler != null;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (sampler != null) {
+            LockSupport.unpark(sampler);
+            sampler.join();
+        }
+    }
+
+    private static final class StackSample {
+        private final long rootStartNanos; // 어느 트레이스에서 잡았는지
+        private final long takenAtNanos;
+        private final StackTraceElement[] stack;
+
+        private StackSample(long rootStartNanos, long takenAtNanos, StackTraceElement[] stack) {
+            this.rootStartNanos = rootStartNanos;
+            this.takenAtNanos = takenAtNanos;
+            this.stack = stack;
+        }
+
+        /**
+         * 같은 트레이스에서 이 span 이 진행 중일 때 잡은 스택인지 (이전 트레이스의 스택은 다음에 잡을 때 덮어쓴다)
+         */
+        private boolean covers(TraceContext context, TraceStatus status) {
+            final TraceStatus root = context.getStatus(0);
+            return root != null && root.getStartTimeNanos() == rootStartNanos && takenAtNanos >= status.getStartTimeNanos();
+        }
+    }
+}
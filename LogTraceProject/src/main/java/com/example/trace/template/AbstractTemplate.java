@@ -1,6 +1,7 @@
 package com.example.trace.template;
 
-import com.example.trace.TraceStatus;
+import com.example.trace.TraceSite;
+import com.example.trace.callback.TraceCallback;
 import com.example.trace.logtrace.LogTrace;
 
 public abstract class AbstractTemplate<T> {
@@ -11,17 +12,19 @@ public abstract class AbstractTemplate<T> {
         this.trace = trace;
     }
 
+    /**
+     * span 을 어떻게 열고 닫을지는 LogTrace 가 정한다. ({@link LogTrace#execute(String, TraceCallback)}) <br/>
+     * call() 은 protected 라서 TraceCallback 을 구현할 수 없으므로 메서드 참조로 넘긴다.
+     */
     public T execute(String message) {
-        TraceStatus status = null;
-        try {
-            status = trace.begin(message);
-            T result = call(); // 로직 호출
-            trace.end(status);
-            return result;
-        } catch (Exception e) {
-            trace.exception(status, e);
-            throw e;
-        }
+        return trace.execute(message, this::call);
+    }
+
+    /**
+     * 미리 등록해둔 호출 지점으로 실행한다.
+     */
+    public T execute(TraceSite site) {
+        return trace.execute(site, this::call);
     }
 
     protected abstract T call(); // 비즈니스 로직 부분만 자식에서 구현하도록 추상화
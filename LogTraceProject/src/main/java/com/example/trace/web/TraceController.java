@@ -0,0 +1,180 @@
+package com.example.trace.web;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceSite;
+import com.example.trace.TraceSwitch;
+import com.example.trace.metrics.LatencyRegistry;
+import com.example.trace.metrics.LatencySnapshot;
+import com.example.trace.reactive.ReactiveLogTrace;
+import com.example.trace.slow.SlowCall;
+import com.example.trace.slow.SlowCallDetector;
+
+/**
+ * 트레이스 엔진이 직접 모은 통계 조회 <br/>
+ * GET /trace/latency?unit=us
+ */
+@RestController
+public class TraceController {
+
+    private final LatencyRegistry latencyRegistry;
+    private final ReactiveLogTrace reactiveLogTrace;
+    private final TraceSwitch traceSwitch;
+    private final TraceLeakFilter traceLeakFilter;
+    private final SlowCallDetector slowCallDetector;
+
+    public TraceController(final LatencyRegistry latencyRegistry, final ReactiveLogTrace reactiveLogTrace,
+                           final TraceSwitch traceSwitch, final TraceLeakFilter traceLeakFilter,
+                           final SlowCallDetector slowCallDetector) {
+        this.latencyRegistry = latencyRegistry;
+        this.reactiveLogTrace = reactiveLogTrace;
+        this.traceSwitch = traceSwitch;
+        this.traceLeakFilter = traceLeakFilter;
+        this.slowCallDetector = slowCallDetector;
+    }
+
+    @GetMapping("/trace/enabled")
+    public boolean enabled() {
+        return traceSwitch.isEnabled();
+    }
+
+    /**
+     * POST /trace/enabled?value=false 로 끄면 진행 중인 요청은 시작할 때의 상태대로 끝나고, 이후 요청부터 추적하지 않는다.
+     */
+    @PostMapping("/trace/enabled")
+    public boolean enable(@RequestParam boolean value) {
+        traceSwitch.setEnabled(value);
+        return traceSwitch.isEnabled();
+    }
+
+    /**
+     * {"unit":"ms","rejected":0,"messages":{"OrderServiceV5.orderItem()":{"count":3,"p50":1003,"p90":1003,"p99":1003,"p999":1003,"max":1003}, ..}}
+     */
+    @GetMapping("/trace/latency")
+    public Map<String, Object> latency(@RequestParam(defaultValue = "ms") String unit) {
+        final TracePrecision precision = TracePrecision.of(unit);
+        final Map<String, Object> messages = new LinkedHashMap<>();
+        latencyRegistry.snapshot().forEach((message, snapshot) -> messages.put(message, toMap(snapshot, precision)));
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("unit", precision.unit());
+        result.put("rejected", latencyRegistry.getRejectedCount());
+        result.put("messages", messages);
+        return result;
+    }
+
+    @PostMapping("/trace/latency/reset")
+    public String resetLatency() {
+        latencyRegistry.reset();
+        return "ok";
+    }
+
+    /**
+     * 논블로킹(v6) 요청 중 진행 중인 요청 수와 지금까지의 최댓값
+     */
+    @GetMapping("/trace/in-flight")
+    public Map<String, Object> inFlight() {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", reactiveLogTrace.getInFlight());
+        result.put("maxInFlight", reactiveLogTrace.getMaxInFlight());
+        return result;
+    }
+
+    /**
+     * 미리 등록된 호출 지점({@link TraceSite})별 호출 수, 예외 수, 평균/최대 시간
+     */
+    @GetMapping("/trace/sites")
+    public List<Map<String, Object>> sites(@RequestParam(defaultValue = "ms") String unit) {
+        final TracePrecision precision = TracePrecision.of(unit);
+        final List<Map<String, Object>> result = new ArrayList<>();
+        for (TraceSite site : TraceSite.sites()) {
+            final long count = site.getCount();
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", site.getId());
+            map.put("message", site.getMessage());
+            map.put("count", count);
+            map.put("exceptions", site.getExceptionCount());
+            map.put("avg", count == 0 ? 0 : precision.fromNanos(site.getTotalNanos() / count));
+            map.put("max", precision.fromNanos(site.getMaxNanos()));
+            map.put("unit", precision.unit());
+            result.add(map);
+        }
+        return result;
+    }
+
+    /**
+     * 요청이 끝났을 때 쓰레드에 남아있던 span (강제로 비운 횟수)
+     */
+    @GetMapping("/trace/leaks")
+    public Map<String, Object> leaks() {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("checked", traceLeakFilter.getCheckedCount());
+        result.put("leaks", traceLeakFilter.getLeakCount());
+        result.put("leakedSpans", traceLeakFilter.getLeakedSpanCount());
+        result.put("lastLeakUri", traceLeakFilter.getLastLeakUri());
+        return result;
+    }
+
+    /**
+     * 최근 slow call (최신순), 잡아둔 스택이 있으면 함께 보여준다.
+     */
+    @GetMapping("/trace/slow-calls")
+    public Map<String, Object> slowCalls(@RequestParam(defaultValue = "ms") String unit) {
+        final TracePrecision precision = TracePrecision.of(unit);
+        final List<Map<String, Object>> events = new ArrayList<>();
+        for (SlowCall slowCall : slowCallDetector.getEvents()) {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("time", slowCall.getTimeMs());
+            map.put("traceId", slowCall.getTraceId());
+            map.put("thread", slowCall.getThreadName());
+            map.put("path", slowCall.getPath());
+            map.put("duration", precision.fromNanos(slowCall.getDurationNanos()));
+            map.put("threshold", precision.fromNanos(slowCall.getThresholdNanos()));
+            map.put("exception", slowCall.getException());
+            if (slowCall.hasStack()) {
+                final List<String> stack = new ArrayList<>();
+                for (StackTraceElement element : slowCall.getStack()) {
+                    stack.add(element.toString());
+                }
+                map.put("stack", stack);
+            }
+            events.add(0, map);
+        }
+
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("unit", precision.unit());
+        result.put("total", slowCallDetector.getSlowCount());
+        result.put("stackSampling", slowCallDetector.isStackSampling());
+        result.put("events", events);
+        return result;
+    }
+
+    /**
+     * POST /trace/slow-calls/threshold?message=OrderRepositoryV5.save()&ms=500
+     */
+    @PostMapping("/trace/slow-calls/threshold")
+    public String slowCallThreshold(@RequestParam String message, @RequestParam long ms) {
+        slowCallDetector.setThreshold(message, ms);
+        return "ok";
+    }
+
+    private static Map<String, Object> toMap(LatencySnapshot snapshot, TracePrecision precision) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", snapshot.getCount());
+        map.put("p50", precision.fromNanos(snapshot.getP50()));
+        map.put("p90", precision.fromNanos(snapshot.getP90()));
+        map.put("p99", precision.fromNanos(snapshot.getP99()));
+        map.put("p999", precision.fromNanos(snapshot.getP999()));
+        map.put("max", precision.fromNanos(snapshot.getMax()));
+        return map;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.trace.web;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.ThreadBoundLogTrace;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청이 끝날 때 요청 쓰레드에 끝나지 않은 span 이 남아있는지 확인한다. <br/>
+ * 남아있으면 경고 로그를 남기고 강제로 비워서, 같은 톰캣 쓰레드를 쓰는 다음 요청이 이전 트랜잭션 ID 와 depth 를 물려받지 않게 한다.
+ * 누수 횟수는 GET /trace/leaks 로 조회한다.
+ */
+@Slf4j
+public class TraceLeakFilter extends OncePerRequestFilter {
+
+    private final ThreadBoundLogTrace trace; // 쓰레드별 상태가 없는 LogTrace 면 null
+
+    private final LongAdder checkedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder leakedSpanCount = new LongAdder();
+    private volatile String lastLeakUri;
+
+    public TraceLeakFilter(final LogTrace trace) {
+        this.trace = trace instanceof ThreadBoundLogTrace ? (ThreadBoundLogTrace) trace : null;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (trace == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            check(request.getRequestURI());
+        }
+    }
+
+    private void check(String uri) {
+        checkedCount.increment();
+        final int leaked = trace.resetCurrentThread();
+        if (leaked > 0) {
+            leakCount.increment();
+            leakedSpanCount.add(leaked);
+            lastLeakUri = uri;
+            log.warn("trace state leaked: uri={}, unfinishedSpans={} (reset)", uri, leaked);
+        }
+    }
+
+    public long getCheckedCount() {
+        return checkedCount.sum();
+    }
+
+    public long getLeakCount() {
+        return leakCount.sum();
+    }
+
+    public long getLeakedSpanCount() {
+        return leakedSpanCount.sum();
+    }
+
+    public String getLastLeakUri() {
+        return lastLeakUri;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.trace.web;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.trace.TraceId;
+import com.example.trace.TraceIdGenerator;
+import com.example.trace.TraceLineFormatter;
+import com.example.trace.TraceParent;
+import com.example.trace.TraceSnapshot;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.propagation.TraceContextPropagator;
+import com.example.trace.reactive.ReactiveLogTrace;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * WebClient 로 나가는 요청에 traceparent 헤더를 붙인다. <br/>
+ * {@link ReactiveLogTrace} 의 Reactor Context 에 TraceId 가 있으면 그것을, 없으면 구독한 쓰레드의 현재 span 을 사용한다.
+ * Reactor Context 에는 span 이 없으므로 요청마다 span ID 를 새로 만들고, 받는 쪽 로그와 이어볼 수 있도록 한 줄 남긴다. <br/>
+ * [traceId] GET http://localhost:8081/v1/request span=5c1e4a7d93b2f061
+ */
+@Slf4j
+public class TraceParentExchangeFilter implements ExchangeFilterFunction {
+
+    private final TraceContextPropagator propagator; // 지원하지 않는 LogTrace 면 null
+
+    public TraceParentExchangeFilter(final LogTrace trace) {
+        this.propagator = trace instanceof TraceContextPropagator ? (TraceContextPropagator) trace : null;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+        if (request.headers().containsKey(TraceParent.HEADER)) {
+            return next.exchange(request);
+        }
+        return Mono.deferContextual(context -> {
+            final String header = traceParent(request, context);
+            if (header == null) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request).header(TraceParent.HEADER, header).build());
+        });
+    }
+
+    private String traceParent(ClientRequest request, ContextView context) {
+        final TraceId traceId = ReactiveLogTrace.currentTraceId(context);
+        if (traceId != null) { // Reactor Context 에는 span ID 가 없으므로 이 요청용 ID 를 새로 만든다.
+            final long spanId = TraceIdGenerator.nextId();
+            if (log.isInfoEnabled()) {
+                final StringBuilder line = new StringBuilder(128).append('[').append(traceId.getId()).append("] ")
+                        .append(request.method()).append(' ').append(request.url());
+                log.info(TraceLineFormatter.appendSpanId(line, spanId).toString());
+            }
+            return TraceParent.format(traceId.getHighBits(), traceId.getLowBits(), spanId);
+        }
+        final TraceSnapshot snapshot = propagator == null ? null : propagator.capture();
+        return snapshot == null || !snapshot.isSampled() ? null : TraceParent.format(snapshot);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.trace.web;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.trace.TraceParent;
+import com.example.trace.TraceSnapshot;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.propagation.TraceContextPropagator;
+import com.example.trace.propagation.TraceScope;
+
+/**
+ * 들어온 요청의 traceparent 헤더로 이 요청의 root span 이 같은 트랜잭션 ID 로 시작하게 한다.
+ * root span 의 시작 줄에는 호출한 쪽의 span ID 가 parent=ID 로 붙는다. <br/>
+ * 헤더가 없거나 형식이 맞지 않으면 지금처럼 root span 에서 새로운 트랜잭션 ID 를 발급한다.
+ * 쓰레드별 상태를 가진 LogTrace({@link TraceContextPropagator}) 에서만 동작한다.
+ */
+public class TraceParentFilter extends OncePerRequestFilter {
+
+    private final TraceContextPropagator propagator; // 지원하지 않는 LogTrace 면 null
+
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder invalidCount = new LongAdder();
+
+    public TraceParentFilter(final LogTrace trace) {
+        this.propagator = trace instanceof TraceContextPropagator ? (TraceContextPropagator) trace : null;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String header = propagator == null ? null : request.getHeader(TraceParent.HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final TraceSnapshot remote = TraceParent.parse(header);
+        if (remote == null) {
+            invalidCount.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        acceptedCount.increment();
+        try (TraceScope ignored = propagator.restore(remote)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    public long getInvalidCount() {
+        return invalidCount.sum();
+    }
+}
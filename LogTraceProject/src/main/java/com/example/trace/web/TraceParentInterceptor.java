@@ -0,0 +1,37 @@
+package com.example.trace.web;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.example.trace.TraceParent;
+import com.example.trace.TraceSnapshot;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.propagation.TraceContextPropagator;
+
+/**
+ * RestTemplate 으로 나가는 요청에 현재 span 의 traceparent 헤더를 붙인다. (이미 있으면 그대로 둔다)
+ * 보낸 span 은 끝나는 줄에 span=ID 가 붙고, 받는 쪽 root span 의 시작 줄에는 같은 ID 가 parent=ID 로 붙는다.
+ * 샘플링에서 빠진 트레이스는 트랜잭션 ID 가 없으므로 붙이지 않는다.
+ */
+public class TraceParentInterceptor implements ClientHttpRequestInterceptor {
+
+    private final TraceContextPropagator propagator; // 지원하지 않는 LogTrace 면 null
+
+    public TraceParentInterceptor(final LogTrace trace) {
+        this.propagator = trace instanceof TraceContextPropagator ? (TraceContextPropagator) trace : null;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request, final byte[] body,
+                                        final ClientHttpRequestExecution execution) throws IOException {
+        final TraceSnapshot snapshot = propagator == null ? null : propagator.capture();
+        if (snapshot != null && snapshot.isSampled() && !request.getHeaders().containsKey(TraceParent.HEADER)) {
+            request.getHeaders().set(TraceParent.HEADER, TraceParent.format(snapshot));
+        }
+        return execution.execute(request, body);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example;
+
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * -Pjava21 빌드에서 trace.virtual-threads=true 이면 요청마다 가상 쓰레드에서 처리한다.
+ * (OrderRepository*.save() 의 1초 블로킹 동안 플랫폼 쓰레드를 붙잡지 않음)
+ */
+@Configuration
+@ConditionalOnProperty(name = "trace.virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
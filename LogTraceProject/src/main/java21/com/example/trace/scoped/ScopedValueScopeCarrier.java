@@ -0,0 +1,25 @@
+package com.example.trace.scoped;
+
+import com.example.trace.TraceId;
+import com.example.trace.callback.TraceCallback;
+
+/**
+ * Java 21 ScopedValue (preview) 기반 carrier <br/>
+ * 값이 callback 실행 범위에만 묶이고 쓰레드에 저장되지 않으므로, 가상 쓰레드가 carrier 쓰레드를 옮겨 다니거나 재사용돼도 값이 새지 않는다.
+ * StructuredTaskScope 로 fork 한 하위 작업에도 그대로 전달된다. <br/>
+ * -Pjava21 로 빌드할 때만 컴파일되고, {@link ScopeCarriers} 가 이름으로 찾아서 사용한다.
+ */
+public class ScopedValueScopeCarrier implements ScopeCarrier {
+
+    private static final ScopedValue<TraceId> CURRENT = ScopedValue.newInstance();
+
+    @Override
+    public TraceId current() {
+        return CURRENT.orElse(null);
+    }
+
+    @Override
+    public <T> T call(final TraceId traceId, final TraceCallback<T> callback) {
+        return ScopedValue.where(CURRENT, traceId).get(callback::call);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SpanBufferTest {
+
+    @Test
+    void appendJson() {
+        SpanBuffer spans = new SpanBuffer();
+        TraceId traceId = new TraceId();
+
+        spans.open("OrderControllerV5.request()", 0, 1000L);
+        spans.open("OrderServiceV5.orderItem()", 1, 1001L);
+        spans.close(1, 2_000_000L, new IllegalStateException("\"ex\""));
+        spans.close(0, 3_000_000L, null);
+
+        String json = spans.appendJson(new StringBuilder(), traceId, TracePrecision.MILLIS).toString();
+
+        assertThat(json).isEqualTo("{\"traceId\":\"" + traceId.getId() + "\",\"unit\":\"ms\",\"spans\":["
+                + "{\"depth\":0,\"message\":\"OrderControllerV5.request()\",\"start\":1000,\"time\":3},"
+                + "{\"depth\":1,\"message\":\"OrderServiceV5.orderItem()\",\"start\":1001,\"time\":2,\"ex\":\"java.lang.IllegalStateException: \\\"ex\\\"\"}]}");
+    }
+
+    @Test
+    void clear() {
+        SpanBuffer spans = new SpanBuffer();
+        for (int i = 0; i < 100; i++) { // 초기 크기보다 많이 넣어도 늘어난다.
+            spans.open("hello", i % 10, 0L);
+        }
+        spans.clear();
+
+        assertThat(spans.isEmpty()).isTrue();
+    }
+
+    @Test
+    void truncate() {
+        SpanBuffer spans = new SpanBuffer(2);
+        TraceId traceId = new TraceId();
+
+        spans.open("hello1", 0, 0L);
+        spans.open("hello2", 1, 0L);
+        assertThat(spans.open("hello3", 2, 0L)).isFalse();
+        spans.close(2, 1_000_000L, null); // 기록하지 못한 span 은 무시된다.
+        spans.close(1, 1_000_000L, null);
+        spans.close(0, 2_000_000L, null);
+
+        assertThat(spans.size()).isEqualTo(2);
+        assertThat(spans.getTruncatedCount()).isEqualTo(1);
+        assertThat(spans.appendJson(new StringBuilder(), traceId, TracePrecision.MILLIS).toString()).endsWith("],\"truncated\":1}");
+
+        spans.clear();
+        assertThat(spans.getTruncatedCount()).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TraceIdTest {
+
+    @DisplayName("기본 방식은 64비트 ID 이고 16자리로 출력된다")
+    @Test
+    void random() {
+        TraceId traceId = new TraceId();
+
+        assertThat(traceId.getHighBits()).isZero();
+        assertThat(traceId.getId()).hasSize(16);
+        assertThat(traceId.createNextId().getId()).isEqualTo(traceId.getId());
+    }
+
+    @DisplayName("time-ordered 방식은 128비트 ID 이고, 노드 ID 를 담고 있으며 생성 시각 순서로 정렬된다")
+    @Test
+    void timeOrdered() throws InterruptedException {
+        TimeOrderedTraceIdScheme scheme = new TimeOrderedTraceIdScheme(7);
+
+        TraceId first = new TraceId(scheme);
+        Thread.sleep(2);
+        TraceId second = new TraceId(scheme);
+
+        assertThat(first.getId()).hasSize(32);
+        assertThat(TimeOrderedTraceIdScheme.nodeId(first)).isEqualTo(7);
+        assertThat(TimeOrderedTraceIdScheme.timestampMillis(first)).isLessThanOrEqualTo(System.currentTimeMillis());
+        assertThat(first.getId()).isLessThan(second.getId());
+    }
+
+    @Test
+    void timeOrdered_unique() {
+        TimeOrderedTraceIdScheme scheme = new TimeOrderedTraceIdScheme(7);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(new TraceId(scheme).getId());
+        }
+
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @DisplayName("scheme 은 TraceContext 마다 따로 적용되고 다른 컨텍스트로 새지 않는다")
+    @Test
+    void schemePerContext() {
+        TraceContext timeOrdered = new TraceContext(new TimeOrderedTraceIdScheme(7));
+        TraceContext random = new TraceContext();
+
+        TraceStatus timeOrderedRoot = timeOrdered.begin("hello", 0L, 0L);
+        TraceStatus randomRoot = random.begin("hello", 0L, 0L);
+
+        assertThat(timeOrderedRoot.getTraceId().getId()).hasSize(32);
+        assertThat(randomRoot.getTraceId().getId()).hasSize(16);
+        assertThat(new TraceId().getId()).hasSize(16);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TraceLineFormatterTest {
+
+    @DisplayName("미리 만들어둔 depth 와 그보다 깊은 depth 모두 기존 addSpace 와 같은 결과를 만든다")
+    @Test
+    void sameAsAddSpace() {
+        TraceId traceId = new TraceId();
+        for (int level = 0; level < 40; level++) {
+            String id = traceId.getId();
+            IllegalStateException e = new IllegalStateException("예외 발생!");
+
+            assertThat(TraceLineFormatter.begin(traceId, "hello"))
+                    .isEqualTo("[" + id + "] " + addSpace("-->", level) + "hello");
+            assertThat(TraceLineFormatter.complete(traceId, "hello", 3))
+                    .isEqualTo("[" + id + "] " + addSpace("<--", level) + "hello time=3ms");
+            assertThat(TraceLineFormatter.exception(traceId, "hello", 3, e))
+                    .isEqualTo("[" + id + "] " + addSpace("<X-", level) + "hello time=3ms ex=" + e);
+
+            traceId = traceId.createNextId();
+        }
+    }
+
+    @Test
+    void precision() {
+        TraceId traceId = new TraceId().createNextId();
+
+        assertThat(TraceLineFormatter.complete(traceId, "hello", 250, TracePrecision.MICROS))
+                .isEqualTo("[" + traceId.getId() + "] |<--hello time=250us");
+        assertThat(TracePrecision.MICROS.fromNanos(250_999)).isEqualTo(250);
+        assertThat(TracePrecision.of("ns")).isEqualTo(TracePrecision.NANOS);
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+import com.example.trace.propagation.TraceScope;
+
+class TraceParentTest {
+
+    private static final String HEADER = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @Test
+    void parse_format() {
+        TraceSnapshot snapshot = TraceParent.parse(HEADER);
+
+        assertThat(snapshot.isRemote()).isTrue();
+        assertThat(snapshot.getTraceId().getId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(snapshot.getSpanId()).isEqualTo(0x00f067aa0ba902b7L);
+        assertThat(TraceParent.format(snapshot)).isEqualTo(HEADER);
+        assertThat(TraceParent.format(0L, 0x1234L, 0xabcL))
+                .isEqualTo("00-00000000000000000000000000001234-0000000000000abc-01");
+    }
+
+    @DisplayName("형식이 맞지 않는 헤더는 없는 것으로 취급한다")
+    @Test
+    void invalid() {
+        String[] headers = {
+                "00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01", // 대문자
+                "00-00000000000000000000000000000000-00f067aa0ba902b7-01", // 모두 0 인 trace-id
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01", // 모두 0 인 parent-id
+                "ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", // 사용할 수 없는 버전
+                "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra", // 00 은 정확히 55자
+                "00-4bf92f3577b34da6a3ce929d0e0e4736_00f067aa0ba902b7-01",
+                "garbage"
+        };
+        for (String header : headers) {
+            assertThat(TraceParent.parse(header)).as(header).isNull();
+        }
+    }
+
+    @DisplayName("이후 버전은 뒤에 붙은 필드를 무시하고 읽는다")
+    @Test
+    void futureVersion() {
+        assertThat(TraceParent.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra")).isNotNull();
+    }
+
+    /**
+     * 11:40:02.511 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] root
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] |-->child
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] |<--child time=0ms
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] root time=1ms
+     */
+    @DisplayName("들어온 헤더로 root span 을 시작하고, 나가는 헤더에는 현재 span ID 를 쓴다")
+    @Test
+    void inbound_outbound() {
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+
+        try (TraceScope ignored = trace.restore(TraceParent.parse(HEADER))) {
+            TraceStatus root = trace.begin("root");
+            TraceStatus child = trace.begin("child");
+            assertThat(root.getTraceId().isFirstLevel()).isTrue();
+            assertThat(root.getTraceId().getId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+
+            String outbound = TraceParent.format(trace.capture());
+            assertThat(TraceParent.parse(outbound).getTraceId().getId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+            assertThat(TraceParent.parse(outbound).getSpanId()).isEqualTo(child.getSpanId());
+
+            trace.end(child);
+            trace.end(root);
+        }
+
+        TraceStatus next = trace.begin("next"); // 요청이 끝나면 다시 새로운 트랜잭션 ID 를 발급한다.
+        assertThat(next.getTraceId().getId()).isNotEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        trace.end(next);
+    }
+
+    /**
+     * 11:40:02.511 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] root parent=00f067aa0ba902b7
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] |-->child
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] |<--child time=0ms span=5c1e4a7d93b2f061
+     * 11:40:02.512 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4bf92f3577b34da6a3ce929d0e0e4736] root time=1ms
+     */
+    @DisplayName("root span 시작 줄에는 호출한 쪽의 span ID, 전달한 span 의 끝 줄에는 보낸 span ID 가 붙는다")
+    @Test
+    void spanIdInLines() {
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+
+        try (TraceScope ignored = trace.restore(TraceParent.parse(HEADER))) {
+            TraceStatus root = trace.begin("root");
+            TraceStatus child = trace.begin(TraceSite.of("TraceParentTest.child()"));
+            String outbound = TraceParent.format(trace.capture());
+
+            assertThat(TraceLineFormatter.begin(root)).endsWith("root parent=00f067aa0ba902b7");
+            assertThat(TraceLineFormatter.begin(child)).endsWith("|-->TraceParentTest.child()");
+            assertThat(TraceLineFormatter.complete(child, 3, TracePrecision.MILLIS))
+                    .endsWith("time=3ms span=" + outbound.substring(36, 52));
+            assertThat(TraceLineFormatter.exception(child, 3, TracePrecision.MILLIS, new IllegalStateException("x")))
+                    .endsWith("ex=java.lang.IllegalStateException: x span=" + outbound.substring(36, 52));
+            assertThat(TraceLineFormatter.complete(root, 3, TracePrecision.MILLIS)).endsWith("root time=3ms"); // 전달하지 않은 span
+
+            trace.end(child);
+            trace.end(root);
+        }
+    }
+}
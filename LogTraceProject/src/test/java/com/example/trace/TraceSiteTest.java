@@ -0,0 +1,79 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.callback.TraceTemplate;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+
+class TraceSiteTest {
+
+    @DisplayName("같은 메시지는 같은 TraceSite 를 돌려준다")
+    @Test
+    void of() {
+        TraceSite site = TraceSite.of("TraceSiteTest.of()");
+
+        assertThat(TraceSite.of("TraceSiteTest.of()")).isSameAs(site);
+        assertThat(TraceSite.of("TraceSiteTest.other()").getId()).isNotEqualTo(site.getId());
+        assertThat(TraceSite.sites()).contains(site);
+    }
+
+    @DisplayName("등록 수가 최대치를 넘으면 등록하지 않은 TraceSite 를 돌려준다")
+    @Test
+    void maxSites() {
+        TraceSite registered = TraceSite.of("TraceSiteTest.maxSites()");
+        int size = TraceSite.sites().size();
+
+        TraceSite site = TraceSite.of("TraceSiteTest.maxSites(" + size + ")", size);
+
+        assertThat(site.getId()).isZero();
+        assertThat(site.getMessage()).isEqualTo("TraceSiteTest.maxSites(" + size + ")");
+        assertThat(TraceSite.sites()).doesNotContain(site).hasSize(size);
+        assertThat(TraceSite.of("TraceSiteTest.maxSites()", size)).isSameAs(registered); // 이미 등록된 메시지는 그대로
+    }
+
+    @DisplayName("미리 만들어둔 줄 앞부분을 써도 메시지로 만든 로그 줄과 같다")
+    @Test
+    void sameAsMessage() {
+        TraceSite site = TraceSite.of("hello");
+        TraceId traceId = new TraceId();
+        IllegalStateException e = new IllegalStateException("예외 발생!");
+        for (int level = 0; level < 40; level++) {
+            assertThat(TraceLineFormatter.begin(traceId, site))
+                    .isEqualTo(TraceLineFormatter.begin(traceId, "hello"));
+            assertThat(TraceLineFormatter.complete(traceId, site, 3, TracePrecision.MILLIS))
+                    .isEqualTo(TraceLineFormatter.complete(traceId, "hello", 3));
+            assertThat(TraceLineFormatter.exception(traceId, site, 3, TracePrecision.MILLIS, e))
+                    .isEqualTo(TraceLineFormatter.exception(traceId, "hello", 3, e));
+
+            traceId = traceId.createNextId();
+        }
+    }
+
+    /**
+     * 14:02:31.118 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [9a3c51e07d2b4f86] TraceSiteTest.execute()
+     * 14:02:31.119 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [9a3c51e07d2b4f86] TraceSiteTest.execute() time=1ms
+     * 14:02:31.120 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4e07b1c9a62d8f35] TraceSiteTest.execute()
+     * 14:02:31.120 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4e07b1c9a62d8f35] TraceSiteTest.execute() time=0ms ex=java.lang.IllegalStateException: 예외 발생!
+     */
+    @DisplayName("템플릿으로 실행하면 호출 지점별 호출 수와 예외 수가 쌓인다")
+    @Test
+    void execute() {
+        TraceSite site = TraceSite.of("TraceSiteTest.execute()");
+        TraceTemplate template = new TraceTemplate(new ThreadLocalLogTrace());
+
+        template.execute(site, () -> "ok");
+        try {
+            template.execute(site, () -> {
+                throw new IllegalStateException("예외 발생!");
+            });
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertThat(site.getCount()).isEqualTo(2);
+        assertThat(site.getExceptionCount()).isEqualTo(1);
+        assertThat(site.getMaxNanos()).isPositive();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.trace.journal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+import com.example.trace.logtrace.JournalLogTrace;
+
+class TraceJournalTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 04:20:11.120 [4642bcf4e9803c99] hello1
+     * 04:20:11.121 [4642bcf4e9803c99] |-->hello2
+     * 04:20:11.121 [4642bcf4e9803c99] |<X-hello2 time=249us ex=java.lang.IllegalStateException
+     * 04:20:11.121 [4642bcf4e9803c99] hello1 time=917us
+     */
+    @Test
+    @DisplayName("기록한 레코드를 지금의 텍스트 로그 형식으로 되돌린다")
+    void roundTrip() throws IOException {
+        JournalLogTrace trace = new JournalLogTrace(new TraceJournal(directory));
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.end(status1);
+        String traceId = status1.getTraceId().getId();
+        trace.close();
+
+        List<String> lines = decode(TracePrecision.MICROS);
+
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).endsWith("[" + traceId + "] hello1");
+        assertThat(lines.get(1)).endsWith("[" + traceId + "] |-->hello2");
+        assertThat(lines.get(2)).contains("[" + traceId + "] |<X-hello2 time=").endsWith("us ex=java.lang.IllegalStateException");
+        assertThat(lines.get(3)).contains("[" + traceId + "] hello1 time=");
+    }
+
+    @Test
+    @DisplayName("NOOP 이나 null 상태로 끝내면 기록하지 않고 depth 도 그대로 둔다")
+    void ignoreNoopStatus() throws IOException {
+        JournalLogTrace trace = new JournalLogTrace(new TraceJournal(directory));
+        TraceStatus status = trace.begin("hello1");
+        trace.end(TraceStatus.NOOP);
+        trace.exception(null, new IllegalStateException());
+        trace.end(status);
+        trace.close();
+
+        assertThat(decode(TracePrecision.MILLIS)).hasSize(2);
+        assertThat(trace.resetCurrentThread()).isZero();
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 다음 파일로 넘어가고 maxSegments 개만 남긴다")
+    void rotate() throws Exception {
+        TraceJournal journal = new TraceJournal(directory, 48 * 100, 3); // 헤더를 빼면 세그먼트당 99개
+        JournalLogTrace trace = new JournalLogTrace(journal);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 500; i++) {
+                    TraceStatus status1 = trace.begin("hello1");
+                    TraceStatus status2 = trace.begin("hello2");
+                    trace.end(status2);
+                    trace.end(status1);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        trace.close();
+
+        assertThat(segmentCount()).isEqualTo(3);
+        assertThat(journal.getDroppedCount()).isZero();
+        List<String> lines = decode(TracePrecision.MILLIS);
+        assertThat(lines.size()).isBetween(99 * 2 + 1, 99 * 3); // 최근 세그먼트만 남아 있다.
+    }
+
+    @Test
+    @DisplayName("재시작해도 이전 세그먼트를 덮어쓰지 않고 메시지 ID 를 이어서 사용한다")
+    void reopen() throws IOException {
+        JournalLogTrace trace1 = new JournalLogTrace(new TraceJournal(directory));
+        trace1.end(trace1.begin("hello1"));
+        trace1.close();
+        JournalLogTrace trace2 = new JournalLogTrace(new TraceJournal(directory));
+        trace2.end(trace2.begin("hello1"));
+        trace2.close();
+
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(MessageDictionary.read(directory.resolve(JournalFormat.DICTIONARY_FILE))).hasSize(1);
+        assertThat(decode(TracePrecision.MILLIS)).hasSize(4);
+    }
+
+    @Test
+    void escape() {
+        String value = "a\tb\nc\\d";
+
+        assertThat(JournalFormat.unescape(JournalFormat.escape(value))).isEqualTo(value);
+        assertThat(JournalFormat.escape(value)).doesNotContain("\t", "\n");
+    }
+
+    private List<String> decode(TracePrecision precision) throws IOException {
+        List<String> lines = new ArrayList<>();
+        new TraceJournalDecoder(directory, precision).decodeAll(directory, lines::add);
+        return lines;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> JournalFormat.segmentIndex(file.getFileName().toString()) >= 0).count();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.TraceStatus;
+import com.example.trace.propagation.TraceContextPropagator;
+
+class SamplingLogTraceTest {
+
+    RecordingLogTrace target = new RecordingLogTrace();
+
+    @Test
+    @DisplayName("rate=1.0 이면 모든 트레이스를 그대로 넘긴다")
+    void sampled() {
+        SamplingLogTrace trace = new SamplingLogTrace(target, 1.0);
+
+        request(trace);
+
+        assertThat(target.calls).containsExactly("begin hello1", "begin hello2", "end hello2", "end hello1");
+        assertThat(trace.getSampledCount()).isEqualTo(1);
+        assertThat(trace.getUnsampledCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("rate=0.0 이면 하위 span 까지 모두 NOOP 이 된다")
+    void unsampled() {
+        SamplingLogTrace trace = new SamplingLogTrace(target, 0.0);
+
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+
+        assertThat(status1).isSameAs(TraceStatus.NOOP);
+        assertThat(status2).isSameAs(TraceStatus.NOOP);
+        assertThat(target.calls).isEmpty();
+        assertThat(trace.getUnsampledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("root 메시지별 비율이 기본 비율보다 우선한다")
+    void rateByRootMessage() {
+        SamplingLogTrace trace = new SamplingLogTrace(target, 0.0);
+        trace.setRate("hello1", 1.0);
+
+        request(trace);
+        TraceStatus status = trace.begin("other");
+        trace.end(status);
+
+        assertThat(target.calls).containsExactly("begin hello1", "begin hello2", "end hello2", "end hello1");
+        assertThat(trace.getSampledCount()).isEqualTo(1);
+        assertThat(trace.getUnsampledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("샘플링 여부는 트레이스가 끝나면 다음 root 에서 다시 정한다")
+    void decideAgainAfterRootEnds() {
+        SamplingLogTrace trace = new SamplingLogTrace(target, 0.0);
+        request(trace);
+
+        trace.setRate("hello1", 1.0);
+        request(trace);
+
+        assertThat(target.calls).hasSize(4);
+    }
+
+    @Test
+    void invalidRate() {
+        assertThatThrownBy(() -> new SamplingLogTrace(target, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("end/exception 으로 넘긴 TraceStatus 는 다시 사용하지 않는다")
+    void neverReusesStatusAfterEnd() {
+        PooledLogTrace pooled = new PooledLogTrace();
+        SamplingLogTrace trace = new SamplingLogTrace(pooled, 1.0);
+
+        for (int i = 0; i < 3; i++) {
+            TraceStatus status1 = trace.begin("hello1");
+            TraceStatus status2 = trace.begin("hello2");
+            trace.exception(status2, new IllegalStateException());
+            TraceStatus status3 = trace.begin("hello3"); // status2 와 같은 객체를 재사용한다.
+            assertThat(status3).isSameAs(status2);
+            trace.end(status3);
+            trace.end(status1);
+        }
+
+        assertThat(pooled.calls).hasSize(18);
+        assertThat(pooled.violations).isEmpty();
+    }
+
+    @Test
+    @DisplayName("샘플링한 트레이스는 작업 쓰레드로 이어지고, 빠진 트레이스는 작업 쓰레드에서도 기록하지 않는다")
+    void propagation() throws Exception {
+        ThreadLocalLogTrace threadLocal = new ThreadLocalLogTrace();
+        SamplingLogTrace trace = new SamplingLogTrace(threadLocal, 0.0);
+        trace.setRate("sampled", 1.0);
+        assertThat(trace).isInstanceOf(TraceContextPropagator.class); // traceparent, 쓰레드 풀 전달이 켜진다.
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            TraceStatus root = trace.begin("sampled");
+            TraceStatus child = executor.submit(trace.wrap(() -> trace.begin("child"))).get();
+            trace.end(root);
+            assertThat(child.getTraceId().getId()).isEqualTo(root.getTraceId().getId());
+            assertThat(child.getTraceId().getLevel()).isEqualTo(1);
+
+            root = trace.begin("unsampled");
+            assertThat(trace.capture().isSampled()).isFalse();
+            child = executor.submit(trace.wrap(() -> trace.begin("child"))).get();
+            trace.end(root);
+            assertThat(child).isSameAs(TraceStatus.NOOP);
+            assertThat(trace.getSampledCount()).isEqualTo(1); // 작업 쓰레드에서 root 를 다시 정하지 않는다.
+            assertThat(trace.getUnsampledCount()).isEqualTo(1);
+
+            assertThat(executor.submit(trace::capture).get()).isNull(); // 작업이 끝나면 쓰레드에 남지 않는다.
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void request(LogTrace trace) {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public TraceStatus begin(String message) {
+            calls.add("begin " + message);
+            return new TraceStatus(null, 0L, message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            calls.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            calls.add("exception " + status.getMessage());
+        }
+    }
+
+    /**
+     * {@link com.example.trace.TraceContext} 처럼 depth 마다 TraceStatus 하나를 재사용한다.
+     * 이미 끝난 TraceStatus 로 다시 호출되면 violations 에 기록한다.
+     */
+    static class PooledLogTrace extends RecordingLogTrace {
+
+        final List<String> violations = new ArrayList<>();
+        private final List<PooledStatus> pool = new ArrayList<>();
+        private int depth = -1;
+
+        @Override
+        public TraceStatus begin(String message) {
+            super.begin(message);
+            depth++;
+            if (depth == pool.size()) {
+                pool.add(new PooledStatus());
+            }
+            PooledStatus status = pool.get(depth);
+            status.message = message;
+            status.active = true;
+            return status;
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            check(status);
+            super.end(status);
+            release(status);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            check(status);
+            super.exception(status, e);
+            release(status);
+        }
+
+        private void check(TraceStatus status) {
+            if (!((PooledStatus) status).active) {
+                violations.add(status.getMessage());
+            }
+        }
+
+        private void release(TraceStatus status) {
+            ((PooledStatus) status).active = false;
+            depth--;
+        }
+    }
+
+    static class PooledStatus extends TraceStatus {
+
+        private String message;
+        private boolean active;
+
+        PooledStatus() {
+            super(null, 0L, null);
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+    }
+}
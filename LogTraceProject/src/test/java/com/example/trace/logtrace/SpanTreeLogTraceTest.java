@@ -0,0 +1,59 @@
+package com.example.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.SpanBuffer;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+
+class SpanTreeLogTraceTest {
+
+    SpanTreeLogTrace trace = new SpanTreeLogTrace();
+
+    /**
+     * 03:31:02.415 [Test worker] INFO com.example.trace.logtrace.SpanTreeLogTrace - {"traceId":"1c9e7b20d4a5f3e8","unit":"ms","spans":[{"depth":0,"message":"hello1","start":1690000262411,"time":3},{"depth":1,"message":"hello2","start":1690000262413,"time":0},{"depth":2,"message":"hello3","start":1690000262413,"time":0}]}
+     */
+    @Test
+    void begin_end_level3() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        TraceStatus status3 = trace.begin("hello3");
+        trace.end(status3);
+        trace.end(status2);
+        trace.end(status1);
+    }
+
+    /**
+     * 03:31:40.022 [Test worker] INFO com.example.trace.logtrace.SpanTreeLogTrace - {"traceId":"8d02f6c1a7e94b35","unit":"ms","spans":[{"depth":0,"message":"hello1","start":1690000300020,"time":1,"ex":"java.lang.IllegalStateException"},{"depth":1,"message":"hello2","start":1690000300021,"time":0,"ex":"java.lang.IllegalStateException"}]}
+     */
+    @Test
+    void begin_exception_level2() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+    }
+
+    @Test
+    @DisplayName("루프 안에서 호출돼도 기본 maxSpans 까지만 기록한다")
+    void truncateByDefault() {
+        TraceStatus root = trace.begin("hello1");
+        for (int i = 0; i < SpanBuffer.DEFAULT_MAX_SPANS + 10; i++) {
+            TraceStatus status = trace.begin("hello2");
+            trace.end(status);
+        }
+        trace.end(root);
+
+        assertThat(trace.getTruncatedTraceCount()).isEqualTo(1);
+        assertThat(trace.getTruncatedSpanCount()).isEqualTo(11); // root 가 한 자리를 차지한다.
+    }
+
+    @Test
+    void invalidMaxSpans() {
+        assertThatThrownBy(() -> new SpanTreeLogTrace(TracePrecision.MILLIS, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
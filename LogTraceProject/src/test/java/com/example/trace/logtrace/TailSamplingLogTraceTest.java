@@ -0,0 +1,91 @@
+package com.example.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+
+class TailSamplingLogTraceTest {
+
+    /**
+     * 예외가 없고 빠른 요청은 남기지 않는다.
+     */
+    @Test
+    @DisplayName("정상 요청은 버린다")
+    void discardFastTrace() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1000, 0.0);
+
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+
+        assertThat(trace.getKeptCount()).isZero();
+        assertThat(trace.getDiscardedCount()).isEqualTo(1);
+    }
+
+    /**
+     * 03:42:10.118 [Test worker] INFO com.example.trace.logtrace.SpanTreeLogTrace - {"traceId":"5e0c7f91a2b3d846","unit":"ms","spans":[{"depth":0,"message":"hello1","start":1690000930117,"time":0},{"depth":1,"message":"hello2","start":1690000930117,"time":0,"ex":"java.lang.IllegalStateException"}]}
+     */
+    @Test
+    @DisplayName("하위 span 에서 예외가 발생했으면 root 가 정상 종료해도 남긴다")
+    void keepFailedTrace() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1000, 0.0);
+
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.end(status1);
+
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+
+        TraceStatus status3 = trace.begin("hello1"); // 다음 트레이스에는 실패 여부가 넘어가지 않는다.
+        trace.end(status3);
+        assertThat(trace.getDiscardedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("root 메시지별 임계값을 넘은 요청은 남긴다")
+    void keepSlowTrace() throws InterruptedException {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1000, 0.0);
+        trace.setThreshold("slow", 0);
+
+        TraceStatus status1 = trace.begin("slow");
+        trace.end(status1);
+        TraceStatus status2 = trace.begin("fast");
+        trace.end(status2);
+
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+        assertThat(trace.getDiscardedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("baselineRate=1.0 이면 정상 요청도 모두 남긴다")
+    void baseline() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1000, 1.0);
+
+        TraceStatus status = trace.begin("hello1");
+        trace.end(status);
+
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("maxSpans 를 넘은 span 은 기록하지 않고 개수만 센다")
+    void truncate() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1000, 1.0, 2, TracePrecision.MILLIS);
+
+        TraceStatus root = trace.begin("hello1");
+        for (int i = 0; i < 5; i++) {
+            TraceStatus status = trace.begin("hello2");
+            trace.end(status);
+        }
+        trace.end(root);
+
+        assertThat(trace.getTruncatedTraceCount()).isEqualTo(1);
+        assertThat(trace.getTruncatedSpanCount()).isEqualTo(4);
+    }
+}
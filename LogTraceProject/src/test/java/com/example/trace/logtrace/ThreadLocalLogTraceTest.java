@@ -1,8 +1,20 @@
 package com.example.trace.logtrace;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 
+import com.example.trace.TracePrecision;
 import com.example.trace.TraceStatus;
+import com.example.trace.TraceSwitch;
+import com.example.trace.metrics.LatencyRegistry;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 
 class ThreadLocalLogTraceTest {
 
@@ -35,4 +47,125 @@ class ThreadLocalLogTraceTest {
         trace.exception(status2, new IllegalStateException());
         trace.exception(status1, new IllegalStateException());
     }
+
+    /**
+     * 03:20:15.120 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4f1c0d2a9b3e7c61] hello1
+     * 03:20:15.121 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4f1c0d2a9b3e7c61] |-->hello2
+     * 03:20:15.121 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4f1c0d2a9b3e7c61] |<--hello2 time=38us
+     * 03:20:15.121 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [4f1c0d2a9b3e7c61] hello1 time=652us
+     */
+    @Test
+    void begin_end_level2_micros() {
+        ThreadLocalLogTrace microsTrace = new ThreadLocalLogTrace(TracePrecision.MICROS);
+        TraceStatus status1 = microsTrace.begin("hello1");
+        TraceStatus status2 = microsTrace.begin("hello2");
+        microsTrace.end(status2);
+        microsTrace.end(status1);
+    }
+
+    @DisplayName("span 이 끝날 때마다 listener 로 걸린 시간이 전달된다")
+    @Test
+    void listener() {
+        LatencyRegistry registry = new LatencyRegistry();
+        ThreadLocalLogTrace listenedTrace = new ThreadLocalLogTrace(TracePrecision.MILLIS, registry);
+
+        TraceStatus status1 = listenedTrace.begin("hello1");
+        TraceStatus status2 = listenedTrace.begin("hello2");
+        listenedTrace.exception(status2, new IllegalStateException());
+        listenedTrace.end(status1);
+
+        assertThat(registry.snapshot()).containsOnlyKeys("hello1", "hello2");
+        assertThat(registry.snapshot().get("hello1").getCount()).isEqualTo(1);
+    }
+
+    @DisplayName("로그 출력이 꺼져 있으면 중첩된 begin/end 에서 할당하는 바이트가 0 이다")
+    @Test
+    void nested_begin_end_allocates_nothing() {
+        Logger logger = (Logger) LoggerFactory.getLogger(ThreadLocalLogTrace.class);
+        Level level = logger.getLevel();
+        logger.setLevel(Level.WARN);
+        try {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            int iterations = 100_000;
+
+            TraceStatus root = trace.begin("root");
+            beginEnd(iterations); // warm up (depth 별 TraceStatus 준비 + JIT)
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            beginEnd(iterations);
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            trace.end(root);
+
+            assertThat(allocated / iterations).isZero(); // 측정 자체에서 생기는 수십 바이트는 무시한다.
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    @DisplayName("꺼져 있으면 로그를 남길 때도 begin/end 에서 할당하는 바이트가 0 이다")
+    @Test
+    void disabled_allocates_nothing() {
+        TraceSwitch traceSwitch = new TraceSwitch(false);
+        ThreadLocalLogTrace disabledTrace = new ThreadLocalLogTrace(TracePrecision.MILLIS, traceSwitch);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int iterations = 100_000;
+
+        beginEnd(disabledTrace, iterations); // warm up (JIT)
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        beginEnd(disabledTrace, iterations);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated / iterations).isZero();
+        assertThat(disabledTrace.begin("hello")).isSameAs(TraceStatus.NOOP);
+    }
+
+    @DisplayName("end 이후의 TraceStatus 는 같은 depth 에서 다음에 시작한 span 이 재사용한다")
+    @Test
+    void status_is_reused_after_end() {
+        TraceStatus first = trace.begin("hello1");
+        trace.end(first);
+        TraceStatus second = trace.begin("hello2");
+
+        assertThat(second).isSameAs(first); // 보관해둔 first 는 이제 hello2 를 가리킨다.
+        assertThat(first.getMessage()).isEqualTo("hello2");
+        trace.end(second);
+    }
+
+    @DisplayName("span 도중에 껐다 켜도 depth 가 어긋나지 않는다")
+    @Test
+    void toggle_while_running() {
+        TraceSwitch traceSwitch = new TraceSwitch();
+        ThreadLocalLogTrace toggledTrace = new ThreadLocalLogTrace(TracePrecision.MILLIS, traceSwitch);
+
+        TraceStatus root = toggledTrace.begin("root"); // 켜진 상태에서 시작
+        traceSwitch.setEnabled(false);
+        TraceStatus child = toggledTrace.begin("child");
+        assertThat(child).isSameAs(TraceStatus.NOOP);
+        toggledTrace.end(child);
+        assertThat(toggledTrace.capture().getLevel()).isZero();
+        toggledTrace.end(root);
+        assertThat(toggledTrace.capture()).isNull();
+
+        root = toggledTrace.begin("root"); // 꺼진 상태에서 시작
+        traceSwitch.setEnabled(true);
+        child = toggledTrace.begin("child");
+        assertThat(child.getTraceId().isFirstLevel()).isTrue();
+        toggledTrace.exception(child, new IllegalStateException());
+        toggledTrace.end(root);
+        assertThat(toggledTrace.capture()).isNull();
+    }
+
+    private void beginEnd(int iterations) {
+        beginEnd(trace, iterations);
+    }
+
+    private static void beginEnd(ThreadLocalLogTrace trace, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            TraceStatus status1 = trace.begin("hello1");
+            TraceStatus status2 = trace.begin("hello2");
+            trace.end(status2);
+            trace.end(status1);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.example.trace.metrics;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("백분위수는 상대 오차 약 3% 이내")
+    void percentile() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L); // 1ms ~ 1000ms
+        }
+
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getP50()).isCloseTo(500_000_000L, withinPercentage(3));
+        assertThat(snapshot.getP90()).isCloseTo(900_000_000L, withinPercentage(3));
+        assertThat(snapshot.getP99()).isCloseTo(990_000_000L, withinPercentage(3));
+        assertThat(snapshot.getMax()).isEqualTo(1_000_000_000L);
+    }
+
+    @Test
+    void bucketIndex() {
+        assertThat(LatencyHistogram.bucketIndex(0)).isEqualTo(0);
+        assertThat(LatencyHistogram.bucketIndex(31)).isEqualTo(31);
+        assertThat(LatencyHistogram.bucketIndex(64)).isEqualTo(LatencyHistogram.bucketIndex(65)); // 64 ~ 127 구간은 폭 2
+        assertThat(LatencyHistogram.bucketIndex((1L << 40) - 1)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+
+        for (long value : new long[] { 100, 1_000, 123_456_789L }) {
+            assertThat(LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value))).isGreaterThanOrEqualTo(value);
+        }
+    }
+
+    @Test
+    void empty() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getP99()).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 동시에 기록해도 개수가 빠지지 않는다")
+    void concurrentRecord() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(histogram.snapshot().getCount()).isEqualTo(80_000);
+    }
+
+    @Test
+    @DisplayName("기본 설정의 최대 메모리는 메시지당 stripe 1개, 약 9KB 이다")
+    void footprint() {
+        assertThat(LatencyHistogram.footprintBytes(1)).isEqualTo((LatencyHistogram.BUCKET_COUNT + 1) * 8L).isLessThan(10_000);
+        assertThat(new LatencyRegistry().getMaxFootprintBytes())
+                .isEqualTo(LatencyRegistry.DEFAULT_MAX_MESSAGES * LatencyHistogram.footprintBytes(1))
+                .isLessThan(3_000_000);
+    }
+
+    @Test
+    @DisplayName("메시지 종류가 maxMessages 를 넘으면 버린다")
+    void registryLimit() {
+        LatencyRegistry registry = new LatencyRegistry(2);
+        registry.record("hello1", 1);
+        registry.record("hello2", 1);
+        registry.record("hello3", 1);
+        registry.record("hello1", 2);
+
+        assertThat(registry.snapshot()).containsOnlyKeys("hello1", "hello2");
+        assertThat(registry.snapshot().get("hello1").getCount()).isEqualTo(2);
+        assertThat(registry.getRejectedCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.trace.propagation;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.TraceContext;
+import com.example.trace.TraceId;
+import com.example.trace.TraceListener;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+import com.example.trace.TraceSwitch;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+
+class TraceContextPropagatorTest {
+
+    ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+    ExecutorService executor = new TracingExecutorService(Executors.newSingleThreadExecutor(), trace);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 03:51:20.301 [main] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [2b7d0e4f9a1c3e58] OrderControllerV5.request()
+     * 03:51:20.305 [pool-1-thread-1] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [2b7d0e4f9a1c3e58] |-->OrderServiceV5.orderItem()
+     * 03:51:20.305 [pool-1-thread-1] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [2b7d0e4f9a1c3e58] |<--OrderServiceV5.orderItem() time=0ms
+     * 03:51:20.306 [main] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [2b7d0e4f9a1c3e58] OrderControllerV5.request() time=5ms
+     */
+    @Test
+    @DisplayName("다른 쓰레드에서 시작한 span 이 제출한 span 의 하위 depth 로 기록된다")
+    void executorService() throws Exception {
+        TraceStatus root = trace.begin("OrderControllerV5.request()");
+        TraceId child = executor.submit(() -> beginEnd("OrderServiceV5.orderItem()")).get();
+        trace.end(root);
+
+        assertThat(child.getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(child.getLevel()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("작업이 끝나면 쓰레드 풀의 쓰레드에 트레이스가 남지 않는다")
+    void noLeakIntoPooledThread() throws Exception {
+        TraceStatus root = trace.begin("hello1");
+        executor.submit(() -> {
+            trace.begin("hello2"); // end 를 빼먹어도
+        }).get();
+        trace.end(root);
+
+        assertThat(executor.submit(trace::capture).get()).isNull();
+        TraceId next = executor.submit(() -> beginEnd("hello3")).get();
+        assertThat(next.getLevel()).isZero();
+    }
+
+    @Test
+    void completableFuture() throws Exception {
+        TraceStatus root = trace.begin("hello1");
+        TraceId child = CompletableFuture.supplyAsync(trace.wrapSupplier(() -> beginEnd("hello2"))).get();
+        trace.end(root);
+
+        assertThat(child.getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(child.getLevel()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("제출한 쓰레드에서 바로 실행돼도 진행 중인 트레이스가 그대로 유지된다")
+    void callerRuns() {
+        TraceStatus root = trace.begin("hello1");
+        trace.wrap(() -> {
+            beginEnd("hello2");
+        }).run();
+
+        assertThat(trace.capture().getLevel()).isZero();
+        trace.end(root);
+        assertThat(trace.capture()).isNull();
+    }
+
+    @Test
+    @DisplayName("제출한 쓰레드에서 바로 실행될 때 만든 컨텍스트와 돌아온 원래 컨텍스트가 listener 에 전달된다")
+    void callerRunsNotifiesListener() {
+        List<TraceContext> contexts = new ArrayList<>();
+        TraceListener listener = new TraceListener() {
+            @Override
+            public void onComplete(TraceStatus status, long durationNanos, Exception e) {
+            }
+
+            @Override
+            public void onContextCreated(Thread thread, TraceContext context) {
+                contexts.add(context);
+            }
+        };
+        trace = new ThreadLocalLogTrace(TracePrecision.MILLIS, new TraceSwitch(), listener);
+
+        TraceStatus root = trace.begin("hello1");
+        trace.wrap(() -> {
+            assertThat(trace.capture().getMessage(0)).isEqualTo("hello1");
+            beginEnd("hello2");
+        }).run();
+        trace.end(root);
+
+        assertThat(contexts).hasSize(3); // 처음 만든 컨텍스트, 바로 실행할 때 만든 컨텍스트, 돌아온 원래 컨텍스트
+        assertThat(contexts.get(2)).isSameAs(contexts.get(0)).isNotSameAs(contexts.get(1));
+    }
+
+    private TraceId beginEnd(String message) {
+        TraceStatus status = trace.begin(message);
+        TraceId traceId = status.getTraceId().createNextId().createPreviousId(); // 재사용되는 TraceId 대신 복사본
+        trace.end(status);
+        return traceId;
+    }
+}
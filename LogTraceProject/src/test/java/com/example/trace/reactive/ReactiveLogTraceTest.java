@@ -0,0 +1,93 @@
+package com.example.trace.reactive;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.app.v6.OrderRepositoryV6;
+import com.example.app.v6.OrderServiceV6;
+import com.example.trace.TraceId;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReactiveLogTraceTest {
+
+    ReactiveLogTrace trace = new ReactiveLogTrace();
+
+    /**
+     * 04:12:30.101 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [9f2c4e6a8b1d3057] hello1
+     * 04:12:30.102 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [9f2c4e6a8b1d3057] |-->hello2
+     * 04:12:30.215 [parallel-1] INFO com.example.trace.reactive.ReactiveLogTrace - [9f2c4e6a8b1d3057] |<--hello2 time=113ms
+     * 04:12:30.215 [parallel-1] INFO com.example.trace.reactive.ReactiveLogTrace - [9f2c4e6a8b1d3057] hello1 time=114ms
+     */
+    @Test
+    @DisplayName("쓰레드가 바뀌어도 하위 Mono 는 다음 depth 로 기록된다")
+    void nested() {
+        Mono<TraceId> inner = Mono.delay(Duration.ofMillis(100))
+                .then(ReactiveLogTrace.currentTraceId());
+        Mono<TraceId> mono = trace.mono("hello1", trace.mono("hello2", inner));
+
+        StepVerifier.create(mono)
+                .assertNext(traceId -> assertThat(traceId.getLevel()).isEqualTo(1))
+                .verifyComplete();
+        assertThat(trace.getInFlight()).isZero();
+    }
+
+    /**
+     * 04:12:45.330 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [1d8e3b7f0a2c5946] hello1
+     * 04:12:45.331 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [1d8e3b7f0a2c5946] |-->hello2
+     * 04:12:45.331 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [1d8e3b7f0a2c5946] |<X-hello2 time=0ms ex=java.lang.IllegalStateException: 예외 발생!
+     * 04:12:45.332 [Test worker] INFO com.example.trace.reactive.ReactiveLogTrace - [1d8e3b7f0a2c5946] hello1 time=1ms ex=java.lang.IllegalStateException: 예외 발생!
+     */
+    @Test
+    void error() {
+        Mono<Object> mono = trace.mono("hello1", trace.mono("hello2", Mono.error(new IllegalStateException("예외 발생!"))));
+
+        StepVerifier.create(mono)
+                .verifyError(IllegalStateException.class);
+        assertThat(trace.getInFlight()).isZero();
+    }
+
+    @Test
+    void flux() {
+        StepVerifier.create(trace.flux("hello1", Flux.range(1, 3)))
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+        assertThat(ReactiveLogTrace.currentTraceId().block()).isNull(); // 트레이스 밖에서는 비어있다.
+    }
+
+    @Test
+    @DisplayName("값을 받은 뒤 하위에서 cancel 해도 한 번만 끝난다")
+    void cancelAfterSuccess() {
+        // next() 는 값을 받자마자 상위를 cancel 한다.
+        StepVerifier.create(trace.mono("hello1", Mono.just(1)).flux().next())
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(Mono.zip(trace.mono("hello2", Mono.just(1)), Mono.just(2)))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertThat(trace.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("1초 걸리는 주문 2000개를 쓰레드를 붙잡지 않고 동시에 진행한다")
+    void concurrentOrders() {
+        OrderServiceV6 orderService = new OrderServiceV6(new OrderRepositoryV6(trace), trace);
+        int orders = 2000;
+
+        Long completed = Flux.range(0, orders)
+                .flatMap(i -> orderService.orderItem("item" + i).thenReturn(i), orders)
+                .count()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(completed).isEqualTo(orders);
+        // 블로킹 구현이면 쓰레드 수만큼만 동시에 진행된다. 부하가 걸린 환경을 고려해서 일부만 겹쳐도 통과시킨다.
+        assertThat(trace.getMaxInFlight()).isGreaterThan(orders / 4);
+        assertThat(trace.getInFlight()).isZero();
+    }
+}
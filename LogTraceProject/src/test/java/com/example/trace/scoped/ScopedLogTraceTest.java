@@ -0,0 +1,112 @@
+package com.example.trace.scoped;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.TraceId;
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+import com.example.trace.callback.TraceTemplate;
+import com.example.trace.logtrace.SamplingLogTrace;
+
+class ScopedLogTraceTest {
+
+    ThreadLocalScopeCarrier carrier = new ThreadLocalScopeCarrier();
+    ScopedLogTrace trace = new ScopedLogTrace(carrier, TracePrecision.MILLIS);
+
+    /**
+     * 04:02:11.530 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] hello1
+     * 04:02:11.531 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] |-->hello2
+     * 04:02:11.531 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] |   |-->hello3
+     * 04:02:11.531 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] |   |<--hello3 time=0ms
+     * 04:02:11.532 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] |<--hello2 time=1ms
+     * 04:02:11.532 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [6a3f9e1c0b7d2458] hello1 time=2ms
+     */
+    @Test
+    @DisplayName("execute 안에서 시작한 span 은 다음 depth 가 된다")
+    void execute_level3() {
+        TraceId leaf = trace.execute("hello1", () ->
+                trace.execute("hello2", () -> {
+                    TraceStatus status = trace.begin("hello3"); // leaf span 은 begin/end 로도 기록할 수 있다.
+                    trace.end(status);
+                    return status.getTraceId();
+                }));
+
+        assertThat(leaf.getLevel()).isEqualTo(2);
+        assertThat(carrier.current()).isNull(); // scope 가 끝나면 아무것도 남지 않는다.
+    }
+
+    /**
+     * 04:02:40.017 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [c81e2b5d7f09a346] hello1
+     * 04:02:40.017 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [c81e2b5d7f09a346] |-->hello2
+     * 04:02:40.018 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [c81e2b5d7f09a346] |<X-hello2 time=0ms ex=java.lang.IllegalStateException: 예외 발생!
+     * 04:02:40.018 [Test worker] INFO com.example.trace.scoped.ScopedLogTrace - [c81e2b5d7f09a346] hello1 time=1ms ex=java.lang.IllegalStateException: 예외 발생!
+     */
+    @Test
+    void execute_exception() {
+        assertThatThrownBy(() -> trace.execute("hello1", () ->
+                trace.execute("hello2", () -> {
+                    throw new IllegalStateException("예외 발생!");
+                })))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(carrier.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("end 가 실패해도 같은 span 을 exception 으로 다시 끝내지 않는다")
+    void endFails() {
+        int[] exceptions = new int[1];
+        ScopedLogTrace failingEnd = new ScopedLogTrace(carrier, TracePrecision.MILLIS) {
+            @Override
+            public void end(TraceStatus status) {
+                throw new IllegalStateException("end 실패");
+            }
+
+            @Override
+            public void exception(TraceStatus status, Exception e) {
+                exceptions[0]++;
+                super.exception(status, e);
+            }
+        };
+
+        assertThatThrownBy(() -> failingEnd.execute("hello1", () -> "ok"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(exceptions[0]).isZero();
+    }
+
+    @Test
+    @DisplayName("TraceTemplate 에 넘겨도 scope 안에서 callback 이 실행된다")
+    void template() {
+        TraceTemplate template = new TraceTemplate(trace);
+
+        Integer level = template.execute("hello1", () ->
+                template.execute("hello2", () -> carrier.current().getLevel()));
+
+        assertThat(level).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("SamplingLogTrace 로 감싸도 TraceTemplate 의 callback 이 scope 안에서 실행된다")
+    void templateWithDecorator() {
+        TraceTemplate template = new TraceTemplate(new SamplingLogTrace(trace, 1.0));
+
+        Integer level = template.execute("hello1", () ->
+                template.execute("hello2", () -> carrier.current().getLevel()));
+
+        assertThat(level).isEqualTo(1);
+        assertThat(carrier.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("다음 root 는 새로운 트랜잭션 ID 로 시작한다")
+    void newRoot() {
+        TraceId first = trace.execute("hello1", carrier::current);
+        TraceId second = trace.execute("hello1", carrier::current);
+
+        assertThat(first.isFirstLevel()).isTrue();
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.trace.slow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.trace.TracePrecision;
+import com.example.trace.TraceStatus;
+import com.example.trace.TraceSwitch;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+import com.example.trace.propagation.TracingExecutorService;
+
+class SlowCallDetectorTest {
+
+    /**
+     * 15:20:41.902 [Test worker] WARN com.example.trace.slow.SlowCallDetector - slow call: [2c9e71d04a8f3b65] repository time=120ms threshold=50ms path=[controller, service, repository]
+     */
+    @DisplayName("메시지별 임계값을 넘긴 span 만 상위 span 경로와 함께 남긴다")
+    @Test
+    void path() {
+        SlowCallDetector detector = new SlowCallDetector(10_000);
+        detector.setThreshold("repository", 50);
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace(TracePrecision.MILLIS, new TraceSwitch(), detector);
+
+        TraceStatus controller = trace.begin("controller");
+        TraceStatus service = trace.begin("service");
+        TraceStatus repository = trace.begin("repository");
+        sleep(120);
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+
+        assertThat(detector.getSlowCount()).isEqualTo(1);
+        SlowCall slowCall = detector.getEvents().get(0);
+        assertThat(slowCall.getPath()).containsExactly("controller", "service", "repository");
+        assertThat(slowCall.hasStack()).isFalse();
+    }
+
+    @DisplayName("쓰레드 풀에서 실행된 느린 호출도 제출한 쓰레드의 상위 span 경로를 남긴다")
+    @Test
+    void pathAcrossThreads() throws Exception {
+        SlowCallDetector detector = new SlowCallDetector(10_000);
+        detector.setThreshold("repository", 50);
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace(TracePrecision.MILLIS, new TraceSwitch(), detector);
+        ExecutorService executor = new TracingExecutorService(Executors.newSingleThreadExecutor(), trace);
+        try {
+            TraceStatus controller = trace.begin("controller");
+            TraceStatus service = trace.begin("service");
+            executor.submit(() -> {
+                TraceStatus repository = trace.begin("repository");
+                sleep(120);
+                trace.end(repository);
+            }).get();
+            trace.end(service);
+            trace.end(controller);
+
+            assertThat(detector.getEvents()).hasSize(1);
+            assertThat(detector.getEvents().get(0).getPath()).containsExactly("controller", "service", "repository");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @DisplayName("샘플러를 켜면 진행 중일 때 잡아둔 스택이 함께 남는다")
+    @Test
+    void stack() throws InterruptedException {
+        SlowCallDetector detector = new SlowCallDetector(50, 10, 10);
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace(TracePrecision.MILLIS, new TraceSwitch(), detector);
+        try {
+            TraceStatus status = trace.begin("slow");
+            sleep(200);
+            trace.end(status);
+            trace.end(trace.begin("fast"));
+
+            assertThat(detector.getEvents()).hasSize(1);
+            SlowCall slowCall = detector.getEvents().get(0);
+            assertThat(slowCall.hasStack()).isTrue();
+            assertThat(slowCall.getStack()).anyMatch(element -> element.getMethodName().equals("sleep"));
+        } finally {
+            detector.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.trace.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.trace.TraceStatus;
+import com.example.trace.callback.TraceTemplate;
+import com.example.trace.logtrace.LogTrace;
+import com.example.trace.logtrace.ThreadLocalLogTrace;
+
+class TraceLeakFilterTest {
+
+    ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+    TraceLeakFilter filter = new TraceLeakFilter(trace);
+
+    /**
+     * 10:12:40.301 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [5b0e2f91c4a7d368] leaked
+     * 10:12:40.302 [Test worker] INFO com.example.trace.logtrace.ThreadLocalLogTrace - [5b0e2f91c4a7d368] |-->leaked-child
+     * 10:12:40.305 [Test worker] WARN com.example.trace.web.TraceLeakFilter - trace state leaked: uri=/v5/request, unfinishedSpans=2 (reset)
+     */
+    @DisplayName("요청이 끝났을 때 남아있는 span 을 세고 비운다")
+    @Test
+    void leak() throws Exception {
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                trace.begin("leaked");
+                trace.begin("leaked-child"); // end 를 호출하지 않는다.
+            }
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/v5/request"), new MockHttpServletResponse(), chain);
+
+        assertThat(filter.getLeakCount()).isEqualTo(1);
+        assertThat(filter.getLeakedSpanCount()).isEqualTo(2);
+        assertThat(filter.getLastLeakUri()).isEqualTo("/v5/request");
+        assertThat(trace.capture()).isNull();
+
+        TraceStatus next = trace.begin("next"); // 다음 요청은 새로운 트랜잭션 ID, level 0 으로 시작한다.
+        assertThat(next.getTraceId().isFirstLevel()).isTrue();
+        trace.end(next);
+    }
+
+    @DisplayName("정상적으로 끝난 요청은 누수로 세지 않는다")
+    @Test
+    void noLeak() throws Exception {
+        TraceTemplate template = new TraceTemplate(trace);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                template.execute("ok", () -> null);
+            }
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/v5/request"), new MockHttpServletResponse(), chain);
+
+        assertThat(filter.getCheckedCount()).isEqualTo(1);
+        assertThat(filter.getLeakCount()).isZero();
+    }
+
+    @DisplayName("begin 자체가 실패해도 원래 예외가 그대로 전달된다")
+    @Test
+    void beginFailure() {
+        LogTrace failing = new LogTrace() {
+            @Override
+            public TraceStatus begin(String message) {
+                throw new IllegalStateException("begin 실패");
+            }
+
+            @Override
+            public void end(TraceStatus status) {
+            }
+
+            @Override
+            public void exception(TraceStatus status, Exception e) {
+                throw new AssertionError("끝낼 span 이 없다");
+            }
+        };
+
+        assertThatThrownBy(() -> new TraceTemplate(failing).execute("hello", () -> "ok"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("begin 실패");
+    }
+}
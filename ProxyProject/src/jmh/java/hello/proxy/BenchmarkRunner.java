@@ -0,0 +1,34 @@
+package hello.proxy;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 같은 벤치마크를 쓰레드 1/4/16 개로 각각 실행하고, 쓰레드 수마다 JSON 결과 파일을 남긴다. (처리량 + -prof gc 할당량) <br/>
+ * ./gradlew jmhThreads -PjmhInclude=ProxyStrategyBenchmark
+ * => build/results/jmh/results-1t.json, results-4t.json, results-16t.json
+ */
+public class BenchmarkRunner {
+
+    private static final int[] THREADS = { 1, 4, 16 };
+
+    public static void main(String[] args) throws RunnerException {
+        final String include = args.length > 0 ? args[0] : ".*";
+        final String resultDir = args.length > 1 ? args[1] : "build/results/jmh";
+
+        for (int threads : THREADS) {
+            final Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir + "/results-" + threads + "t.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hello.proxy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.config.engine.FusedProxyFactory;
+
+/**
+ * advisor 가 여러 개인 프록시에서 ProxyFactory 의 기본 체인(ReflectiveMethodInvocation)과 {@link FusedProxyFactory} 비교 <br/>
+ * OrderControllerV1.request() 호출 한번의 지연 시간(ns/op)과 -prof gc 의 op 당 할당량(gc.alloc.rate.norm)을 본다.
+ * - advisors: 프록시 하나에 적용한 advisor 수 (아무것도 하지 않고 proceed 만 하는 인터셉터, 체인 비용만 남긴다)
+ * - noProxy: 프록시 없이 직접 호출 (기준선)
+ * - proxyFactoryJdk, proxyFactoryCglib: 호출마다 체인 조회 + ReflectiveMethodInvocation + Method.invoke
+ * - fusedJdk, fusedCglib: 미리 묶어 둔 체인 + FusedMethodInvocation + MethodHandle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedChainBenchmark {
+
+    @Param({ "1", "2", "4" })
+    int advisors;
+
+    OrderControllerV1 target;
+    OrderControllerV1 proxyFactoryJdk;
+    OrderControllerV1 proxyFactoryCglib;
+    OrderControllerV1 fusedJdk;
+    OrderControllerV1 fusedCglib;
+
+    @Setup
+    public void setUp() {
+        target = new OrderControllerV1Impl(itemId -> {
+        });
+        proxyFactoryJdk = (OrderControllerV1) proxyFactory(false).getProxy();
+        proxyFactoryCglib = (OrderControllerV1) proxyFactory(true).getProxy();
+        fusedJdk = (OrderControllerV1) fusedProxyFactory(false).getProxy();
+        fusedCglib = (OrderControllerV1) fusedProxyFactory(true).getProxy();
+    }
+
+    private ProxyFactory proxyFactory(boolean proxyTargetClass) {
+        final ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        for (int i = 0; i < advisors; i++) {
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new PassThroughAdvice()));
+        }
+        return proxyFactory;
+    }
+
+    private FusedProxyFactory fusedProxyFactory(boolean proxyTargetClass) {
+        final FusedProxyFactory proxyFactory = new FusedProxyFactory(target);
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        for (int i = 0; i < advisors; i++) {
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new PassThroughAdvice()));
+        }
+        return proxyFactory;
+    }
+
+    @Benchmark
+    public String noProxy() {
+        return target.request("itemA");
+    }
+
+    @Benchmark
+    public String proxyFactoryJdk() {
+        return proxyFactoryJdk.request("itemA");
+    }
+
+    @Benchmark
+    public String proxyFactoryCglib() {
+        return proxyFactoryCglib.request("itemA");
+    }
+
+    @Benchmark
+    public String fusedJdk() {
+        return fusedJdk.request("itemA");
+    }
+
+    @Benchmark
+    public String fusedCglib() {
+        return fusedCglib.request("itemA");
+    }
+
+    static class PassThroughAdvice implements MethodInterceptor {
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+}
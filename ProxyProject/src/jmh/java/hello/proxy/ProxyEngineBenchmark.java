@@ -0,0 +1,192 @@
+package hello.proxy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.engine.ByteBuddyProxyEngine;
+import hello.proxy.config.engine.ProxyEngine;
+import hello.proxy.config.engine.SpringProxyEngine;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+/**
+ * 프록시 생성 방식({@link ProxyEngine})별 비교, v1(인터페이스) / v2(구체 클래스) 주문 컨트롤러 <br/>
+ * - call*: request() 호출 한번의 비용 (처리량)
+ * - create*: 프록시 클래스를 만드는 시간 (SingleShotTime), metaspaceBytes 에 그동안 늘어난 Metaspace 사용량이 함께 나온다.
+ *   매번 새 advisor 와 엔진을 쓰므로 CGLIB, ByteBuddy 는 매번 클래스를 만든다.
+ *   JDK 동적 프록시는 인터페이스별로 클래스를 캐시하므로 첫 호출 이후에는 인스턴스만 만든다.
+ * - jdk 는 인터페이스가 있는 v1 만 가능하다. (v2 에 ProxyFactory 를 쓰면 CGLIB)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyEngineBenchmark {
+
+    private static final String[] PATTERNS = { "request*", "order*", "save*" };
+
+    LogTrace logTrace;
+    OrderControllerV1 v1Target;
+    OrderControllerV2 v2Target;
+
+    OrderControllerV1 jdkV1;
+    OrderControllerV1 cglibV1;
+    OrderControllerV1 byteBuddyV1;
+    OrderControllerV2 cglibV2;
+    OrderControllerV2 byteBuddyV2;
+
+    @Setup
+    public void setUp() {
+        logTrace = new ThreadLocalLogTrace();
+        v1Target = new OrderControllerV1Impl(itemId -> {
+        });
+        v2Target = new OrderControllerV2(new OrderServiceV2(null) {
+            @Override
+            public void orderItem(String itemId) {
+            }
+        });
+
+        jdkV1 = (OrderControllerV1) new SpringProxyEngine(false).createProxy(v1Target, advisor());
+        cglibV1 = (OrderControllerV1) new SpringProxyEngine(true).createProxy(v1Target, advisor());
+        byteBuddyV1 = (OrderControllerV1) new ByteBuddyProxyEngine().createProxy(v1Target, advisor());
+        cglibV2 = (OrderControllerV2) new SpringProxyEngine().createProxy(v2Target, advisor());
+        byteBuddyV2 = (OrderControllerV2) new ByteBuddyProxyEngine().createProxy(v2Target, advisor());
+    }
+
+    private Advisor advisor() {
+        final NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(PATTERNS);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+    }
+
+    @Benchmark
+    public String callNoProxyV1() {
+        return v1Target.request("itemA");
+    }
+
+    @Benchmark
+    public String callJdkV1() {
+        return jdkV1.request("itemA");
+    }
+
+    @Benchmark
+    public String callCglibV1() {
+        return cglibV1.request("itemA");
+    }
+
+    @Benchmark
+    public String callByteBuddyV1() {
+        return byteBuddyV1.request("itemA");
+    }
+
+    @Benchmark
+    public String callCglibV2() {
+        return cglibV2.request("itemA");
+    }
+
+    @Benchmark
+    public String callByteBuddyV2() {
+        return byteBuddyV2.request("itemA");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object createJdkV1(final Metaspace metaspace) {
+        return metaspace.measure(() -> new SpringProxyEngine(false).createProxy(v1Target, advisor()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object createCglibV1(final Metaspace metaspace) {
+        return metaspace.measure(() -> new SpringProxyEngine(true).createProxy(v1Target, advisor()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object createByteBuddyV1(final Metaspace metaspace) {
+        return metaspace.measure(() -> new ByteBuddyProxyEngine().createProxy(v1Target, advisor()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object createCglibV2(final Metaspace metaspace) {
+        return metaspace.measure(() -> new SpringProxyEngine().createProxy(v2Target, advisor()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public Object createByteBuddyV2(final Metaspace metaspace) {
+        return metaspace.measure(() -> new ByteBuddyProxyEngine().createProxy(v2Target, advisor()));
+    }
+
+    /**
+     * 프록시를 만드는 동안 늘어난 Metaspace 사용량 (결과에 metaspaceBytes 로 나온다)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Metaspace {
+
+        public long metaspaceBytes;
+
+        private MemoryPoolMXBean pool;
+
+        @Setup
+        public void setUp() {
+            for (MemoryPoolMXBean candidate : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (candidate.getName().equals("Metaspace")) {
+                    pool = candidate;
+                }
+            }
+        }
+
+        Object measure(Supplier<Object> create) {
+            final long before = used();
+            final Object proxy = create.get();
+            metaspaceBytes += used() - before;
+            return proxy;
+        }
+
+        private long used() {
+            return pool == null ? 0L : pool.getUsage().getUsed();
+        }
+    }
+}
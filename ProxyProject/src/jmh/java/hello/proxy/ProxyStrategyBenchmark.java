@@ -0,0 +1,217 @@
+package hello.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.util.PatternMatchUtils;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderControllerV1_TraceProxy;
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
+import hello.proxy.config.v1_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v1_dynamicproxy.handler.LogTraceFilterHandler;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+/**
+ * 프록시 방식별로 OrderControllerV1.request() 호출 한번(begin/end 1쌍)의 비용 비교 <br/>
+ * 실제 서비스(1초 저장) 대신 아무것도 하지 않는 서비스를 넣어서 프록시 + 로그 추적기 비용만 남긴다.
+ * - noProxy: 프록시 없이 직접 호출 (기준선)
+ * - interfaceProxy: 직접 만든 인터페이스 프록시 (v1_proxy)
+ * - generatedProxy: 컴파일할 때 생성된 프록시 (v7_generated, @TraceProxy)
+ * - jdkBasicHandler, jdkFilterHandler: JDK 동적 프록시 (v1_dynamicproxy)
+ * - proxyFactoryJdk, proxyFactoryCglib: ProxyFactory + LogTraceAdvice (v3_proxyfactory)
+ * - aspect: @Aspect LogTraceAspect (v6_aop)
+ * - jdkFilterHandlerPerCall: 메시지와 패턴 검사를 호출마다 하던 이전 LogTraceFilterHandler (jdkFilterHandler 와 비교)
+ * - perCallMetadata, planLookup: 프록시가 호출마다 하던 일(메시지 문자열 + 패턴 검사)과 {@link InvocationPlanCache} 조회만 비교
+ * - reflectiveInvoke, planInvoke: 로그 없이 target 호출만 Method.invoke 와 {@link InvocationPlan#invoke(Object, Object[])} 로 비교 (noProxy 가 기준)
+ * 쓰레드 수(1/4/16)별 결과는 {@link BenchmarkRunner} 로 구한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyStrategyBenchmark {
+
+    private static final String[] PATTERNS = { "request*", "order*", "save*" };
+
+    OrderControllerV1 target;
+    OrderControllerV1 interfaceProxy;
+    OrderControllerV1 generatedProxy;
+    OrderControllerV1 jdkBasicHandler;
+    OrderControllerV1 jdkFilterHandler;
+    OrderControllerV1 proxyFactoryJdk;
+    OrderControllerV1 proxyFactoryCglib;
+    OrderControllerV1 aspect;
+    OrderControllerV1 jdkFilterHandlerPerCall;
+
+    Method requestMethod;
+    InvocationPlanCache plans;
+
+    @Setup
+    public void setUp() {
+        final LogTrace logTrace = new ThreadLocalLogTrace();
+        target = new OrderControllerV1Impl(itemId -> {
+        });
+
+        interfaceProxy = new OrderControllerInterfaceProxy(target, logTrace);
+        generatedProxy = new OrderControllerV1_TraceProxy(target, logTrace);
+        jdkBasicHandler = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(), new Class[] { OrderControllerV1.class },
+                                                                     new LogTraceBasicHandler(target, logTrace));
+        jdkFilterHandler = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(), new Class[] { OrderControllerV1.class },
+                                                                      new LogTraceFilterHandler(target, logTrace, PATTERNS));
+        proxyFactoryJdk = proxyFactory(logTrace, false);
+        proxyFactoryCglib = proxyFactory(logTrace, true);
+
+        final AspectJProxyFactory aspectFactory = new AspectJProxyFactory(target);
+        aspectFactory.addAspect(new LogTraceAspect(logTrace));
+        aspect = aspectFactory.getProxy();
+
+        jdkFilterHandlerPerCall = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+                                                                             new Class[] { OrderControllerV1.class },
+                                                                             new PerCallFilterHandler(target, logTrace));
+        try {
+            requestMethod = OrderControllerV1.class.getMethod("request", String.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        plans = new InvocationPlanCache(PATTERNS);
+    }
+
+    private OrderControllerV1 proxyFactory(LogTrace logTrace, boolean proxyTargetClass) {
+        final NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(PATTERNS);
+        final Advisor advisor = new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+
+        final ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvisor(advisor);
+        return (OrderControllerV1) factory.getProxy();
+    }
+
+    @Benchmark
+    public String noProxy() {
+        return target.request("itemA");
+    }
+
+    @Benchmark
+    public String interfaceProxy() {
+        return interfaceProxy.request("itemA");
+    }
+
+    @Benchmark
+    public String generatedProxy() {
+        return generatedProxy.request("itemA");
+    }
+
+    @Benchmark
+    public String jdkBasicHandler() {
+        return jdkBasicHandler.request("itemA");
+    }
+
+    @Benchmark
+    public String jdkFilterHandler() {
+        return jdkFilterHandler.request("itemA");
+    }
+
+    @Benchmark
+    public String proxyFactoryJdk() {
+        return proxyFactoryJdk.request("itemA");
+    }
+
+    @Benchmark
+    public String proxyFactoryCglib() {
+        return proxyFactoryCglib.request("itemA");
+    }
+
+    @Benchmark
+    public String aspect() {
+        return aspect.request("itemA");
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        return requestMethod.invoke(target, new Object[] { "itemA" });
+    }
+
+    @Benchmark
+    public Object planInvoke() throws Throwable {
+        return plans.get(requestMethod).invoke(target, new Object[] { "itemA" });
+    }
+
+    @Benchmark
+    public String jdkFilterHandlerPerCall() {
+        return jdkFilterHandlerPerCall.request("itemA");
+    }
+
+    @Benchmark
+    public String perCallMetadata() {
+        final Method method = requestMethod;
+        if (!PatternMatchUtils.simpleMatch(PATTERNS, method.getName())) {
+            return null;
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+    }
+
+    @Benchmark
+    public String planLookup() {
+        final InvocationPlan plan = plans.get(requestMethod);
+        return plan.isTraced() ? plan.getMessage() : null;
+    }
+
+    /**
+     * InvocationPlanCache 를 쓰기 전의 LogTraceFilterHandler (Method.invoke 로 호출한다)
+     */
+    static class PerCallFilterHandler implements InvocationHandler {
+
+        private final Object target;
+        private final LogTrace logTrace;
+
+        PerCallFilterHandler(Object target, LogTrace logTrace) {
+            this.target = target;
+            this.logTrace = logTrace;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!PatternMatchUtils.simpleMatch(PATTERNS, method.getName())) {
+                return method.invoke(target, args);
+            }
+            TraceStatus status = null;
+            try {
+                status = logTrace.begin(method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()");
+                final Object result = method.invoke(target, args);
+                logTrace.end(status);
+                return result;
+            } catch (Exception e) {
+                logTrace.exception(status, e);
+                throw e;
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 
 import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.trace.logtrace.AsyncLogTrace;
 import hello.proxy.trace.logtrace.LogTrace;
 import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
 
@@ -19,6 +20,7 @@ import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
 //@Import(BeanPostProcessorConfig.class)
 //@Import(AutoProxyConfig.class)
 @Import(AopConfig.class)
+//@Import(GeneratedProxyConfig.class)
 @SpringBootApplication(scanBasePackages = "hello.proxy.app") //주의
 public class ProxyApplication {
 
@@ -28,6 +30,7 @@ public class ProxyApplication {
 
 	@Bean
 	public LogTrace logTrace(){
+//		return new AsyncLogTrace(8192, AsyncLogTrace.OverflowPolicy.DROP); // 로그 출력을 백그라운드 쓰레드로 넘긴다.
 		return new ThreadLocalLogTrace();
 	}
 }
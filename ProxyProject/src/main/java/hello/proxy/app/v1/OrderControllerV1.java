@@ -5,8 +5,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import hello.proxy.processor.TraceProxy;
+
 @RequestMapping // 스프링은 @Controller 또는 @RequestMapping 이 있어야 스프링 컨트롤러로 인식한다.
 @ResponseBody
+@TraceProxy(exclude = "noLog") // 컴파일할 때 OrderControllerV1_TraceProxy 가 생성된다. (v7_generated, noLog() 는 로그를 남기지 않는다)
 public interface OrderControllerV1 {
 
     // Java 버전에 따라서 컨트롤러 클래스 단에서는 없어도 되는 어노테이션인 @RequestParam이 인터페이스 내부에는 @RequestParam 같은 것을 인식 못할 때가 있다.
@@ -1,5 +1,8 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.processor.TraceProxy;
+
+@TraceProxy // 컴파일할 때 OrderRepositoryV1_TraceProxy 가 생성된다. (v7_generated)
 public interface OrderRepositoryV1 {
     void save(String itemId);
 }
@@ -4,12 +4,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import hello.proxy.processor.TraceProxy;
 import lombok.extern.slf4j.Slf4j;
 
 //@Controller 쓰면 되지 않나요? : 내부에 @Controller가 있기 때문에 자동으로 컴포넌트 스캔의 대상이 됩니다. 그래서 쓰지 않아요.
 @Slf4j
 @RequestMapping // 컴포넌트 스캔의 대상이 되지 않습니다. 그래서 괜찮습니다.
 @ResponseBody
+@TraceProxy(exclude = "noLog") // 컴파일할 때 OrderControllerV2_TraceProxy 가 생성된다. (v7_generated, noLog() 는 로그를 남기지 않는다)
 public class OrderControllerV2 {
 
     private final OrderServiceV2 orderService;
@@ -1,5 +1,8 @@
 package hello.proxy.app.v2;
 
+import hello.proxy.processor.TraceProxy;
+
+@TraceProxy // 컴파일할 때 OrderServiceV2_TraceProxy 가 생성된다. (v7_generated)
 public class OrderServiceV2 {
 
     private final OrderRepositoryV2 orderRepository;
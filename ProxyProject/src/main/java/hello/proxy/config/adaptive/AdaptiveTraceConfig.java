@@ -0,0 +1,26 @@
+package hello.proxy.config.adaptive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+
+@Configuration
+public class AdaptiveTraceConfig {
+
+    /**
+     * 1초 동안 1000번 이상 호출됐고 평균 1us 이하인 메서드는 로그를 끄고 호출 수만 센다.
+     */
+    @Bean
+    public AdaptiveTracePolicy adaptiveTracePolicy(@Value("${trace.adaptive.window-ms:1000}") long windowMs,
+                                                   @Value("${trace.adaptive.min-calls:1000}") long minCalls,
+                                                   @Value("${trace.adaptive.max-avg-nanos:1000}") long maxAvgNanos) {
+        return new AdaptiveTracePolicy(windowMs, minCalls, maxAvgNanos);
+    }
+
+    @Bean
+    public AdaptiveTraceController adaptiveTraceController(AdaptiveTracePolicy adaptiveTracePolicy) {
+        return new AdaptiveTraceController(adaptiveTracePolicy);
+    }
+}
@@ -0,0 +1,59 @@
+package hello.proxy.config.adaptive;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+import hello.proxy.trace.adaptive.MethodTraceStats;
+
+/**
+ * 메서드별 트레이스 모드 조회/복구 <br/>
+ * 컴포넌트 스캔 대상(hello.proxy.app)이 아니므로 {@link AdaptiveTraceConfig} 에서 빈으로 등록한다.
+ */
+@RestController
+public class AdaptiveTraceController {
+
+    private final AdaptiveTracePolicy policy;
+
+    public AdaptiveTraceController(final AdaptiveTracePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * [{"method":"OrderRepositoryV1.save()","mode":"TRACED","traced":3,"counted":0,"avgNanos":1001234,"lastWindowAvgNanos":-1}, ..]
+     */
+    @GetMapping("/trace/adaptive")
+    public List<Map<String, Object>> methods() {
+        final List<Map<String, Object>> result = new ArrayList<>();
+        for (MethodTraceStats stats : policy.snapshot()) {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("method", stats.getName());
+            map.put("mode", stats.isCountingOnly() ? "COUNTING_ONLY" : "TRACED");
+            map.put("traced", stats.getTracedCount());
+            map.put("counted", stats.getCountedCount());
+            map.put("avgNanos", stats.getAvgNanos());
+            map.put("lastWindowAvgNanos", stats.getLastWindowAvgNanos());
+            map.put("switchedAt", stats.getSwitchedAtMs());
+            result.add(map);
+        }
+        return result;
+    }
+
+    /**
+     * 로그를 끈 메서드를 다시 로그를 남기게 한다. method 가 없으면 전부 되돌린다.
+     * POST /trace/adaptive/reset?method=OrderRepositoryV1.save()
+     */
+    @PostMapping("/trace/adaptive/reset")
+    public Map<String, Object> reset(@RequestParam(required = false) String method) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("reset", method == null ? policy.resetAll() : policy.reset(method));
+        return result;
+    }
+}
@@ -0,0 +1,191 @@
+package hello.proxy.config.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * ByteBuddy 로 target 클래스를 상속한 프록시 클래스를 만든다. (final 클래스면 Object 를 상속하고 인터페이스를 구현한다) <br/>
+ * - 포인트컷에 맞는 메서드: {@link LogTraceInlineAdvice} 의 바이트코드를 메서드에 직접 넣고 target 을 호출한다.
+ *   CGLIB 의 MethodProxy, 스프링의 ReflectiveMethodInvocation 을 거치지 않는다.
+ * - 나머지 메서드: target 을 그대로 호출한다. (protected, package-private 메서드 포함)
+ * 생성자는 호출하지 않고 Objenesis 로 인스턴스를 만든다. (OrderServiceV2 처럼 기본 생성자가 없어도 된다) <br/>
+ * 프록시 클래스는 {target 클래스, 포인트컷} 마다 한번만 만들고, 인스턴스마다 LogTraceAdvice 의 InvocationPlanCache 에서 꺼낸 계획을 넣어둔다.
+ * 그래서 메서드 이름 패턴, AdaptiveTracePolicy(호출 수만 세는 모드), 메서드별 통계가 LogTraceAdvice 와 같게 동작한다. <br/>
+ * advice 를 인라인하므로 LogTraceAdvice 를 가진 PointcutAdvisor 만 ByteBuddy 로 만들고, 그 밖의 advisor 는 {@link SpringProxyEngine} 으로 만든다.
+ * 포인트컷은 정적 매칭(matches(method, class))만 본다.
+ */
+@Slf4j
+public class ByteBuddyProxyEngine implements ProxyEngine {
+
+    static final String TARGET_FIELD = "target";
+    static final String LOG_TRACE_FIELD = "logTrace";
+    static final String PLANS_FIELD = "plans";
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(); // 같은 클래스를 여러 엔진이 만들어도 이름이 겹치지 않도록
+
+    private final ConcurrentHashMap<List<Object>, ProxyType> proxyTypes = new ConcurrentHashMap<>(); // {target 클래스, 포인트컷}
+    private final Objenesis objenesis = new SpringObjenesis();
+    private final ProxyEngine fallback = new SpringProxyEngine();
+
+    @Override
+    public Object createProxy(final Object target, final Advisor advisor) {
+        if (!(advisor instanceof PointcutAdvisor) || !(advisor.getAdvice() instanceof LogTraceAdvice)) {
+            return fallback.createProxy(target, advisor); // 인라인할 수 있는 advice 가 아니다.
+        }
+        final LogTraceAdvice advice = (LogTraceAdvice) advisor.getAdvice();
+        final Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+        final Class<?> targetClass = target.getClass();
+        if (!pointcut.getClassFilter().matches(targetClass)) {
+            return target; // 적용할 메서드가 없다.
+        }
+
+        final ProxyType proxyType = proxyTypes.computeIfAbsent(List.of(targetClass, pointcut), key -> generate(targetClass, pointcut));
+        final InvocationPlan[] plans = new InvocationPlan[proxyType.tracedMethods.size()];
+        for (int i = 0; i < plans.length; i++) {
+            plans[i] = advice.getPlans().get(proxyType.tracedMethods.get(i));
+        }
+        final Object proxy = objenesis.newInstance(proxyType.type);
+        try {
+            proxyType.target.set(proxy, target);
+            proxyType.logTrace.set(proxy, advice.getLogTrace());
+            proxyType.plans.set(proxy, plans);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return proxy;
+    }
+
+    private ProxyType generate(Class<?> targetClass, Pointcut pointcut) {
+        final boolean subclass = !Modifier.isFinal(targetClass.getModifiers());
+        DynamicType.Builder<?> builder = subclass
+                ? new ByteBuddy().subclass(targetClass, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                : new ByteBuddy().subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                                 .implement(ClassUtils.getAllInterfacesForClass(targetClass));
+        builder = builder.name(targetClass.getName() + "$TraceProxy$ByteBuddy$" + SEQUENCE.incrementAndGet())
+                         .defineField(TARGET_FIELD, targetClass, Visibility.PRIVATE)
+                         .defineField(LOG_TRACE_FIELD, LogTrace.class, Visibility.PRIVATE)
+                         .defineField(PLANS_FIELD, InvocationPlan[].class, Visibility.PRIVATE);
+
+        final Implementation delegate = MethodCall.invokeSelf().onField(TARGET_FIELD).withAllArguments();
+        final List<Method> tracedMethods = new ArrayList<>();
+        for (Method method : proxiedMethods(targetClass, subclass)) {
+            if (pointcut.getMethodMatcher().matches(method, targetClass)) {
+                builder = builder.method(ElementMatchers.is(method))
+                                 .intercept(Advice.withCustomMapping()
+                                                  .bind(PlanIndex.class, tracedMethods.size()) // plans 배열의 인덱스가 상수로 들어간다.
+                                                  .to(LogTraceInlineAdvice.class)
+                                                  .wrap(delegate));
+                tracedMethods.add(method);
+            } else {
+                builder = builder.method(ElementMatchers.is(method)).intercept(delegate);
+            }
+        }
+
+        try {
+            final Class<?> type = builder.make()
+                                         .load(targetClass.getClassLoader(),
+                                               ClassLoadingStrategy.UsingLookup.of(MethodHandles.privateLookupIn(targetClass, MethodHandles.lookup())))
+                                         .getLoaded();
+            log.info("create ByteBuddy proxy class: target={} proxy={}", targetClass, type);
+            return new ProxyType(type, List.copyOf(tracedMethods), accessibleField(type, TARGET_FIELD), accessibleField(type, LOG_TRACE_FIELD),
+                                 accessibleField(type, PLANS_FIELD));
+        } catch (IllegalAccessException | NoSuchFieldException e) {
+            throw new IllegalStateException("cannot create proxy for " + targetClass, e);
+        }
+    }
+
+    /**
+     * 상속할 때는 재정의할 수 있는 메서드, 인터페이스를 구현할 때는 인터페이스의 메서드 <br/>
+     * 프록시 인스턴스는 생성자를 거치지 않아서 상속한 필드가 비어있으므로, 재정의하지 않은 메서드가 호출되면 부모의 코드가 빈 필드를 보게 된다.
+     * 그래서 public 메서드뿐 아니라 protected, package-private 메서드도 부모 클래스까지 올라가면서 모두 재정의해서 target 으로 넘긴다.
+     * 프록시는 target 클래스와 같은 패키지에 만들어지므로, 다른 패키지에 선언된 package-private, protected 메서드는 target 에 대해 호출할 수 없어서 제외한다.
+     */
+    private static List<Method> proxiedMethods(Class<?> targetClass, boolean subclass) {
+        final List<Method> methods = new ArrayList<>();
+        if (subclass) {
+            final Set<String> signatures = new HashSet<>(); // 자식에서 재정의한 메서드를 부모에서 다시 고르지 않도록
+            for (Method method : targetClass.getMethods()) {
+                addOverridable(methods, signatures, method);
+            }
+            for (Class<?> type = targetClass; type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Method method : type.getDeclaredMethods()) {
+                    final int modifiers = method.getModifiers();
+                    if (!Modifier.isPublic(modifiers) && !Modifier.isPrivate(modifiers)
+                            && type.getPackageName().equals(targetClass.getPackageName())) {
+                        addOverridable(methods, signatures, method);
+                    }
+                }
+            }
+            return methods;
+        }
+        for (Class<?> type : ClassUtils.getAllInterfacesForClass(targetClass)) {
+            for (Method method : type.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static void addOverridable(List<Method> methods, Set<String> signatures, Method method) {
+        final int modifiers = method.getModifiers();
+        if (method.getDeclaringClass() != Object.class && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)
+                && !method.isBridge() && !method.isSynthetic()
+                && signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+            methods.add(method);
+        }
+    }
+
+    private static Field accessibleField(Class<?> type, String name) throws NoSuchFieldException {
+        final Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private static final class ProxyType {
+        private final Class<?> type;
+        private final List<Method> tracedMethods; // PlanIndex 순서
+        private final Field target;
+        private final Field logTrace;
+        private final Field plans;
+
+        private ProxyType(Class<?> type, List<Method> tracedMethods, Field target, Field logTrace, Field plans) {
+            this.type = type;
+            this.tracedMethods = tracedMethods;
+            this.target = target;
+            this.logTrace = logTrace;
+            this.plans = plans;
+        }
+    }
+}
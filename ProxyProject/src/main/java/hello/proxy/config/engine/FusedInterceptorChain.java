@@ -0,0 +1,28 @@
+package hello.proxy.config.engine;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import hello.proxy.config.invocation.InvocationPlan;
+
+/**
+ * 메서드 하나에 적용되는 인터셉터 (바깥쪽부터 순서대로) + target 호출 <br/>
+ * 프록시를 만들 때 정해지고 바뀌지 않는다. 호출할 때는 포인트컷 검사, 목록 조회, 리플렉션 없이
+ * {@link FusedMethodInvocation} 하나로 배열을 따라간 뒤 MethodHandle 로 target 을 호출한다.
+ */
+final class FusedInterceptorChain {
+
+    final InvocationPlan plan;
+    final MethodInterceptor[] interceptors;
+
+    FusedInterceptorChain(InvocationPlan plan, MethodInterceptor[] interceptors) {
+        this.plan = plan;
+        this.interceptors = interceptors;
+    }
+
+    Object invoke(Object proxy, Object target, Object[] args) throws Throwable {
+        if (interceptors.length == 0) { // 적용되는 advisor 가 없다.
+            return plan.invoke(target, args);
+        }
+        return new FusedMethodInvocation(this, proxy, target, args).proceed();
+    }
+}
@@ -0,0 +1,130 @@
+package hello.proxy.config.engine;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.InvocationHandler;
+
+import hello.proxy.config.invocation.InvocationPlanCache;
+
+/**
+ * {@link FusedProxyFactory} 가 만든 프록시의 호출을 처리한다. (JDK 동적 프록시, CGLIB 공용) <br/>
+ * 메서드마다 {@link FusedInterceptorChain} 을 한번만 만들고, 호출할 때는 맵에서 꺼내서 실행만 한다. <br/>
+ * equals/hashCode 는 JdkDynamicAopProxy, CglibAopProxy 와 같다. 프록시한 타입, advisor 목록, target 이 같은 fused 프록시끼리 같고,
+ * hashCode 는 target 으로 정한다. (JDK 동적 프록시에서 인터페이스가 equals/hashCode 를 선언했으면 target 에 위임한다)
+ */
+final class FusedInvocationHandler implements InvocationHandler, java.lang.reflect.InvocationHandler {
+
+    private static final Object[] NO_ARGS = {};
+
+    private final Object target;
+    private final Class<?> targetClass;
+    private final List<Advisor> advisors; // 순서대로 정렬된 목록
+    private final AdvisorAdapterRegistry adapters = GlobalAdvisorAdapterRegistry.getInstance(); // MethodBeforeAdvice 등을 MethodInterceptor 로 바꾼다.
+    private final InvocationPlanCache plans = new InvocationPlanCache(); // target 호출 MethodHandle
+    private final ConcurrentHashMap<Method, FusedInterceptorChain> chains = new ConcurrentHashMap<>();
+    private final Class<?>[] proxiedTypes; // JDK 동적 프록시면 구현한 인터페이스, CGLIB 이면 상속한 클래스
+    private final boolean equalsDefined; // 인터페이스가 equals 를 선언했으면 target 에 위임한다. (JDK 동적 프록시만)
+    private final boolean hashCodeDefined;
+
+    FusedInvocationHandler(Object target, List<Advisor> advisors, List<Method> methods, Class<?>[] proxiedTypes, boolean jdk) {
+        this.target = target;
+        this.targetClass = target.getClass();
+        this.advisors = Collections.unmodifiableList(new ArrayList<>(advisors));
+        this.proxiedTypes = proxiedTypes.clone();
+        this.equalsDefined = jdk && methods.stream().anyMatch(AopUtils::isEqualsMethod);
+        this.hashCodeDefined = jdk && methods.stream().anyMatch(AopUtils::isHashCodeMethod);
+        for (Method method : methods) {
+            chains.put(method, chain(method));
+        }
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (!equalsDefined && AopUtils.isEqualsMethod(method)) {
+            return proxyEquals(proxy, args[0]);
+        }
+        if (!hashCodeDefined && AopUtils.isHashCodeMethod(method)) {
+            return FusedInvocationHandler.class.hashCode() * 13 + target.hashCode();
+        }
+        FusedInterceptorChain chain = chains.get(method);
+        if (chain == null) { // 미리 만들지 않은 메서드 (toString, protected 메서드 등)
+            chain = chains.computeIfAbsent(method, this::chain);
+        }
+
+        Object result = chain.invoke(proxy, target, args == null ? NO_ARGS : args);
+        // ProxyFactory 의 프록시와 같이 처리한다. (this 를 반환하면 프록시로 바꾸고, 기본형에 null 은 예외)
+        if (result == target && method.getReturnType().isInstance(proxy)) {
+            result = proxy;
+        } else if (result == null && method.getReturnType() != void.class && method.getReturnType().isPrimitive()) {
+            throw new AopInvocationException("Null return value from advice does not match primitive return type for: " + method);
+        }
+        return result;
+    }
+
+    /**
+     * AopProxyUtils.equalsInProxy 와 같다. (프록시한 타입, advisor 목록, target 비교)
+     */
+    private boolean proxyEquals(Object proxy, Object other) {
+        if (other == proxy) {
+            return true;
+        }
+        final FusedInvocationHandler otherHandler = handlerOf(other);
+        return otherHandler != null
+                && Arrays.equals(proxiedTypes, otherHandler.proxiedTypes)
+                && advisors.equals(otherHandler.advisors)
+                && target.equals(otherHandler.target);
+    }
+
+    /**
+     * fused 프록시가 아니면 null
+     */
+    private static FusedInvocationHandler handlerOf(Object other) {
+        Object handler = null;
+        if (other != null && Proxy.isProxyClass(other.getClass())) {
+            handler = Proxy.getInvocationHandler(other);
+        } else if (other instanceof Factory) {
+            handler = ((Factory) other).getCallback(0);
+        }
+        return handler instanceof FusedInvocationHandler ? (FusedInvocationHandler) handler : null;
+    }
+
+    /**
+     * 이 메서드에 적용되는 advisor 의 인터셉터를 순서대로 모은다.
+     */
+    private FusedInterceptorChain chain(Method method) {
+        final List<MethodInterceptor> interceptors = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof IntroductionAdvisor) {
+                throw new IllegalArgumentException("FusedProxyFactory does not support introductions: " + advisor);
+            }
+            if (advisor instanceof PointcutAdvisor) {
+                final PointcutAdvisor pointcutAdvisor = (PointcutAdvisor) advisor;
+                final MethodMatcher methodMatcher = pointcutAdvisor.getPointcut().getMethodMatcher();
+                if (!pointcutAdvisor.getPointcut().getClassFilter().matches(targetClass) || !methodMatcher.matches(method, targetClass)) {
+                    continue;
+                }
+                if (methodMatcher.isRuntime()) { // 인자를 보고 매번 판단해야 하므로 미리 정할 수 없다.
+                    throw new IllegalArgumentException("FusedProxyFactory does not support dynamic pointcuts: " + advisor);
+                }
+            }
+            Collections.addAll(interceptors, adapters.getInterceptors(advisor));
+        }
+        return new FusedInterceptorChain(plans.get(method), interceptors.toArray(new MethodInterceptor[0]));
+    }
+}
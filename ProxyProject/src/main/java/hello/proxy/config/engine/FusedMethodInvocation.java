@@ -0,0 +1,110 @@
+package hello.proxy.config.engine;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+
+/**
+ * {@link FusedInterceptorChain} 을 한번 호출할 때의 상태 (ReflectiveMethodInvocation 대신 사용한다) <br/>
+ * proceed() 할 때마다 다음 인터셉터를 실행하고, 마지막에 target 을 호출한다.
+ * ProxyMethodInvocation 이므로 @Aspect 의 ProceedingJoinPoint 로도 사용할 수 있다.
+ */
+final class FusedMethodInvocation implements ProxyMethodInvocation {
+
+    private final FusedInterceptorChain chain;
+    private final Object proxy;
+    private final Object target;
+    private Object[] arguments;
+    private int index; // 다음에 실행할 인터셉터
+    private Map<String, Object> userAttributes; // 사용할 때 만든다.
+
+    FusedMethodInvocation(FusedInterceptorChain chain, Object proxy, Object target, Object[] arguments) {
+        this.chain = chain;
+        this.proxy = proxy;
+        this.target = target;
+        this.arguments = arguments;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (index == chain.interceptors.length) {
+            return chain.plan.invoke(target, arguments);
+        }
+        return chain.interceptors[index++].invoke(this);
+    }
+
+    @Override
+    public Method getMethod() {
+        return chain.plan.getMethod();
+    }
+
+    @Override
+    public AccessibleObject getStaticPart() {
+        return chain.plan.getMethod();
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+
+    @Override
+    public Object getProxy() {
+        return proxy;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public void setArguments(final Object... arguments) {
+        this.arguments = arguments;
+    }
+
+    @Override
+    public MethodInvocation invocableClone() {
+        return invocableClone(arguments.clone());
+    }
+
+    /**
+     * 현재 위치부터 다시 proceed() 할 수 있는 복사본 (ProceedingJoinPoint.proceed() 에서 사용)
+     */
+    @Override
+    public MethodInvocation invocableClone(final Object... arguments) {
+        if (userAttributes == null) {
+            userAttributes = new HashMap<>(); // 복사본과 같은 Map 을 쓴다.
+        }
+        final FusedMethodInvocation clone = new FusedMethodInvocation(chain, proxy, target, arguments);
+        clone.index = index;
+        clone.userAttributes = userAttributes;
+        return clone;
+    }
+
+    @Override
+    public void setUserAttribute(final String key, final Object value) {
+        if (value != null) {
+            if (userAttributes == null) {
+                userAttributes = new HashMap<>();
+            }
+            userAttributes.put(key, value);
+        } else if (userAttributes != null) {
+            userAttributes.remove(key);
+        }
+    }
+
+    @Override
+    public Object getUserAttribute(final String key) {
+        return userAttributes == null ? null : userAttributes.get(key);
+    }
+
+    @Override
+    public String toString() {
+        return "FusedMethodInvocation: " + getMethod() + "; target is of class [" + target.getClass().getName() + "]";
+    }
+}
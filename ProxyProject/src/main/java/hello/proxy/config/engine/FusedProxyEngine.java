@@ -0,0 +1,24 @@
+package hello.proxy.config.engine;
+
+import org.springframework.aop.Advisor;
+
+public class FusedProxyEngine implements ProxyEngine {
+
+    private final boolean proxyTargetClass; // true 면 인터페이스가 있어도 CGLIB 를 사용한다.
+
+    public FusedProxyEngine() {
+        this(false);
+    }
+
+    public FusedProxyEngine(final boolean proxyTargetClass) {
+        this.proxyTargetClass = proxyTargetClass;
+    }
+
+    @Override
+    public Object createProxy(final Object target, final Advisor advisor) {
+        final FusedProxyFactory factory = new FusedProxyFactory(target);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvisor(advisor);
+        return factory.getProxy();
+    }
+}
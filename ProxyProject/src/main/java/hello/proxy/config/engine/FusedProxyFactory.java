@@ -0,0 +1,128 @@
+package hello.proxy.config.engine;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.InvocationHandler;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 advisor 를 적용한 프록시를 만든다. (ProxyFactory 와 같이 addAdvisor 후 getProxy) <br/>
+ * ProxyFactory 의 프록시는 호출마다 메서드의 인터셉터 목록을 캐시에서 찾고 (MethodCacheKey 생성),
+ * ReflectiveMethodInvocation 을 만들어서 체인을 따라간 뒤 target 을 Method.invoke 로 호출한다.
+ * 여기서는 getProxy 할 때 메서드마다 인터셉터 배열과 target 호출 MethodHandle 을 {@link FusedInterceptorChain} 으로 미리 묶어 둔다.
+ * - 순서: @Order / Ordered 값이 작은 advisor 가 바깥쪽 (먼저 실행), 값이 같으면 추가한 순서 (자동 프록시 생성기와 같다)
+ * - 적용되는 advisor 가 없는 메서드는 invocation 을 만들지 않고 target 을 바로 호출한다.
+ * - 인터페이스가 있으면 JDK 동적 프록시, 없으면 CGLIB (proxyTargetClass 가 true 면 항상 CGLIB)
+ * - @Aspect 로 만든 advisor 도 사용할 수 있다. (ExposeInvocationInterceptor 를 맨 앞에 추가한다)
+ * - equals/hashCode 는 ProxyFactory 의 프록시와 같이 프록시 설정(프록시한 타입, advisor, target)으로 비교한다. ({@link FusedInvocationHandler})
+ * getProxy 이후에 추가한 advisor 는 이미 만든 프록시에 적용되지 않는다.
+ * 포인트컷은 정적 매칭만 지원한다. (동적 포인트컷, IntroductionAdvisor 는 예외)
+ */
+@Slf4j
+public class FusedProxyFactory {
+
+    private final Object target;
+    private final List<Advisor> advisors = new ArrayList<>();
+    private boolean proxyTargetClass;
+
+    public FusedProxyFactory(final Object target) {
+        this.target = target;
+    }
+
+    public void setProxyTargetClass(final boolean proxyTargetClass) {
+        this.proxyTargetClass = proxyTargetClass;
+    }
+
+    public void addAdvisor(final Advisor advisor) {
+        advisors.add(advisor);
+    }
+
+    /**
+     * 모든 메서드에 적용한다. (Pointcut.TRUE)
+     */
+    public void addAdvice(final Advice advice) {
+        addAdvisor(new DefaultPointcutAdvisor(advice));
+    }
+
+    public Object getProxy() {
+        final List<Advisor> ordered = new ArrayList<>(advisors);
+        ordered.sort(Comparator.comparingInt(FusedProxyFactory::order)); // 안정 정렬이므로 값이 같으면 추가한 순서를 유지한다.
+        AspectJProxyUtils.makeAdvisorChainAspectJCapableIfNecessary(ordered);
+
+        final Class<?> targetClass = target.getClass();
+        final Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(targetClass);
+        final boolean jdk = !proxyTargetClass && interfaces.length > 0;
+        final FusedInvocationHandler handler = new FusedInvocationHandler(target, ordered, proxiedMethods(targetClass, interfaces, jdk),
+                                                                          jdk ? interfaces : new Class<?>[] { targetClass }, jdk);
+
+        if (jdk) {
+            return Proxy.newProxyInstance(targetClass.getClassLoader(), interfaces, handler);
+        }
+        final Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(targetClass);
+        enhancer.setClassLoader(targetClass.getClassLoader());
+        enhancer.setCallbackTypes(new Class<?>[] { InvocationHandler.class, NoOp.class });
+        enhancer.setCallbackFilter(method -> AopUtils.isFinalizeMethod(method) ? 1 : 0); // finalize 는 프록시하지 않는다.
+        final Object proxy = new SpringObjenesis().newInstance(enhancer.createClass()); // 생성자를 호출하지 않는다. (기본 생성자가 없어도 된다)
+        ((Factory) proxy).setCallbacks(new Callback[] { handler, NoOp.INSTANCE });
+        log.debug("create fused CGLIB proxy: target={} proxy={}", targetClass, proxy.getClass());
+        return proxy;
+    }
+
+    /**
+     * 값이 작을수록 바깥쪽. advisor 에 순서가 없으면 advice 클래스의 @Order 를 본다.
+     */
+    private static int order(Advisor advisor) {
+        if (advisor instanceof Ordered) {
+            final int order = ((Ordered) advisor).getOrder();
+            if (order != Ordered.LOWEST_PRECEDENCE) {
+                return order;
+            }
+        }
+        final Integer order = OrderUtils.getOrder(advisor.getAdvice().getClass());
+        return order == null ? Ordered.LOWEST_PRECEDENCE : order;
+    }
+
+    /**
+     * 체인을 미리 만들어 둘 메서드 (나머지는 처음 호출될 때 만든다)
+     */
+    private static List<Method> proxiedMethods(Class<?> targetClass, Class<?>[] interfaces, boolean jdk) {
+        final List<Method> methods = new ArrayList<>();
+        if (jdk) {
+            for (Class<?> type : interfaces) {
+                for (Method method : type.getMethods()) {
+                    if (!Modifier.isStatic(method.getModifiers())) {
+                        methods.add(method);
+                    }
+                }
+            }
+            return methods;
+        }
+        for (Method method : targetClass.getMethods()) {
+            final int modifiers = method.getModifiers();
+            if (method.getDeclaringClass() != Object.class && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,47 @@
+package hello.proxy.config.engine;
+
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import net.bytebuddy.asm.Advice;
+
+/**
+ * {@link ByteBuddyProxyEngine} 이 프록시 메서드에 그대로 복사해 넣는 코드 (LogTraceAdvice 와 같은 동작) <br/>
+ * 호출되는 메서드가 아니라 바이트코드가 인라인되므로, MethodInvocation 객체나 인터셉터 체인 없이 begin -> target 호출 -> end 가 된다.
+ * 메시지, 호출 수만 세는 모드(AdaptiveTracePolicy), 걸린 시간 기록은 LogTraceAdvice 의 InvocationPlan 을 그대로 쓴다.
+ */
+public class LogTraceInlineAdvice {
+
+    @Advice.OnMethodEnter
+    public static TraceStatus enter(@Advice.FieldValue(ByteBuddyProxyEngine.LOG_TRACE_FIELD) final LogTrace logTrace,
+                                    @Advice.FieldValue(ByteBuddyProxyEngine.PLANS_FIELD) final InvocationPlan[] plans,
+                                    @PlanIndex final int index,
+                                    @Advice.Local("startNanos") long startNanos) {
+        final InvocationPlan plan = plans[index];
+        if (!plan.isTraced()) { // 로그를 남기는 비용이 더 큰 메서드는 호출 수만 센다.
+            plan.skip();
+            return null;
+        }
+        final TraceStatus status = logTrace.begin(plan.getMessage());
+        startNanos = System.nanoTime();
+        return status;
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(@Advice.FieldValue(ByteBuddyProxyEngine.LOG_TRACE_FIELD) final LogTrace logTrace,
+                            @Advice.FieldValue(ByteBuddyProxyEngine.PLANS_FIELD) final InvocationPlan[] plans,
+                            @PlanIndex final int index,
+                            @Advice.Local("startNanos") final long startNanos,
+                            @Advice.Enter final TraceStatus status,
+                            @Advice.Thrown final Throwable thrown) {
+        if (status == null) { // 호출 수만 센 호출
+            return;
+        }
+        if (thrown == null) {
+            plans[index].record(System.nanoTime() - startNanos);
+            logTrace.end(status);
+        } else if (thrown instanceof Exception) { // 예외는 그대로 다시 던져진다.
+            logTrace.exception(status, (Exception) thrown);
+        }
+    }
+}
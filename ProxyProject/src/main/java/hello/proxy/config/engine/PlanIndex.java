@@ -0,0 +1,14 @@
+package hello.proxy.config.engine;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link LogTraceInlineAdvice} 의 파라미터에 메서드별 계획(InvocationPlan)의 인덱스 상수를 넣는다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PlanIndex {
+}
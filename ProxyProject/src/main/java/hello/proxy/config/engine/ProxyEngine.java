@@ -0,0 +1,15 @@
+package hello.proxy.config.engine;
+
+import org.springframework.aop.Advisor;
+
+/**
+ * target 에 advisor 를 적용한 프록시를 만드는 방법 <br/>
+ * - {@link SpringProxyEngine}: ProxyFactory (인터페이스가 있으면 JDK 동적 프록시, 없으면 CGLIB)
+ * - {@link ByteBuddyProxyEngine}: ByteBuddy 로 상속 프록시를 만들고 로그 추적 코드를 메서드에 직접 넣는다. (@Advice 인라인)
+ * - {@link FusedProxyEngine}: {@link FusedProxyFactory}, 메서드마다 인터셉터 체인을 미리 만들어 두고 MethodHandle 로 target 을 호출한다.
+ * ProxyFactoryConfigV2, BeanPostProcessorConfig 에서 proxy.engine 으로 고른다. ({@link ProxyEngineConfig})
+ */
+public interface ProxyEngine {
+
+    Object createProxy(Object target, Advisor advisor);
+}
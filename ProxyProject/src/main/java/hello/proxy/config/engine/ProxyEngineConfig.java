@@ -0,0 +1,32 @@
+package hello.proxy.config.engine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProxyEngineConfig {
+
+    /**
+     * proxy.engine
+     * - spring (기본값): ProxyFactory, 인터페이스가 있으면 JDK 동적 프록시 없으면 CGLIB
+     * - cglib: ProxyFactory, 항상 CGLIB
+     * - bytebuddy: ByteBuddy 상속 프록시 + advice 인라인
+     * - fused: 메서드마다 인터셉터 체인을 미리 묶어 둔 프록시 (FusedProxyFactory)
+     */
+    @Bean
+    public ProxyEngine proxyEngine(@Value("${proxy.engine:spring}") String engine) {
+        switch (engine) {
+            case "bytebuddy":
+                return new ByteBuddyProxyEngine();
+            case "fused":
+                return new FusedProxyEngine();
+            case "cglib":
+                return new SpringProxyEngine(true);
+            case "spring":
+                return new SpringProxyEngine();
+            default:
+                throw new IllegalArgumentException("unknown proxy.engine: " + engine);
+        }
+    }
+}
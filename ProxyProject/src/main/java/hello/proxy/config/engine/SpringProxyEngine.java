@@ -0,0 +1,25 @@
+package hello.proxy.config.engine;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+
+public class SpringProxyEngine implements ProxyEngine {
+
+    private final boolean proxyTargetClass; // true 면 인터페이스가 있어도 CGLIB 를 사용한다.
+
+    public SpringProxyEngine() {
+        this(false);
+    }
+
+    public SpringProxyEngine(final boolean proxyTargetClass) {
+        this.proxyTargetClass = proxyTargetClass;
+    }
+
+    @Override
+    public Object createProxy(final Object target, final Advisor advisor) {
+        final ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvisor(advisor);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,104 @@
+package hello.proxy.config.invocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+import hello.proxy.trace.adaptive.MethodTraceStats;
+
+/**
+ * 메서드 하나를 프록시가 처리하는 방법 (처음 호출될 때 한번만 만든다) <br/>
+ * - message: 로그 메시지 (예: OrderServiceV1.orderItem())
+ * - traced: 메서드 이름 패턴에 맞아서 로그를 남기는 메서드인지
+ * - stats: 호출 수, 걸린 시간 ({@link AdaptiveTracePolicy} 가 있으면 그 통계를 함께 쓴다)
+ * - invoker: target 의 메서드를 호출하는 MethodHandle ({@link #invoke(Object, Object[])})
+ */
+public final class InvocationPlan {
+
+    private final Method method;
+    private final String message;
+    private final boolean traced;
+    private final MethodTraceStats stats;
+    private final AdaptiveTracePolicy policy; // null 이면 모드를 바꾸지 않고 통계만 모은다.
+    private final MethodHandle invoker; // (Object target, Object[] args)Object
+
+    InvocationPlan(Method method, String message, boolean traced, MethodTraceStats stats, AdaptiveTracePolicy policy, MethodHandle invoker) {
+        this.method = method;
+        this.message = message;
+        this.traced = traced;
+        this.stats = stats;
+        this.policy = policy;
+        this.invoker = invoker;
+    }
+
+    /**
+     * method.invoke(target, args) 대신 사용한다. <br/>
+     * 접근 검사와 인자 검사를 계획을 만들 때 한번만 하고, target 이 던진 예외를 InvocationTargetException 으로 감싸지 않고 그대로 던진다.
+     */
+    public Object invoke(final Object target, final Object[] args) throws Throwable {
+        return invoker.invokeExact(target, args);
+    }
+
+    /**
+     * 로그를 남겨야 하면 true. 패턴에 맞지 않거나, 호출 수만 세는 모드로 바뀐 메서드면 false
+     */
+    public boolean isTraced() {
+        return traced && !stats.isCountingOnly();
+    }
+
+    /**
+     * 로그를 남기지 않고 호출할 때 사용한다. (패턴에 맞지 않는 메서드는 세지 않는다)
+     */
+    public void skip() {
+        if (traced) {
+            stats.count();
+        }
+    }
+
+    /**
+     * 로그를 남긴 호출이 끝났을 때 걸린 시간을 기록한다.
+     */
+    public void record(final long durationNanos) {
+        if (policy == null) {
+            stats.record(durationNanos);
+        } else {
+            policy.record(stats, durationNanos);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public MethodTraceStats getStats() {
+        return stats;
+    }
+
+    /**
+     * LogTraceBasicHandler, LogTraceAdvice 의 메시지 형식 (예: OrderServiceV1.orderItem())
+     */
+    public static String simpleName(final Method method) {
+        return typeName(method.getDeclaringClass()) + "." + method.getName() + "()";
+    }
+
+    /**
+     * LogTraceAspect 의 메시지 형식, joinPoint.getSignature().toShortString() 과 같다. (예: OrderServiceV1.orderItem(..))
+     */
+    public static String shortSignature(final Method method) {
+        return typeName(method.getDeclaringClass()) + "." + method.getName() + (method.getParameterCount() == 0 ? "()" : "(..)");
+    }
+
+    /**
+     * 익명 클래스는 이름이 없으므로 상속한 클래스(Object 면 구현한 인터페이스)의 이름을 쓴다.
+     */
+    private static String typeName(Class<?> type) {
+        while (type.isAnonymousClass()) {
+            type = type.getSuperclass() != Object.class || type.getInterfaces().length == 0 ? type.getSuperclass() : type.getInterfaces()[0];
+        }
+        return type.getSimpleName();
+    }
+}
@@ -0,0 +1,119 @@
+package hello.proxy.config.invocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.util.PatternMatchUtils;
+
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+import hello.proxy.trace.adaptive.MethodTraceStats;
+
+/**
+ * Method -> {@link InvocationPlan} 캐시 <br/>
+ * 프록시의 모든 호출에서 조회하므로 읽기는 락 없이 IdentityHashMap(== 비교) 하나만 본다.
+ * 새 메서드가 처음 호출될 때만 락을 잡고 맵을 복사해서 교체한다. (copy-on-write, 메서드 수는 금방 고정된다) <br/>
+ * 같은 메서드의 다른 Method 인스턴스가 들어오면 이미 만든 계획을 함께 쓴다. (통계가 나뉘지 않도록)
+ */
+public final class InvocationPlanCache {
+
+    private final Function<Method, String> messageFactory;
+    private final String[] patterns; // null 이면 모든 메서드에 로그를 남긴다.
+    private final AdaptiveTracePolicy policy; // null 가능
+
+    private final Object lock = new Object();
+    private volatile Map<Method, InvocationPlan> plans = new IdentityHashMap<>();
+
+    public InvocationPlanCache() {
+        this(InvocationPlan::simpleName, null, null);
+    }
+
+    /**
+     * @param patterns 메서드 이름 패턴 (예: request*, order*, save*), 맞지 않는 메서드는 로그를 남기지 않는다.
+     */
+    public InvocationPlanCache(final String... patterns) {
+        this(InvocationPlan::simpleName, patterns, null);
+    }
+
+    public InvocationPlanCache(final AdaptiveTracePolicy policy) {
+        this(InvocationPlan::simpleName, null, policy);
+    }
+
+    public InvocationPlanCache(final Function<Method, String> messageFactory, final String[] patterns, final AdaptiveTracePolicy policy) {
+        this.messageFactory = messageFactory;
+        this.patterns = patterns == null ? null : patterns.clone();
+        this.policy = policy;
+    }
+
+    public InvocationPlan get(final Method method) {
+        final InvocationPlan plan = plans.get(method);
+        return plan != null ? plan : create(method);
+    }
+
+    private InvocationPlan create(Method method) {
+        synchronized (lock) {
+            final Map<Method, InvocationPlan> current = plans;
+            InvocationPlan plan = current.get(method);
+            if (plan != null) {
+                return plan;
+            }
+            for (InvocationPlan existing : current.values()) {
+                if (existing.getMethod().equals(method)) {
+                    plan = existing;
+                    break;
+                }
+            }
+            if (plan == null) {
+                plan = newPlan(method);
+            }
+            final Map<Method, InvocationPlan> copy = new IdentityHashMap<>(current);
+            copy.put(method, plan);
+            plans = copy;
+            return plan;
+        }
+    }
+
+    private InvocationPlan newPlan(Method method) {
+        final boolean traced = patterns == null || PatternMatchUtils.simpleMatch(patterns, method.getName());
+        final MethodTraceStats stats = policy == null ? new MethodTraceStats(method) : policy.stats(method);
+        return new InvocationPlan(method, messageFactory.apply(method), traced, stats, policy, invoker(method));
+    }
+
+    /**
+     * (Object target, Object[] args)Object 형태로 맞춘 MethodHandle. 프록시의 invoke 에 들어오는 인자를 그대로 넘길 수 있다. <br/>
+     * 인자가 없는 메서드는 args 가 null 로 들어오는데, asSpreader 는 길이 0 이면 null 도 받아준다.
+     */
+    private static MethodHandle invoker(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) { // public 이 아닌 인터페이스 (같은 패키지의 프록시)
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("cannot access " + method, ex);
+            }
+        }
+        return handle.asFixedArity()
+                     .asSpreader(Object[].class, method.getParameterCount())
+                     .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * 지금까지 만든 계획 (메시지순, 중복 없이)
+     */
+    public List<InvocationPlan> plans() {
+        final List<InvocationPlan> result = new ArrayList<>(new LinkedHashSet<>(plans.values()));
+        result.sort(Comparator.comparing(InvocationPlan::getMessage));
+        return result;
+    }
+}
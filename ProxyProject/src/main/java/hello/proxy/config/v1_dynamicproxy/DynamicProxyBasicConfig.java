@@ -11,18 +11,21 @@ import hello.proxy.app.v1.OrderRepositoryV1;
 import hello.proxy.app.v1.OrderRepositoryV1Impl;
 import hello.proxy.app.v1.OrderServiceV1;
 import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.config.v1_dynamicproxy.handler.LogTraceBasicHandler;
 import hello.proxy.trace.logtrace.LogTrace;
 
 @Configuration
 public class DynamicProxyBasicConfig {
 
+    private final InvocationPlanCache plans = new InvocationPlanCache(); // 세 프록시가 함께 쓴다.
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         final OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
         final OrderControllerV1 proxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
                                                                                    new Class[] { OrderControllerV1.class },
-                                                                                   new LogTraceBasicHandler(orderController, logTrace));
+                                                                                   new LogTraceBasicHandler(orderController, logTrace, plans));
         return proxy;
     }
 
@@ -31,7 +34,7 @@ public class DynamicProxyBasicConfig {
         final OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
         final OrderServiceV1 proxy = (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
                                                                              new Class[] { OrderServiceV1.class },
-                                                                             new LogTraceBasicHandler(orderService, logTrace));
+                                                                             new LogTraceBasicHandler(orderService, logTrace, plans));
         return proxy;
     }
 
@@ -41,7 +44,7 @@ public class DynamicProxyBasicConfig {
         // 인터페이스 기반으로 프록시 타입이 정해지기 때문에 캐스팅을 하면 된다.
         final OrderRepositoryV1 proxy = (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
                                                                                    new Class[] { OrderRepositoryV1.class },
-                                                                                   new LogTraceBasicHandler(orderRepository, logTrace));
+                                                                                   new LogTraceBasicHandler(orderRepository, logTrace, plans));
         return proxy;
     }
 }
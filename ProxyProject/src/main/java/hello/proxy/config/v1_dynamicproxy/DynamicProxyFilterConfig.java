@@ -11,6 +11,7 @@ import hello.proxy.app.v1.OrderRepositoryV1;
 import hello.proxy.app.v1.OrderRepositoryV1Impl;
 import hello.proxy.app.v1.OrderServiceV1;
 import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.config.v1_dynamicproxy.handler.LogTraceFilterHandler;
 import hello.proxy.trace.logtrace.LogTrace;
 
@@ -19,12 +20,14 @@ public class DynamicProxyFilterConfig {
 
     private static final String[] PATTERNS = { "request*", "order*", "save*" };
 
+    private final InvocationPlanCache plans = new InvocationPlanCache(PATTERNS); // 세 프록시가 함께 쓴다.
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         final OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
         final OrderControllerV1 proxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
                                                                                    new Class[] { OrderControllerV1.class },
-                                                                                   new LogTraceFilterHandler(orderController, logTrace, PATTERNS));
+                                                                                   new LogTraceFilterHandler(orderController, logTrace, plans));
         return proxy;
     }
 
@@ -33,7 +36,7 @@ public class DynamicProxyFilterConfig {
         final OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
         final OrderServiceV1 proxy = (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
                                                                              new Class[] { OrderServiceV1.class },
-                                                                             new LogTraceFilterHandler(orderService, logTrace, PATTERNS));
+                                                                             new LogTraceFilterHandler(orderService, logTrace, plans));
         return proxy;
     }
 
@@ -43,7 +46,7 @@ public class DynamicProxyFilterConfig {
         // 인터페이스 기반으로 프록시 타입이 정해지기 때문에 캐스팅을 하면 된다.
         final OrderRepositoryV1 proxy = (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
                                                                                    new Class[] { OrderRepositoryV1.class },
-                                                                                   new LogTraceFilterHandler(orderRepository, logTrace, PATTERNS));
+                                                                                   new LogTraceFilterHandler(orderRepository, logTrace, plans));
         return proxy;
     }
 }
@@ -3,6 +3,8 @@ package hello.proxy.config.v1_dynamicproxy.handler;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
@@ -10,20 +12,36 @@ public class LogTraceBasicHandler implements InvocationHandler { //  java.lang.r
 
     private final Object target;
     private final LogTrace logTrace;
+    private final InvocationPlanCache plans; // 메시지를 호출마다 만들지 않고 메서드별로 한번만 만든다.
 
     public LogTraceBasicHandler(final Object target, final LogTrace logTrace) {
+        this(target, logTrace, new InvocationPlanCache());
+    }
+
+    /**
+     * @param plans 여러 프록시가 함께 쓸 수 있다.
+     */
+    public LogTraceBasicHandler(final Object target, final LogTrace logTrace, final InvocationPlanCache plans) {
         this.target = target;
         this.logTrace = logTrace;
+        this.plans = plans;
     }
 
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        final InvocationPlan plan = plans.get(method);
+        if (!plan.isTraced()) {
+            plan.skip();
+            return plan.invoke(target, args);
+        }
+
         TraceStatus status = null;
         try {
-            final String message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()"; // 메서드를 선언한 클래스를 SimpleName을 가져오고, 메서드의 이름을 가져오면 된다.
-            status = logTrace.begin(message);
-            // target 호출 (로직 호출)
-            final Object result = method.invoke(target, args);
+            status = logTrace.begin(plan.getMessage()); // 예: OrderServiceV1.orderItem()
+            // target 호출 (로직 호출), 예외는 감싸지 않고 그대로 올라온다.
+            final long startNanos = System.nanoTime();
+            final Object result = plan.invoke(target, args);
+            plan.record(System.nanoTime() - startNanos);
             logTrace.end(status);
             return result;
         } catch (Exception e) {
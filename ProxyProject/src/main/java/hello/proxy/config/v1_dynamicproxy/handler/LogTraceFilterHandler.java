@@ -3,8 +3,8 @@ package hello.proxy.config.v1_dynamicproxy.handler;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
-import org.springframework.util.PatternMatchUtils;
-
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
@@ -12,30 +12,41 @@ public class LogTraceFilterHandler implements InvocationHandler { //  java.lang.
 
     private final Object target;
     private final LogTrace logTrace;
-    private final String[] pattern; // 이 패턴일 때만, 로그를 남기도록 할 것이다.
+    private final InvocationPlanCache plans; // 패턴 검사 결과와 메시지를 메서드별로 한번만 만든다.
 
+    /**
+     * @param pattern 이 패턴일 때만, 로그를 남기도록 할 것이다. (save, request, reque*, *est 와 같은 패턴)
+     */
     public LogTraceFilterHandler(final Object target, final LogTrace logTrace, final String[] pattern) {
+        this(target, logTrace, new InvocationPlanCache(pattern));
+    }
+
+    /**
+     * @param plans 패턴을 가진 캐시, 같은 패턴을 쓰는 여러 프록시가 함께 쓸 수 있다.
+     */
+    public LogTraceFilterHandler(final Object target, final LogTrace logTrace, final InvocationPlanCache plans) {
         this.target = target;
         this.logTrace = logTrace;
-        this.pattern = pattern;
+        this.plans = plans;
     }
 
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
 
-        // 메서드 이름 필터
-        final String methodName = method.getName();
-        // save, request, reque*, *est 와 같은 패턴 적용
-        if (!PatternMatchUtils.simpleMatch(pattern, methodName)) {
-            return method.invoke(target, args); // 다른 로직을 처리하지 않고, 실제 메서드를 호출하도록 한다.
+        // 메서드 이름 필터 (처음 호출될 때 한번만 검사한다)
+        final InvocationPlan plan = plans.get(method);
+        if (!plan.isTraced()) {
+            plan.skip();
+            return plan.invoke(target, args); // 다른 로직을 처리하지 않고, 실제 메서드를 호출하도록 한다.
         }
 
         TraceStatus status = null;
         try {
-            final String message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()"; // 메서드를 선언한 클래스를 SimpleName을 가져오고, 메서드의 이름을 가져오면 된다.
-            status = logTrace.begin(message);
-            // target 호출 (로직 호출)
-            final Object result = method.invoke(target, args);
+            status = logTrace.begin(plan.getMessage()); // 예: OrderServiceV1.orderItem()
+            // target 호출 (로직 호출), 예외는 감싸지 않고 그대로 올라온다.
+            final long startNanos = System.nanoTime();
+            final Object result = plan.invoke(target, args);
+            plan.record(System.nanoTime() - startNanos);
             logTrace.end(status);
             return result;
         } catch (Exception e) {
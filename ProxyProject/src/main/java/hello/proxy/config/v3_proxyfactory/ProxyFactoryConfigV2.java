@@ -1,55 +1,49 @@
 package hello.proxy.config.v3_proxyfactory;
 
 import org.springframework.aop.Advisor;
-import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.engine.ProxyEngine;
+import hello.proxy.config.engine.ProxyEngineConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
+@Import(ProxyEngineConfig.class) // proxy.engine=spring|cglib|bytebuddy
 public class ProxyFactoryConfigV2 {
 
     @Bean
-    public OrderControllerV2 orderControllerV2(LogTrace logTrace){
-        final OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace));
-        final ProxyFactory factory = new ProxyFactory(orderController);
-        factory.addAdvisor(getAdvisor(logTrace));
-
-        final OrderControllerV2 proxy = (OrderControllerV2) factory.getProxy();
-        log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
+    public OrderControllerV2 orderControllerV2(LogTrace logTrace, ProxyEngine proxyEngine){
+        final OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace, proxyEngine));
+        final OrderControllerV2 proxy = (OrderControllerV2) proxyEngine.createProxy(orderController, getAdvisor(logTrace));
+        log.info("proxy={}, target={}", proxy.getClass(), orderController.getClass());
 
         return proxy;
     }
 
     @Bean
-    public OrderServiceV2 orderServiceV2(LogTrace logTrace){
-        final OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace));
-        final ProxyFactory factory = new ProxyFactory(orderService);
-        factory.addAdvisor(getAdvisor(logTrace));
-
-        final OrderServiceV2 proxy = (OrderServiceV2) factory.getProxy();
-        log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
+    public OrderServiceV2 orderServiceV2(LogTrace logTrace, ProxyEngine proxyEngine){
+        final OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace, proxyEngine));
+        final OrderServiceV2 proxy = (OrderServiceV2) proxyEngine.createProxy(orderService, getAdvisor(logTrace));
+        log.info("proxy={}, target={}", proxy.getClass(), orderService.getClass());
 
         return proxy;
     }
 
     @Bean
-    public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace) {
+    public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace, ProxyEngine proxyEngine) {
         final OrderRepositoryV2 orderRepository = new OrderRepositoryV2();
-        final ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(getAdvisor(logTrace));
-
-        final OrderRepositoryV2 proxy = (OrderRepositoryV2) factory.getProxy();
-        log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
+        final OrderRepositoryV2 proxy = (OrderRepositoryV2) proxyEngine.createProxy(orderRepository, getAdvisor(logTrace));
+        log.info("proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
     }
 
@@ -1,30 +1,58 @@
 package hello.proxy.config.v3_proxyfactory.advice;
 
-import java.lang.reflect.Method;
-
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
 import hello.proxy.trace.logtrace.LogTrace;
 
 public class LogTraceAdvice implements MethodInterceptor {
 
     private final LogTrace logTrace;
+    private final InvocationPlanCache plans; // 메시지와 통계를 메서드별로 한번만 만든다.
 
     public LogTraceAdvice(final LogTrace logTrace) {
+        this(logTrace, (AdaptiveTracePolicy) null);
+    }
+
+    /**
+     * @param policy null 이면 항상 로그를 남긴다.
+     */
+    public LogTraceAdvice(final LogTrace logTrace, final AdaptiveTracePolicy policy) {
+        this(logTrace, new InvocationPlanCache(policy));
+    }
+
+    public LogTraceAdvice(final LogTrace logTrace, final InvocationPlanCache plans) {
         this.logTrace = logTrace;
+        this.plans = plans;
+    }
+
+    public LogTrace getLogTrace() {
+        return logTrace;
+    }
+
+    public InvocationPlanCache getPlans() {
+        return plans;
     }
 
     @Override
     public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final InvocationPlan plan = plans.get(invocation.getMethod());
+        if (!plan.isTraced()) { // 로그를 남기는 비용이 더 큰 메서드는 호출 수만 센다.
+            plan.skip();
+            return invocation.proceed();
+        }
+
         TraceStatus status = null;
         try {
-            final Method method = invocation.getMethod();
-            final String message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()"; // 메서드를 선언한 클래스를 SimpleName을 가져오고, 메서드의 이름을 가져오면 된다.
-            status = logTrace.begin(message);
+            status = logTrace.begin(plan.getMessage()); // 예: OrderServiceV1.orderItem()
             // target 호출 (로직 호출)
+            final long startNanos = System.nanoTime();
             final Object result = invocation.proceed();
+            plan.record(System.nanoTime() - startNanos);
             logTrace.end(status);
             return result;
         } catch (Exception e) {
@@ -9,6 +9,8 @@ import org.springframework.context.annotation.Import;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.engine.ProxyEngine;
+import hello.proxy.config.engine.ProxyEngineConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
 import hello.proxy.trace.logtrace.LogTrace;
@@ -16,12 +18,12 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Configuration
-@Import({ AppV1Config.class, AppV2Config.class })
+@Import({ AppV1Config.class, AppV2Config.class, ProxyEngineConfig.class })
 public class BeanPostProcessorConfig {
 
     @Bean
-    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace){
-        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace));
+    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace, ProxyEngine proxyEngine){
+        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace), proxyEngine);
     }
 
     private Advisor getAdvisor(final LogTrace logTrace) {
@@ -1,10 +1,11 @@
 package hello.proxy.config.v4_postprocessor.postprocessor;
 
 import org.springframework.aop.Advisor;
-import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 
+import hello.proxy.config.engine.ProxyEngine;
+import hello.proxy.config.engine.SpringProxyEngine;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -12,10 +13,16 @@ public class PackageLogTracePostProcessor implements BeanPostProcessor {
 
     private final String basePackage;
     private final Advisor advisor;
+    private final ProxyEngine proxyEngine;
 
     public PackageLogTracePostProcessor(final String basePackage, final Advisor advisor) {
+        this(basePackage, advisor, new SpringProxyEngine());
+    }
+
+    public PackageLogTracePostProcessor(final String basePackage, final Advisor advisor, final ProxyEngine proxyEngine) {
         this.basePackage = basePackage;
         this.advisor = advisor;
+        this.proxyEngine = proxyEngine;
     }
 
     @Override
@@ -30,9 +37,7 @@ public class PackageLogTracePostProcessor implements BeanPostProcessor {
         }
 
         // 프록시 대상이면 프록시를 만들어서 반환
-        final ProxyFactory proxyFactory = new ProxyFactory(bean);
-        proxyFactory.addAdvisor(advisor);
-        final Object proxy = proxyFactory.getProxy();
+        final Object proxy = proxyEngine.createProxy(bean, advisor);
         log.info("create proxy: target={} proxy={}", bean.getClass(), proxy.getClass());
         return proxy; // 이 프록시 객체가 스프링 빈에 등록된다.
     }
@@ -9,11 +9,13 @@ import org.springframework.context.annotation.Import;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.adaptive.AdaptiveTraceConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
 import hello.proxy.trace.logtrace.LogTrace;
 
 @Configuration
-@Import({ AppV1Config.class, AppV2Config.class })
+@Import({ AppV1Config.class, AppV2Config.class, AdaptiveTraceConfig.class })
 public class AutoProxyConfig {
 
     /**
@@ -33,13 +35,13 @@ public class AutoProxyConfig {
 //    }
 
     @Bean
-    public Advisor advisor2(final LogTrace logTrace) {
+    public Advisor advisor2(final LogTrace logTrace, final AdaptiveTracePolicy adaptiveTracePolicy) {
         // pointcut
         final AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
         pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
 
         // advice
-        final LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        final LogTraceAdvice advice = new LogTraceAdvice(logTrace, adaptiveTracePolicy); // 짧고 자주 호출되는 메서드는 스스로 로그를 끈다.
 
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
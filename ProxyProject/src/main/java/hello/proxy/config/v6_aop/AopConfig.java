@@ -6,15 +6,17 @@ import org.springframework.context.annotation.Import;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.adaptive.AdaptiveTraceConfig;
 import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
 import hello.proxy.trace.logtrace.LogTrace;
 
 @Configuration
-@Import({ AppV1Config.class, AppV2Config.class })
+@Import({ AppV1Config.class, AppV2Config.class, AdaptiveTraceConfig.class })
 public class AopConfig {
 
     @Bean
-    public LogTraceAspect logTraceAspect(LogTrace logTrace) {
-        return new LogTraceAspect(logTrace);
+    public LogTraceAspect logTraceAspect(LogTrace logTrace, AdaptiveTracePolicy adaptiveTracePolicy) {
+        return new LogTraceAspect(logTrace, adaptiveTracePolicy);
     }
 }
@@ -3,8 +3,12 @@ package hello.proxy.config.v6_aop.aspect;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
 import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,20 +17,36 @@ import lombok.extern.slf4j.Slf4j;
 public class LogTraceAspect {
 
     private final LogTrace logTrace;
+    private final InvocationPlanCache plans; // 메시지와 통계를 메서드별로 한번만 만든다.
 
     public LogTraceAspect(final LogTrace logTrace) {
+        this(logTrace, null);
+    }
+
+    /**
+     * @param policy null 이면 항상 로그를 남긴다.
+     */
+    public LogTraceAspect(final LogTrace logTrace, final AdaptiveTracePolicy policy) {
         this.logTrace = logTrace;
+        this.plans = new InvocationPlanCache(InvocationPlan::shortSignature, null, policy); // joinPoint.getSignature().toShortString() 과 같은 메시지
     }
 
     // 이 자체가 어드바이저
     @Around("execution(* hello.proxy.app..*(..))") // 포인트컷
     public Object execute(ProceedingJoinPoint joinPoint) throws Throwable { // 어드바이스(로직)
+        final InvocationPlan plan = plans.get(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (!plan.isTraced()) { // 로그를 남기는 비용이 더 큰 메서드는 호출 수만 센다.
+            plan.skip();
+            return joinPoint.proceed();
+        }
+
         TraceStatus status = null;
         try {
-            final String message = joinPoint.getSignature().toShortString();
-            status = logTrace.begin(message);
+            status = logTrace.begin(plan.getMessage()); // 예: OrderServiceV1.orderItem(..)
             // target 호출 (로직 호출)
+            final long startNanos = System.nanoTime();
             final Object result = joinPoint.proceed();
+            plan.record(System.nanoTime() - startNanos);
             logTrace.end(status);
             return result;
         } catch (Exception e) {
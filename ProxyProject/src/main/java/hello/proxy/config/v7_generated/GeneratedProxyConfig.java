@@ -0,0 +1,24 @@
+package hello.proxy.config.v7_generated;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.AppV2Config;
+import hello.proxy.config.v7_generated.postprocessor.GeneratedProxyPostProcessor;
+import hello.proxy.trace.logtrace.LogTrace;
+
+/**
+ * 컴파일할 때 만들어진 프록시(@TraceProxy -> *_TraceProxy)를 빈으로 등록한다. <br/>
+ * 직접 만든 프록시(v1_proxy, v2_proxy)와 같은 속도로 호출되고, 런타임에 JDK 동적 프록시나 CGLIB 로 클래스를 만들지 않는다.
+ */
+@Configuration
+@Import({ AppV1Config.class, AppV2Config.class })
+public class GeneratedProxyConfig {
+
+    @Bean
+    public GeneratedProxyPostProcessor generatedProxyPostProcessor(LogTrace logTrace) {
+        return new GeneratedProxyPostProcessor("hello.proxy.app", logTrace);
+    }
+}
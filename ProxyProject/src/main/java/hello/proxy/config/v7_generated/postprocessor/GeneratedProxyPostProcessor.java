@@ -0,0 +1,71 @@
+package hello.proxy.config.v7_generated.postprocessor;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * basePackage 의 빈을 같은 패키지에 생성된 {@code <타입 이름>_TraceProxy} 로 바꿔서 등록한다. <br/>
+ * 빈의 클래스 -> 부모 클래스 -> 인터페이스 순서로 찾는다. 생성된 프록시가 없는 빈은 원본을 그대로 등록한다.
+ * Proxy.newProxyInstance, ProxyFactory 대신 생성된 클래스의 생성자 (target, logTrace) 를 호출할 뿐이다.
+ */
+@Slf4j
+public class GeneratedProxyPostProcessor implements BeanPostProcessor {
+
+    private static final String SUFFIX = "_TraceProxy"; // TraceProxy.SUFFIX (애너테이션 프로세서는 컴파일할 때만 사용한다)
+
+    private final String basePackage;
+    private final LogTrace logTrace;
+
+    public GeneratedProxyPostProcessor(final String basePackage, final LogTrace logTrace) {
+        this.basePackage = basePackage;
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
+        final Class<?> beanClass = bean.getClass();
+        if (!beanClass.getPackageName().startsWith(basePackage) || beanClass.getName().endsWith(SUFFIX)) {
+            return bean;
+        }
+
+        for (Class<?> type : candidates(beanClass)) {
+            final Constructor<?> constructor = proxyConstructor(type);
+            if (constructor != null) {
+                final Object proxy = BeanUtils.instantiateClass(constructor, bean, logTrace);
+                log.info("create generated proxy: target={} proxy={}", beanClass, proxy.getClass());
+                return proxy; // 이 프록시 객체가 스프링 빈에 등록된다.
+            }
+        }
+        return bean;
+    }
+
+    private static List<Class<?>> candidates(Class<?> beanClass) {
+        final List<Class<?>> candidates = new ArrayList<>();
+        for (Class<?> type = beanClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            candidates.add(type);
+        }
+        candidates.addAll(ClassUtils.getAllInterfacesForClassAsSet(beanClass));
+        return candidates;
+    }
+
+    private static Constructor<?> proxyConstructor(Class<?> type) {
+        final String proxyName = type.getName() + SUFFIX;
+        if (!ClassUtils.isPresent(proxyName, type.getClassLoader())) {
+            return null;
+        }
+        try {
+            return ClassUtils.forName(proxyName, type.getClassLoader()).getConstructor(type, LogTrace.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("invalid generated proxy: " + proxyName, e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package hello.proxy.trace.adaptive;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 아주 짧고 자주 호출되는 메서드(예: getter)는 로그를 남기는 비용이 메서드 자체보다 크다. <br/>
+ * 메서드별로 창(window) 동안 호출 수와 평균 시간을 모으고, 창 길이(windowMs)당 minCalls 번 이상 호출됐고 평균이 maxAvgNanos 이하이면
+ * 그 메서드는 로그를 남기지 않고 호출 수만 세는 모드(COUNTING_ONLY)로 바꾼다. <br/>
+ * 창은 windowMs 가 지난 뒤 첫 호출에서 닫히므로, 호출 수를 창이 실제로 열려 있던 시간으로 나눈 비율로 비교한다.
+ * (드문드문 호출되는 메서드가 긴 창에 호출 수를 쌓아서 바뀌지 않도록) <br/>
+ * 바뀐 메서드는 {@link #reset(String)} 으로 다시 로그를 남기게 할 수 있다. (GET/POST /trace/adaptive)
+ */
+@Slf4j
+public class AdaptiveTracePolicy {
+
+    private final ConcurrentHashMap<Method, MethodTraceStats> stats = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+    private final long minCalls;
+    private final long maxAvgNanos;
+
+    public AdaptiveTracePolicy() {
+        this(1000, 1000, 1000);
+    }
+
+    /**
+     * @param windowMs    판단 주기
+     * @param minCalls    windowMs 당 이 횟수 이상 호출돼야 한다. (자주 호출)
+     * @param maxAvgNanos 평균이 이 값 이하여야 한다. (아주 짧음)
+     */
+    public AdaptiveTracePolicy(final long windowMs, final long minCalls, final long maxAvgNanos) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.minCalls = minCalls;
+        this.maxAvgNanos = maxAvgNanos;
+    }
+
+    public MethodTraceStats stats(final Method method) {
+        final MethodTraceStats found = stats.get(method); // 대부분은 이미 있으므로 락 없이 조회부터 한다.
+        return found != null ? found : stats.computeIfAbsent(method, key -> new MethodTraceStats(key, System.nanoTime()));
+    }
+
+    /**
+     * TRACED 모드에서 메서드가 끝날 때 호출한다. 창이 끝났으면 모드를 판단한다.
+     */
+    public void record(final MethodTraceStats methodStats, final long durationNanos) {
+        final long now = System.nanoTime();
+        if (methodStats.record(durationNanos, now, windowNanos)) {
+            evaluate(methodStats, now);
+        }
+    }
+
+    private void evaluate(MethodTraceStats methodStats, long now) {
+        final long[] window;
+        final long callsPerWindow;
+        synchronized (methodStats) { // 창이 끝난 것을 여러 쓰레드가 동시에 봐도 한번만 판단한다.
+            if (methodStats.isCountingOnly() || !methodStats.isWindowOver(now, windowNanos)) {
+                return;
+            }
+            window = methodStats.rollWindow(now);
+            callsPerWindow = window[0] * windowNanos / window[2]; // window[2] >= windowNanos > 0
+            if (callsPerWindow >= minCalls && window[1] <= maxAvgNanos) {
+                methodStats.switchMode(true, now);
+            } else {
+                return;
+            }
+        }
+        log.info("trace disabled for {}: calls={} avg={}ns in {}ms, {} calls per {}ms (counting only)", methodStats.getName(),
+                window[0], window[1], TimeUnit.NANOSECONDS.toMillis(window[2]), callsPerWindow, TimeUnit.NANOSECONDS.toMillis(windowNanos));
+    }
+
+    /**
+     * 이름(예: OrderServiceV1.orderItem())이 같은 메서드를 다시 로그를 남기는 모드로 되돌린다.
+     *
+     * @return 되돌린 메서드 수
+     */
+    public int reset(final String name) {
+        int count = 0;
+        for (MethodTraceStats methodStats : stats.values()) {
+            if (methodStats.getName().equals(name) && methodStats.isCountingOnly()) {
+                restore(methodStats);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int resetAll() {
+        int count = 0;
+        for (MethodTraceStats methodStats : stats.values()) {
+            if (methodStats.isCountingOnly()) {
+                restore(methodStats);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void restore(MethodTraceStats methodStats) {
+        synchronized (methodStats) {
+            methodStats.switchMode(false, System.nanoTime());
+        }
+        log.info("trace re-enabled for {}", methodStats.getName());
+    }
+
+    /**
+     * 이름순
+     */
+    public List<MethodTraceStats> snapshot() {
+        final List<MethodTraceStats> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparing(MethodTraceStats::getName));
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+package hello.proxy.trace.adaptive;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메서드 하나의 트레이스 통계와 현재 모드 <br/>
+ * 로그를 남기는 동안(TRACED)에는 호출 수와 걸린 시간을 모으고, {@link AdaptiveTracePolicy} 가 정한 창(window)이 끝날 때마다 판단한다.
+ * 로그를 끄면(COUNTING_ONLY) 호출 수만 센다.
+ */
+public final class MethodTraceStats {
+
+    private final Method method;
+    private final String name; // 예: OrderServiceV1.orderItem()
+
+    private volatile boolean countingOnly;
+    private volatile long switchedAtMs; // 마지막으로 모드가 바뀐 시각 (한번도 안 바뀌었으면 0)
+
+    private final LongAdder tracedCount = new LongAdder();
+    private final LongAdder countedCount = new LongAdder(); // COUNTING_ONLY 동안의 호출 수
+    private final LongAdder totalNanos = new LongAdder(); // TRACED 동안 걸린 시간 합
+
+    private final LongAdder windowCount = new LongAdder();
+    private final LongAdder windowNanos = new LongAdder();
+    private volatile long windowStartNanos;
+    private volatile long lastWindowAvgNanos = -1L; // 마지막으로 끝난 창의 평균, 없으면 -1
+
+    public MethodTraceStats(final Method method) {
+        this(method, System.nanoTime());
+    }
+
+    MethodTraceStats(Method method, long nowNanos) {
+        this.method = method;
+        this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+        this.windowStartNanos = nowNanos;
+    }
+
+    public boolean isCountingOnly() {
+        return countingOnly;
+    }
+
+    /**
+     * COUNTING_ONLY 일 때 호출한다.
+     */
+    public void count() {
+        countedCount.increment();
+    }
+
+    /**
+     * {@link AdaptiveTracePolicy} 없이 통계만 모을 때 사용한다. (모드를 바꾸지 않는다)
+     */
+    public void record(final long durationNanos) {
+        tracedCount.increment();
+        totalNanos.add(durationNanos);
+    }
+
+    /**
+     * TRACED 일 때 메서드가 끝나면 호출한다.
+     *
+     * @return 창이 끝났으면 true ({@link AdaptiveTracePolicy} 가 판단한다)
+     */
+    boolean record(long durationNanos, long nowNanos, long windowNanos) {
+        tracedCount.increment();
+        totalNanos.add(durationNanos);
+        windowCount.increment();
+        this.windowNanos.add(durationNanos);
+        return isWindowOver(nowNanos, windowNanos);
+    }
+
+    boolean isWindowOver(long nowNanos, long windowNanos) {
+        return nowNanos - windowStartNanos >= windowNanos;
+    }
+
+    /**
+     * 끝난 창의 호출 수와 평균, 실제 길이를 구하고 새 창을 시작한다. 한 쓰레드만 실행하도록 policy 에서 동기화한다. <br/>
+     * 창은 windowNanos 가 지난 뒤 첫 호출에서 닫히므로 실제 길이는 windowNanos 보다 길 수 있다. (드문드문 호출되면 훨씬 길다)
+     *
+     * @return {호출 수, 평균 나노초, 창의 실제 길이 나노초}
+     */
+    long[] rollWindow(long nowNanos) {
+        final long count = windowCount.sumThenReset();
+        final long nanos = windowNanos.sumThenReset();
+        final long elapsed = nowNanos - windowStartNanos;
+        windowStartNanos = nowNanos;
+        final long avg = count == 0 ? 0 : nanos / count;
+        lastWindowAvgNanos = avg;
+        return new long[]{count, avg, elapsed};
+    }
+
+    void switchMode(boolean countingOnly, long nowNanos) {
+        windowCount.reset();
+        windowNanos.reset();
+        windowStartNanos = nowNanos;
+        this.countingOnly = countingOnly;
+        this.switchedAtMs = System.currentTimeMillis();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTracedCount() {
+        return tracedCount.sum();
+    }
+
+    public long getCountedCount() {
+        return countedCount.sum();
+    }
+
+    /**
+     * TRACED 동안의 평균 (나노초)
+     */
+    public long getAvgNanos() {
+        final long count = tracedCount.sum();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    public long getLastWindowAvgNanos() {
+        return lastWindowAvgNanos;
+    }
+
+    public long getSwitchedAtMs() {
+        return switchedAtMs;
+    }
+}
@@ -0,0 +1,282 @@
+package hello.proxy.trace.logtrace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청 쓰레드에서는 begin/end/exception 이벤트를 미리 할당된 링 버퍼에 기록만 하고,
+ * 실제 로그 출력(포맷팅 + appender I/O)은 백그라운드 writer 쓰레드 하나가 담당한다. <br/>
+ * 여러 요청 쓰레드가 동시에 기록할 수 있으며(multi-producer), 버퍼가 가득 찼을 때는 {@link OverflowPolicy}에 따라 기다리거나 버린다.
+ */
+@Slf4j
+public class AsyncLogTrace implements LogTrace {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    private static final byte BEGIN = 0;
+    private static final byte END = 1;
+    private static final byte EXCEPTION = 2;
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long WRITER_PARK_NANOS = 100_000L;
+    private static final long CLOSED = Long.MAX_VALUE; // writer 가 끝나면서 claimSequence 에 넣는 값, 이후에는 차지할 수 없다.
+
+    /**
+     * 링 버퍼가 가득 찼을 때의 처리 방법
+     */
+    public enum OverflowPolicy {
+        WAIT, // writer 가 자리를 비워줄 때까지 요청 쓰레드가 기다린다. (이벤트 유실 없음)
+        DROP // 이벤트를 버리고 droppedCount 만 증가시킨다. (요청 쓰레드는 절대 기다리지 않음)
+    }
+
+    private final ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+
+    private final Event[] events;
+    private final AtomicLongArray published; // 슬롯별로 마지막으로 기록이 끝난 시퀀스
+    private final int mask;
+    private final OverflowPolicy policy;
+
+    private final AtomicLong claimSequence = new AtomicLong(); // 다음에 producer 가 차지할 시퀀스
+    private volatile long consumeSequence; // 다음에 writer 가 읽을 시퀀스
+
+    private final LongAdder droppedCount = new LongAdder();
+    private volatile long writtenCount;
+    private long reportedDroppedCount;
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogTrace() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    public AsyncLogTrace(final int capacity, final OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        final int size = ceilingPowerOfTwo(capacity); // 인덱스 계산을 & 연산으로 하기 위해 2의 제곱수로 맞춘다.
+        this.events = new Event[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            events[i] = new Event();
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+
+        this.writer = new Thread(this::drain, "log-trace-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public TraceStatus begin(final String message) {
+        syncTraceId();
+        final TraceId traceId = traceIdHolder.get();
+        final long startTimeMs = System.currentTimeMillis();
+        publish(BEGIN, traceId, message, 0L, null);
+        return new TraceStatus(traceId, startTimeMs, message);
+    }
+
+    private void syncTraceId() {
+        final TraceId traceId = traceIdHolder.get();
+        if (traceId == null) {
+            traceIdHolder.set(new TraceId());
+        } else {
+            traceIdHolder.set(traceId.createNextId());
+        }
+    }
+
+    @Override
+    public void end(final TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(final TraceStatus status, final Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        final long stopTimeMs = System.currentTimeMillis();
+        final long resultTimeMs = stopTimeMs - status.getStartTimeMs();
+        publish(e == null ? END : EXCEPTION, status.getTraceId(), status.getMessage(), resultTimeMs, e);
+
+        releaseTraceId();
+    }
+
+    private void releaseTraceId() {
+        final TraceId traceId = traceIdHolder.get();
+        if (traceId.isFirstLevel()) {
+            traceIdHolder.remove();
+        } else {
+            traceIdHolder.set(traceId.createPreviousId());
+        }
+    }
+
+    /**
+     * 시퀀스를 CAS 로 하나 차지한 뒤, 해당 슬롯에 값을 채우고 published 에 시퀀스를 기록해서 writer 에게 공개한다.
+     */
+    private void publish(byte type, TraceId traceId, String message, long resultTimeMs, Exception e) {
+        if (!running) { // close() 이후에는 writer 가 없으므로 버린다.
+            droppedCount.increment();
+            return;
+        }
+
+        long sequence;
+        int idleCount = 0;
+        while (true) {
+            sequence = claimSequence.get();
+            if (sequence == CLOSED) { // running 을 확인한 뒤에 writer 가 끝났다.
+                droppedCount.increment();
+                return;
+            }
+            if (sequence - consumeSequence >= events.length) { // 버퍼가 가득 참
+                if (policy == OverflowPolicy.DROP || !running) { // 종료 중에는 WAIT 이어도 기다리지 않는다.
+                    droppedCount.increment();
+                    return;
+                }
+                idleCount = backOff(idleCount);
+                continue;
+            }
+            if (claimSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        final int index = (int) sequence & mask;
+        final Event event = events[index];
+        event.type = type;
+        event.traceId = traceId.getId();
+        event.level = traceId.getLevel();
+        event.message = message;
+        event.resultTimeMs = resultTimeMs;
+        event.exception = e;
+        published.lazySet(index, sequence);
+    }
+
+    private static int backOff(int idleCount) {
+        if (idleCount < 100) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(1_000L);
+        }
+        return idleCount + 1;
+    }
+
+    /**
+     * writer 쓰레드 루프. 공개된 이벤트를 순서대로 꺼내서 로그로 출력한다.
+     * 종료 요청이 들어오면 이미 차지된 이벤트까지 모두 출력하고 끝난다.
+     * 끝낼 때 claimSequence 를 CAS 로 CLOSED 로 바꾸므로, 그 사이에 차지된 이벤트가 있으면 CAS 가 실패하고 계속 출력한다.
+     * (그 이후의 publish 는 droppedCount 로 센다)
+     */
+    private void drain() {
+        long sequence = consumeSequence;
+        while (true) {
+            final int index = (int) sequence & mask;
+            if (published.get(index) == sequence) {
+                final Event event = events[index];
+                write(event);
+                event.clear(); // 메시지, 예외 참조가 버퍼에 남아서 GC 되지 않는 것을 막는다.
+                sequence++;
+                consumeSequence = sequence;
+                writtenCount++;
+                continue;
+            }
+
+            reportDropped();
+            if (!running && claimSequence.compareAndSet(sequence, CLOSED)) {
+                return;
+            }
+            LockSupport.parkNanos(WRITER_PARK_NANOS);
+        }
+    }
+
+    private void write(Event event) {
+        if (event.type == BEGIN) {
+            log.info("[{}] {}{}", event.traceId, addSpace(START_PREFIX, event.level), event.message);
+        } else if (event.type == END) {
+            log.info("[{}] {}{} time={}ms", event.traceId, addSpace(COMPLETE_PREFIX, event.level), event.message, event.resultTimeMs);
+        } else {
+            log.info("[{}] {}{} time={}ms ex={}", event.traceId, addSpace(EX_PREFIX, event.level), event.message, event.resultTimeMs, event.exception.toString());
+        }
+    }
+
+    private void reportDropped() {
+        final long dropped = droppedCount.sum();
+        if (dropped != reportedDroppedCount) {
+            log.warn("trace events dropped={} (total={})", dropped - reportedDroppedCount, dropped);
+            reportedDroppedCount = dropped;
+        }
+    }
+
+    /**
+     * 남아있는 이벤트를 모두 출력한 뒤 writer 쓰레드를 종료한다.
+     * 스프링 빈으로 등록하면 컨테이너 종료 시 자동으로 호출된다.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+
+    /**
+     level=0 => 아무것도 없음 <br/>
+     level=1 => |--> <br/>
+     level=2 => |    |--> <br/>
+     */
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 링 버퍼의 슬롯. 미리 할당해두고 계속 재사용한다.
+     */
+    private static final class Event {
+        private byte type;
+        private String traceId;
+        private int level;
+        private String message;
+        private long resultTimeMs;
+        private Exception exception;
+
+        private void clear() {
+            traceId = null;
+            message = null;
+            exception = null;
+        }
+    }
+}
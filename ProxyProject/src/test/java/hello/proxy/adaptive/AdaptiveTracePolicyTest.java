@@ -0,0 +1,82 @@
+package hello.proxy.adaptive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.common.service.ServiceInterfaceImpl;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+import hello.proxy.trace.adaptive.MethodTraceStats;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+class AdaptiveTracePolicyTest {
+
+    @DisplayName("창 하나 동안 짧고 자주 호출된 메서드는 호출 수만 세고, reset 하면 다시 로그를 남긴다")
+    @Test
+    void countingOnly() {
+        AdaptiveTracePolicy policy = new AdaptiveTracePolicy(10, 100, TimeUnit.MILLISECONDS.toNanos(1));
+        ServiceInterface proxy = proxy(policy);
+
+        proxy.find();
+        MethodTraceStats stats = policy.snapshot().get(0);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5); // 첫 호출은 클래스 로딩 때문에 느리므로 시간이 아니라 모드가 바뀔 때까지 호출한다.
+        while (!stats.isCountingOnly() && System.nanoTime() < end) {
+            proxy.find();
+        }
+        proxy.find();
+
+        assertThat(stats.getName()).isEqualTo("ServiceInterface.find()");
+        assertThat(stats.isCountingOnly()).isTrue();
+        assertThat(stats.getCountedCount()).isPositive();
+
+        assertThat(policy.reset("ServiceInterface.find()")).isEqualTo(1);
+        assertThat(stats.isCountingOnly()).isFalse();
+        long traced = stats.getTracedCount();
+        proxy.find();
+        assertThat(stats.getTracedCount()).isEqualTo(traced + 1);
+    }
+
+    @DisplayName("호출 수가 적으면 로그를 계속 남긴다")
+    @Test
+    void rarelyCalled() throws InterruptedException {
+        AdaptiveTracePolicy policy = new AdaptiveTracePolicy(10, 100, TimeUnit.MILLISECONDS.toNanos(1));
+        ServiceInterface proxy = proxy(policy);
+
+        for (int i = 0; i < 5; i++) {
+            proxy.find();
+            Thread.sleep(5);
+        }
+
+        assertThat(policy.snapshot().get(0).isCountingOnly()).isFalse();
+        assertThat(policy.snapshot().get(0).getTracedCount()).isEqualTo(5);
+    }
+
+    @DisplayName("창이 늦게 닫혀도 호출 수를 실제 창 길이로 나눈 비율로 판단한다")
+    @Test
+    void sparselyCalled() throws InterruptedException {
+        AdaptiveTracePolicy policy = new AdaptiveTracePolicy(50, 3, TimeUnit.SECONDS.toNanos(1));
+        ServiceInterface proxy = proxy(policy);
+
+        proxy.find();
+        proxy.find();
+        Thread.sleep(500);
+        proxy.find(); // 500ms 만에 창이 닫힌다. 호출 수는 3 이지만 50ms 당 0.3 번
+
+        MethodTraceStats stats = policy.snapshot().get(0);
+        assertThat(stats.getLastWindowAvgNanos()).isNotNegative(); // 창이 닫혀서 판단했다.
+        assertThat(stats.isCountingOnly()).isFalse();
+        assertThat(stats.getTracedCount()).isEqualTo(3);
+    }
+
+    private static ServiceInterface proxy(AdaptiveTracePolicy policy) {
+        ProxyFactory proxyFactory = new ProxyFactory(new ServiceInterfaceImpl());
+        proxyFactory.addAdvice(new LogTraceAdvice(new ThreadLocalLogTrace(), policy));
+        return (ServiceInterface) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,213 @@
+package hello.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.SingletonMetadataAwareAspectInstanceFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.core.annotation.Order;
+
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.common.service.ServiceInterfaceImpl;
+import hello.proxy.config.engine.FusedProxyFactory;
+
+class FusedProxyFactoryTest {
+
+    List<String> events = new ArrayList<>();
+
+    @DisplayName("순서가 없는 advisor 는 ProxyFactory 와 같이 추가한 순서대로 실행된다 (JDK 동적 프록시, CGLIB)")
+    @Test
+    void sameAsProxyFactory() {
+        for (boolean proxyTargetClass : new boolean[] { false, true }) {
+            // MultiAdvisorTest.multiAdvisorTest2 와 같이 advisor2 -> advisor1
+            final ProxyFactory proxyFactory = new ProxyFactory(new ServiceInterfaceImpl());
+            proxyFactory.setProxyTargetClass(proxyTargetClass);
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice2", events)));
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1", events)));
+            ((ServiceInterface) proxyFactory.getProxy()).save();
+            final List<String> expected = new ArrayList<>(events);
+            events.clear();
+
+            final FusedProxyFactory fusedProxyFactory = new FusedProxyFactory(new ServiceInterfaceImpl());
+            fusedProxyFactory.setProxyTargetClass(proxyTargetClass);
+            fusedProxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice2", events)));
+            fusedProxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1", events)));
+            final ServiceInterface proxy = (ServiceInterface) fusedProxyFactory.getProxy();
+            proxy.save();
+
+            assertThat(events).isEqualTo(expected).containsExactly("advice2", "advice1");
+            events.clear();
+        }
+    }
+
+    /**
+     * AspectV5Order 와 같이 추가한 순서와 관계없이 @Order 값이 작은 TxAdvice 가 바깥쪽에서 실행된다.
+     */
+    @DisplayName("@Order 값이 작은 advice 가 먼저 실행되고, target 의 예외는 그대로 던져진다")
+    @Test
+    void order() {
+        final FusedProxyFactory proxyFactory = new FusedProxyFactory(new OrderRepositoryV2()); // 구체 클래스 -> CGLIB
+        proxyFactory.addAdvice(new LogAdvice(events));
+        proxyFactory.addAdvice(new TxAdvice(events));
+        final OrderRepositoryV2 proxy = (OrderRepositoryV2) proxyFactory.getProxy();
+
+        assertThatThrownBy(() -> proxy.save("ex")).isExactlyInstanceOf(IllegalStateException.class)
+                                                 .hasMessage("예외 발생!");
+        assertThat(events).containsExactly("[트랜잭션 시작]", "[log]", "[트랜잭션 롤백]");
+    }
+
+    @DisplayName("@Aspect 로 만든 advisor 도 @Order 순서대로 실행된다")
+    @Test
+    void aspect() {
+        final ReflectiveAspectJAdvisorFactory advisorFactory = new ReflectiveAspectJAdvisorFactory();
+        final FusedProxyFactory proxyFactory = new FusedProxyFactory(new ServiceInterfaceImpl());
+        for (Object aspect : new Object[] { new LogAspect(events), new TxAspect(events) }) {
+            for (Advisor advisor : advisorFactory.getAdvisors(new SingletonMetadataAwareAspectInstanceFactory(aspect, aspect.getClass().getSimpleName()))) {
+                proxyFactory.addAdvisor(advisor);
+            }
+        }
+        final ServiceInterface proxy = (ServiceInterface) proxyFactory.getProxy();
+
+        proxy.save();
+        proxy.find(); // 포인트컷에 맞지 않는다.
+
+        assertThat(events).containsExactly("[트랜잭션 시작] ServiceInterface.save()", "[log] ServiceInterface.save()");
+    }
+
+    @DisplayName("equals/hashCode 는 ProxyFactory 와 같이 target 과 advisor 가 같은 프록시끼리 같다 (JDK 동적 프록시, CGLIB)")
+    @Test
+    void equalsAndHashCode() {
+        final ServiceInterfaceImpl target = new ServiceInterfaceImpl();
+        final Advisor advisor = new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice", events));
+        for (boolean proxyTargetClass : new boolean[] { false, true }) {
+            final ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.setProxyTargetClass(proxyTargetClass);
+            proxyFactory.addAdvisor(advisor);
+            final Object springProxy1 = proxyFactory.getProxy();
+            final Object springProxy2 = proxyFactory.getProxy();
+
+            final Object proxy1 = fusedProxy(target, advisor, proxyTargetClass);
+            final Object proxy2 = fusedProxy(target, advisor, proxyTargetClass);
+            final Object otherTarget = fusedProxy(new ServiceInterfaceImpl(), advisor, proxyTargetClass);
+
+            assertThat(springProxy1).isEqualTo(springProxy2).hasSameHashCodeAs(springProxy2);
+            assertThat(proxy1).isEqualTo(proxy2).hasSameHashCodeAs(proxy2);
+            assertThat(proxy1).isNotEqualTo(otherTarget).isNotEqualTo(target).isNotEqualTo(springProxy1);
+            assertThat(proxy1.hashCode()).isNotEqualTo(otherTarget.hashCode());
+        }
+        assertThat(fusedProxy(target, advisor, false)).isNotEqualTo(fusedProxy(target, advisor, true)); // 프록시한 타입이 다르다.
+        assertThat(events).isEmpty(); // equals/hashCode 는 advice 를 거치지 않는다.
+    }
+
+    private static Object fusedProxy(Object target, Advisor advisor, boolean proxyTargetClass) {
+        final FusedProxyFactory proxyFactory = new FusedProxyFactory(target);
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy();
+    }
+
+    static class RecordingAdvice implements MethodInterceptor {
+
+        private final String name;
+        private final List<String> events;
+
+        RecordingAdvice(String name, List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            events.add(name);
+            return invocation.proceed();
+        }
+    }
+
+    @Order(2)
+    static class LogAdvice implements MethodInterceptor {
+
+        private final List<String> events;
+
+        LogAdvice(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            events.add("[log]");
+            return invocation.proceed();
+        }
+    }
+
+    @Order(1)
+    static class TxAdvice implements MethodInterceptor {
+
+        private final List<String> events;
+
+        TxAdvice(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public Object invoke(final MethodInvocation invocation) throws Throwable {
+            try {
+                events.add("[트랜잭션 시작]");
+                final Object result = invocation.proceed();
+                events.add("[트랜잭션 커밋]");
+                return result;
+            } catch (Exception e) {
+                events.add("[트랜잭션 롤백]");
+                throw e;
+            }
+        }
+    }
+
+    @Aspect
+    @Order(2)
+    static class LogAspect {
+
+        private final List<String> events;
+
+        LogAspect(List<String> events) {
+            this.events = events;
+        }
+
+        @Around("execution(* hello.proxy.common.service..save(..))")
+        public Object doLog(ProceedingJoinPoint joinPoint) throws Throwable {
+            events.add("[log] " + joinPoint.getSignature().toShortString());
+            return joinPoint.proceed();
+        }
+    }
+
+    @Aspect
+    @Order(1)
+    static class TxAspect {
+
+        private final List<String> events;
+
+        TxAspect(List<String> events) {
+            this.events = events;
+        }
+
+        @Around("execution(* hello.proxy.common.service..save(..))")
+        public Object doTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+            events.add("[트랜잭션 시작] " + joinPoint.getSignature().toShortString());
+            return joinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package hello.proxy.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.engine.ByteBuddyProxyEngine;
+import hello.proxy.config.engine.ProxyEngine;
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.adaptive.AdaptiveTracePolicy;
+import hello.proxy.trace.adaptive.MethodTraceStats;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+class ProxyEngineTest {
+
+    RecordingLogTrace logTrace = new RecordingLogTrace();
+    ProxyEngine engine = new ByteBuddyProxyEngine();
+
+    /**
+     * 05:02:13.511 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [4d0c91e2] OrderControllerV2.request()
+     * 05:02:13.512 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [4d0c91e2] |-->OrderServiceV2.orderItem()
+     * 05:02:13.512 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [4d0c91e2] |<--OrderServiceV2.orderItem() time=0ms
+     * 05:02:13.513 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [4d0c91e2] OrderControllerV2.request() time=2ms
+     */
+    @DisplayName("ByteBuddy 프록시는 구체 클래스를 상속하고, 포인트컷에 맞는 메서드만 로그를 남긴다")
+    @Test
+    void concreteClass() {
+        OrderServiceV2 service = (OrderServiceV2) engine.createProxy(new OrderServiceV2(null) {
+            @Override
+            public void orderItem(String itemId) {
+            }
+        }, advisor());
+        OrderControllerV2 controller = (OrderControllerV2) engine.createProxy(new OrderControllerV2(service), advisor());
+
+        assertThat(controller.request("itemA")).isEqualTo("ok");
+        assertThat(controller.noLog()).isEqualTo("ok");
+        assertThat(logTrace.messages).containsExactly("OrderControllerV2.request()", "OrderServiceV2.orderItem()");
+        assertThat(AopUtils.isAopProxy(controller)).isFalse(); // 스프링 AOP 프록시가 아니다. (CGLIB 아님)
+        assertThat(controller).isInstanceOf(OrderControllerV2.class);
+    }
+
+    @DisplayName("target 의 예외는 exception 으로 기록되고 그대로 던져진다")
+    @Test
+    void exception() {
+        OrderRepositoryV2 repository = (OrderRepositoryV2) engine.createProxy(new OrderRepositoryV2(), advisor());
+
+        assertThatThrownBy(() -> repository.save("ex")).isExactlyInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.exceptions).isEqualTo(1);
+    }
+
+    @DisplayName("LogTraceAdvice 의 메서드 이름 패턴과 AdaptiveTracePolicy 를 인라인된 코드에서도 적용한다")
+    @Test
+    void invocationPlan() {
+        AdaptiveTracePolicy policy = new AdaptiveTracePolicy(10, 100, TimeUnit.MILLISECONDS.toNanos(1));
+        InvocationPlanCache plans = new InvocationPlanCache(InvocationPlan::simpleName, new String[]{"request*"}, policy);
+        OrderControllerV2 controller = (OrderControllerV2) engine.createProxy(new OrderControllerV2(new OrderServiceV2(null) {
+            @Override
+            public void orderItem(String itemId) {
+            }
+        }), new DefaultPointcutAdvisor(pointcut(), new LogTraceAdvice(logTrace, plans)));
+
+        controller.request("itemA");
+        MethodTraceStats stats = plans.plans().get(0).getStats();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!stats.isCountingOnly() && System.nanoTime() < end) {
+            controller.request("itemA");
+        }
+        int traced = logTrace.messages.size();
+        controller.request("itemA");
+
+        assertThat(stats.isCountingOnly()).isTrue();
+        assertThat(stats.getCountedCount()).isEqualTo(1);
+        assertThat(logTrace.messages).hasSize(traced).containsOnly("OrderControllerV2.request()");
+    }
+
+    @DisplayName("LogTraceAdvice 가 아닌 advisor 는 스프링 프록시로 만든다")
+    @Test
+    void otherAdvice() {
+        List<String> calls = new ArrayList<>();
+        MethodInterceptor interceptor = invocation -> {
+            calls.add(invocation.getMethod().getName());
+            return invocation.proceed();
+        };
+        OrderRepositoryV2 repository = (OrderRepositoryV2) engine.createProxy(new OrderRepositoryV2(), new DefaultPointcutAdvisor(pointcut(), interceptor));
+
+        repository.save("itemA");
+
+        assertThat(calls).containsExactly("save");
+        assertThat(AopUtils.isAopProxy(repository)).isTrue();
+    }
+
+    @DisplayName("public 이 아닌 메서드도 target 으로 넘긴다. (프록시의 상속한 필드는 비어있다)")
+    @Test
+    void nonPublicMethods() {
+        OrderCounter counter = (OrderCounter) engine.createProxy(new OrderCounter(), advisor());
+
+        assertThat(counter.orderCount("itemA")).isEqualTo(1);
+        assertThat(counter.size()).isEqualTo(1);
+        assertThat(counter.describe()).isEqualTo("OrderCounter[1]");
+        assertThat(logTrace.messages).containsExactly("OrderCounter.orderCount()");
+    }
+
+    private Advisor advisor() {
+        return new DefaultPointcutAdvisor(pointcut(), new LogTraceAdvice(logTrace));
+    }
+
+    private static NameMatchMethodPointcut pointcut() {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("request*", "order*", "save*");
+        return pointcut;
+    }
+
+    static class BaseCounter {
+
+        protected final List<String> items = new ArrayList<>(); // 생성자에서 초기화되는 필드
+
+        String describe() {
+            return getClass().getSimpleName() + "[" + items.size() + "]";
+        }
+    }
+
+    static class OrderCounter extends BaseCounter {
+
+        protected int orderCount(String itemId) {
+            items.add(itemId);
+            return items.size();
+        }
+
+        int size() {
+            return items.size();
+        }
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final LogTrace delegate = new ThreadLocalLogTrace();
+        private final List<String> messages = new ArrayList<>();
+        private int exceptions;
+
+        @Override
+        public TraceStatus begin(String message) {
+            messages.add(message);
+            return delegate.begin(message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            delegate.end(status);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            exceptions++;
+            delegate.exception(status, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package hello.proxy.generated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderControllerV1_TraceProxy;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1_TraceProxy;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderControllerV2_TraceProxy;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderRepositoryV2_TraceProxy;
+import hello.proxy.config.v7_generated.postprocessor.GeneratedProxyPostProcessor;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+/**
+ * @TraceProxy 가 붙은 타입은 컴파일할 때 *_TraceProxy 가 생성된다. (trace-proxy-processor)
+ */
+class GeneratedProxyTest {
+
+    RecordingLogTrace logTrace = new RecordingLogTrace();
+
+    /**
+     * 04:10:21.310 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [1b2e77c0] OrderControllerV1.request()
+     * 04:10:21.312 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [1b2e77c0] OrderControllerV1.request() time=2ms
+     */
+    @DisplayName("인터페이스에 붙이면 구현하는 프록시가 생성된다")
+    @Test
+    void interfaceProxy() {
+        OrderControllerV1 proxy = new OrderControllerV1_TraceProxy(new OrderControllerV1Impl(itemId -> {
+        }), logTrace);
+
+        assertThat(proxy.request("itemA")).isEqualTo("ok");
+        assertThat(logTrace.messages).containsExactly("OrderControllerV1.request()");
+    }
+
+    @DisplayName("클래스에 붙이면 상속하는 프록시가 생성되고, target 의 예외를 그대로 던진다")
+    @Test
+    void classProxy() {
+        OrderRepositoryV2 proxy = new OrderRepositoryV2_TraceProxy(new OrderRepositoryV2(), logTrace);
+
+        assertThatThrownBy(() -> proxy.save("ex")).isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.messages).containsExactly("OrderRepositoryV2.save()");
+        assertThat(logTrace.exceptions).isEqualTo(1);
+    }
+
+    @DisplayName("exclude 에 적은 메서드는 로그 없이 위임만 한다")
+    @Test
+    void exclude() {
+        OrderControllerV1 interfaceProxy = new OrderControllerV1_TraceProxy(new OrderControllerV1Impl(itemId -> {
+        }), logTrace);
+        OrderControllerV2 classProxy = new OrderControllerV2_TraceProxy(new OrderControllerV2(null), logTrace);
+        VisibilityTarget targetProxy = new VisibilityTarget_TraceProxy(new VisibilityTarget(), logTrace);
+
+        assertThat(interfaceProxy.noLog()).isEqualTo("ok");
+        assertThat(classProxy.noLog()).isEqualTo("ok");
+        assertThat(targetProxy.excluded()).isEqualTo("excluded");
+        assertThat(logTrace.messages).isEmpty();
+    }
+
+    @DisplayName("재정의한 메서드는 원래 메서드의 접근 제한자를 그대로 쓴다")
+    @Test
+    void keepVisibility() throws NoSuchMethodException {
+        VisibilityTarget proxy = new VisibilityTarget_TraceProxy(new VisibilityTarget(), logTrace);
+
+        assertThat(proxy.packageMethod()).isEqualTo("package");
+        assertThat(proxy.protectedMethod()).isEqualTo("protected");
+        assertThat(logTrace.messages).containsExactly("VisibilityTarget.packageMethod()", "VisibilityTarget.protectedMethod()");
+
+        Class<?> proxyClass = VisibilityTarget_TraceProxy.class;
+        assertThat(Modifier.isPublic(proxyClass.getDeclaredMethod("publicMethod").getModifiers())).isTrue();
+        assertThat(Modifier.isProtected(proxyClass.getDeclaredMethod("protectedMethod").getModifiers())).isTrue();
+        int packageModifiers = proxyClass.getDeclaredMethod("packageMethod").getModifiers();
+        assertThat(Modifier.isPublic(packageModifiers) || Modifier.isProtected(packageModifiers) || Modifier.isPrivate(packageModifiers)).isFalse();
+    }
+
+    @DisplayName("post processor 는 빈을 생성된 프록시로 바꾸고, 생성된 프록시가 없는 빈은 그대로 둔다")
+    @Test
+    void postProcessor() {
+        GeneratedProxyPostProcessor postProcessor = new GeneratedProxyPostProcessor("hello.proxy.app", logTrace);
+        OrderServiceV1 service = itemId -> {
+        };
+
+        Object bean = postProcessor.postProcessAfterInitialization(new OrderControllerV1Impl(service), "orderControllerV1");
+        assertThat(bean).isInstanceOf(OrderControllerV1_TraceProxy.class);
+        assertThat(postProcessor.postProcessAfterInitialization(new OrderServiceV1_TraceProxy(service, logTrace), "orderServiceV1"))
+                .isInstanceOf(OrderServiceV1_TraceProxy.class);
+        Object other = new Object();
+        assertThat(postProcessor.postProcessAfterInitialization(other, "other")).isSameAs(other);
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final LogTrace delegate = new ThreadLocalLogTrace();
+        private final List<String> messages = new ArrayList<>();
+        private int exceptions;
+
+        @Override
+        public TraceStatus begin(String message) {
+            messages.add(message);
+            return delegate.begin(message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            delegate.end(status);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            exceptions++;
+            delegate.exception(status, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hello.proxy.generated;
+
+import hello.proxy.processor.TraceProxy;
+
+/**
+ * 생성된 프록시가 원래 접근 제한자를 유지하고, exclude 한 메서드는 로그 없이 위임하는지 확인한다. (GeneratedProxyTest)
+ */
+@TraceProxy(exclude = "excluded")
+public class VisibilityTarget {
+
+    public String publicMethod() {
+        return "public";
+    }
+
+    protected String protectedMethod() {
+        return "protected";
+    }
+
+    String packageMethod() {
+        return "package";
+    }
+
+    public String excluded() {
+        return "excluded";
+    }
+}
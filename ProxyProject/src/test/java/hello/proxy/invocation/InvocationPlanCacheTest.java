@@ -0,0 +1,74 @@
+package hello.proxy.invocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.common.service.ServiceInterfaceImpl;
+import hello.proxy.config.invocation.InvocationPlan;
+import hello.proxy.config.invocation.InvocationPlanCache;
+import hello.proxy.config.v1_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v1_dynamicproxy.handler.LogTraceFilterHandler;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+
+class InvocationPlanCacheTest {
+
+    @DisplayName("메서드별로 메시지와 패턴 검사 결과를 한번만 만들고, 같은 메서드의 다른 Method 인스턴스도 같은 계획을 쓴다")
+    @Test
+    void plan() throws NoSuchMethodException {
+        InvocationPlanCache plans = new InvocationPlanCache("save*");
+
+        Method save = ServiceInterface.class.getMethod("save");
+        Method sameSave = ServiceInterface.class.getMethod("save");
+        InvocationPlan plan = plans.get(save);
+
+        assertThat(sameSave).isNotSameAs(save);
+        assertThat(plans.get(sameSave)).isSameAs(plan);
+        assertThat(plans.get(save)).isSameAs(plan);
+        assertThat(plan.getMessage()).isEqualTo("ServiceInterface.save()");
+        assertThat(plan.isTraced()).isTrue();
+        assertThat(plans.get(ServiceInterface.class.getMethod("find")).isTraced()).isFalse();
+    }
+
+    @DisplayName("여러 프록시가 캐시를 함께 쓰면 메서드별 호출 수가 한 곳에 모인다")
+    @Test
+    void shared() throws NoSuchMethodException {
+        InvocationPlanCache plans = new InvocationPlanCache("save*");
+        ThreadLocalLogTrace logTrace = new ThreadLocalLogTrace();
+
+        for (int i = 0; i < 2; i++) {
+            ServiceInterface proxy = (ServiceInterface) Proxy.newProxyInstance(ServiceInterface.class.getClassLoader(),
+                                                                               new Class[] { ServiceInterface.class },
+                                                                               new LogTraceFilterHandler(new ServiceInterfaceImpl(), logTrace, plans));
+            proxy.save();
+            proxy.find();
+        }
+
+        assertThat(plans.plans()).hasSize(2);
+        assertThat(plans.get(ServiceInterface.class.getMethod("save")).getStats().getTracedCount()).isEqualTo(2);
+        assertThat(plans.get(ServiceInterface.class.getMethod("find")).getStats().getCountedCount()).isZero();
+    }
+
+    /**
+     * 03:12:40.101 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [8e4c1a2f] OrderRepositoryV1.save()
+     * 03:12:40.103 [Test worker] INFO hello.proxy.trace.logtrace.ThreadLocalLogTrace - [8e4c1a2f] OrderRepositoryV1.save() time=2ms ex=java.lang.IllegalStateException: 예외 발생!
+     */
+    @DisplayName("target 이 던진 예외가 InvocationTargetException 으로 감싸지지 않고 그대로 로그와 호출한 쪽에 전달된다")
+    @Test
+    void exception() {
+        OrderRepositoryV1 proxy = (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
+                                                                             new Class[] { OrderRepositoryV1.class },
+                                                                             new LogTraceBasicHandler(new OrderRepositoryV1Impl(), new ThreadLocalLogTrace()));
+
+        assertThatThrownBy(() -> proxy.save("ex")).isExactlyInstanceOf(IllegalStateException.class)
+                                                  .hasMessage("예외 발생!");
+    }
+}
@@ -0,0 +1,125 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import hello.proxy.trace.TraceStatus;
+
+class AsyncLogTraceTest {
+
+    /**
+     * 05:41:07.101 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [7c91d0e2] hello1
+     * 05:41:07.101 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [7c91d0e2] |-->hello2
+     * 05:41:07.102 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [7c91d0e2] |<--hello2 time=0ms
+     * 05:41:07.102 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [7c91d0e2] hello1 time=1ms
+     */
+    @Test
+    void begin_end_level2() throws InterruptedException {
+        AsyncLogTrace trace = new AsyncLogTrace();
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+        trace.close();
+
+        assertThat(trace.getWrittenCount()).isEqualTo(4);
+        assertThat(trace.getDroppedCount()).isZero();
+    }
+
+    /**
+     * 05:41:29.311 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [a04f6b38] hello1
+     * 05:41:29.311 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [a04f6b38] |-->hello2
+     * 05:41:29.312 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [a04f6b38] |<X-hello2 time=0ms ex=java.lang.IllegalStateException
+     * 05:41:29.312 [log-trace-writer] INFO hello.proxy.trace.logtrace.AsyncLogTrace - [a04f6b38] hello1 time=1ms ex=java.lang.IllegalStateException
+     */
+    @Test
+    void begin_exception_level2() throws InterruptedException {
+        AsyncLogTrace trace = new AsyncLogTrace();
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+        trace.close();
+
+        assertThat(trace.getWrittenCount()).isEqualTo(4);
+    }
+
+    @DisplayName("WAIT 정책이면 버퍼가 작아도 이벤트를 하나도 잃어버리지 않는다")
+    @Test
+    void waitPolicy() throws InterruptedException {
+        AsyncLogTrace trace = new AsyncLogTrace(4, AsyncLogTrace.OverflowPolicy.WAIT);
+        int events = runConcurrently(trace, 4, 200);
+        trace.close();
+
+        assertThat(trace.getDroppedCount()).isZero();
+        assertThat(trace.getWrittenCount()).isEqualTo(events);
+    }
+
+    @DisplayName("DROP 정책이면 버퍼가 가득 찼을 때 버린 개수만큼 droppedCount 가 증가한다")
+    @Test
+    void dropPolicy() throws InterruptedException {
+        AsyncLogTrace trace = new AsyncLogTrace(4, AsyncLogTrace.OverflowPolicy.DROP);
+        int events = runConcurrently(trace, 4, 200);
+        trace.close();
+
+        assertThat(trace.getWrittenCount() + trace.getDroppedCount()).isEqualTo(events);
+    }
+
+    @DisplayName("close() 와 동시에 기록한 이벤트도 출력되거나 droppedCount 로 세어진다")
+    @Test
+    void closeWhilePublishing() throws InterruptedException {
+        for (int round = 0; round < 500; round++) {
+            AsyncLogTrace trace = new AsyncLogTrace(64, AsyncLogTrace.OverflowPolicy.DROP);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            CountDownLatch started = new CountDownLatch(4);
+            AtomicBoolean stop = new AtomicBoolean();
+            LongAdder published = new LongAdder();
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    started.countDown();
+                    while (!stop.get()) {
+                        TraceStatus status = trace.begin("hello");
+                        trace.end(status);
+                        published.add(2);
+                    }
+                });
+            }
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            trace.close(); // 요청 쓰레드가 기록하는 도중에 종료한다.
+            stop.set(true);
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(trace.getWrittenCount() + trace.getDroppedCount()).isEqualTo(published.sum());
+        }
+    }
+
+    private int runConcurrently(AsyncLogTrace trace, int threads, int requestsPerThread) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < requestsPerThread; j++) {
+                    TraceStatus status1 = trace.begin("hello1");
+                    TraceStatus status2 = trace.begin("hello2");
+                    trace.end(status2);
+                    trace.end(status1);
+                }
+                latch.countDown();
+            });
+        }
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        return threads * requestsPerThread * 4;
+    }
+}
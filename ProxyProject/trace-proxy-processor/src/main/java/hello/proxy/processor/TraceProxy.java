@@ -0,0 +1,27 @@
+package hello.proxy.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컴파일할 때 로그 추적 프록시를 만든다. ({@link TraceProxyProcessor}) <br/>
+ * 인터페이스에 붙이면 구현하는 프록시, 클래스에 붙이면 상속하는 프록시가 같은 패키지에 {@code <타입 이름>_TraceProxy} 로 생긴다.
+ * v1_proxy, v2_proxy 에서 직접 만든 프록시와 같은 코드이므로 런타임에 바이트코드를 만들지 않는다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface TraceProxy {
+
+    /**
+     * 생성되는 프록시 이름의 접미사
+     */
+    String SUFFIX = "_TraceProxy";
+
+    /**
+     * 로그를 남기지 않을 메서드 이름 (예: noLog), 오버로딩된 메서드는 모두 제외된다. <br/>
+     * 제외한 메서드도 프록시가 재정의하지만 로그 없이 target 에 바로 위임한다. 없는 이름을 적으면 컴파일 에러
+     */
+    String[] exclude() default {};
+}
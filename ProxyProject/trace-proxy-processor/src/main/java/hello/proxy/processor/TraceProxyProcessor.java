@@ -0,0 +1,322 @@
+package hello.proxy.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * {@link TraceProxy} 가 붙은 타입마다 로그 추적 프록시 소스를 만든다. <br/>
+ * 메서드마다 begin -> target 호출 -> end (예외면 exception 후 다시 던짐) 으로, OrderServiceInterfaceProxy 와 같은 모양이다.
+ * - 인터페이스: 구현한다. 추상 메서드와 default 메서드를 모두 위임한다.
+ * - 클래스: 상속한다. private, final, static 이 아닌 메서드를 재정의하고, 부모 생성자에는 기본값(null, 0, false)을 넘긴다.
+ * - 재정의한 메서드의 접근 제한자는 원래 메서드와 같다. (package-private 은 그대로 package-private)
+ * - {@link TraceProxy#exclude()} 에 적은 메서드는 로그 없이 위임만 한다. (OrderControllerInterfaceProxy 의 noLog() 처럼)
+ * 제네릭 타입, 중첩 타입, final 클래스는 지원하지 않는다. (컴파일 에러)
+ */
+@SupportedAnnotationTypes("hello.proxy.processor.TraceProxy")
+public class TraceProxyProcessor extends AbstractProcessor {
+
+    private static final String TRACE_STATUS = "hello.proxy.trace.TraceStatus";
+    private static final String LOG_TRACE = "hello.proxy.trace.logtrace.LogTrace";
+    private static final Set<String> RESERVED_NAMES = Set.of("target", "logTrace", "status", "result", "e");
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(TraceProxy.class)) {
+            final TypeElement type = (TypeElement) element;
+            final String error = validate(type);
+            if (error != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@TraceProxy " + error, type);
+                continue;
+            }
+            write(type);
+        }
+        return true;
+    }
+
+    private String validate(TypeElement type) {
+        if (type.getKind() != ElementKind.INTERFACE && type.getKind() != ElementKind.CLASS) {
+            return "can only be used on interfaces and classes";
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            return "does not support nested types";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "does not support generic types";
+        }
+        if (type.getModifiers().contains(Modifier.FINAL)) {
+            return "cannot extend a final class";
+        }
+        if (type.getKind() == ElementKind.CLASS && superConstructor(type) == null) {
+            return "needs a non-private constructor";
+        }
+        final Set<String> names = new HashSet<>();
+        for (ExecutableElement method : methods(type, type.getKind() == ElementKind.INTERFACE)) {
+            names.add(method.getSimpleName().toString());
+        }
+        for (String excluded : type.getAnnotation(TraceProxy.class).exclude()) {
+            if (!names.contains(excluded)) {
+                return "exclude: no overridable method named " + excluded;
+            }
+        }
+        return null;
+    }
+
+    private void write(TypeElement type) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String typeName = type.getSimpleName().toString();
+        final String proxyName = typeName + TraceProxy.SUFFIX;
+        final boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+
+        final StringBuilder source = new StringBuilder(2048);
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import ").append(TRACE_STATUS).append(";\n");
+        source.append("import ").append(LOG_TRACE).append(";\n\n");
+        source.append("/**\n * {@link ").append(typeName).append("} 의 로그 추적 프록시 (").append(getClass().getSimpleName())
+              .append(" 가 생성, 직접 수정하지 않는다)\n */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public class ").append(proxyName).append(isInterface ? " implements " : " extends ").append(typeName).append(" {\n\n");
+        source.append("    private final ").append(typeName).append(" target;\n");
+        source.append("    private final LogTrace logTrace;\n\n");
+
+        appendConstructor(source, type, proxyName, isInterface);
+        final Set<String> excluded = Set.of(type.getAnnotation(TraceProxy.class).exclude());
+        for (ExecutableElement method : methods(type, isInterface)) {
+            appendMethod(source, type, method, !excluded.contains(method.getSimpleName().toString()));
+        }
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? proxyName : packageName + "." + proxyName, type).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@TraceProxy cannot write " + proxyName + ": " + e, type);
+        }
+    }
+
+    private void appendConstructor(StringBuilder source, TypeElement type, String proxyName, boolean isInterface) {
+        final String typeName = type.getSimpleName().toString();
+        source.append("    public ").append(proxyName).append("(final ").append(typeName).append(" target, final LogTrace logTrace)");
+        if (isInterface) {
+            source.append(" {\n");
+        } else {
+            final ExecutableElement constructor = superConstructor(type);
+            appendThrows(source, constructor.getThrownTypes());
+            source.append(" {\n");
+            source.append("        super(");
+            final List<? extends VariableElement> parameters = constructor.getParameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                if (i > 0) {
+                    source.append(", ");
+                }
+                source.append(defaultValue(parameters.get(i).asType()));
+            }
+            source.append("); // 부모의 기능은 쓰지 않는다. (target 에 위임)\n");
+        }
+        source.append("        this.target = target;\n");
+        source.append("        this.logTrace = logTrace;\n");
+        source.append("    }\n");
+    }
+
+    /**
+     * @param traced false 면 로그 없이 target 에 위임만 한다. ({@link TraceProxy#exclude()})
+     */
+    private void appendMethod(StringBuilder source, TypeElement type, ExecutableElement method, boolean traced) {
+        final ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+        final List<String> names = parameterNames(method);
+        final boolean isVoid = methodType.getReturnType().getKind() == TypeKind.VOID;
+        final String message = method.getEnclosingElement().getSimpleName() + "." + method.getSimpleName() + "()";
+
+        source.append("\n    @Override\n    ");
+        source.append(accessModifier(method));
+        appendTypeParameters(source, method.getTypeParameters());
+        source.append(methodType.getReturnType()).append(' ').append(method.getSimpleName()).append('(');
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                source.append(", ");
+            }
+            final TypeMirror parameterType = methodType.getParameterTypes().get(i);
+            source.append("final ");
+            if (method.isVarArgs() && i == names.size() - 1) {
+                source.append(((ArrayType) parameterType).getComponentType()).append("...");
+            } else {
+                source.append(parameterType);
+            }
+            source.append(' ').append(names.get(i));
+        }
+        source.append(')');
+        appendThrows(source, methodType.getThrownTypes());
+        source.append(" {\n");
+        if (!traced) {
+            source.append("        ").append(isVoid ? "" : "return ").append("target.").append(method.getSimpleName())
+                  .append('(').append(String.join(", ", names)).append("); // exclude, 로그를 남기지 않는다.\n");
+            source.append("    }\n");
+            return;
+        }
+        source.append("        TraceStatus status = null;\n");
+        source.append("        try {\n");
+        source.append("            status = logTrace.begin(\"").append(message).append("\");\n");
+        source.append("            // target 호출\n");
+        source.append("            ");
+        if (!isVoid) {
+            source.append("final ").append(methodType.getReturnType()).append(" result = ");
+        }
+        source.append("target.").append(method.getSimpleName()).append('(').append(String.join(", ", names)).append(");\n");
+        source.append("            logTrace.end(status);\n");
+        if (!isVoid) {
+            source.append("            return result;\n");
+        }
+        source.append("        } catch (Exception e) {\n");
+        source.append("            logTrace.exception(status, e);\n");
+        source.append("            throw e;\n");
+        source.append("        }\n");
+        source.append("    }\n");
+    }
+
+    /**
+     * 위임할 메서드 (Object 의 메서드는 제외, 이름순)
+     */
+    private List<ExecutableElement> methods(TypeElement type, boolean isInterface) {
+        final List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            final Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            if (((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+                continue;
+            }
+            if (!isInterface && !modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.PROTECTED)
+                    && !samePackage(type, method)) { // 다른 패키지의 package-private 메서드는 재정의할 수 없다.
+                continue;
+            }
+            methods.add(method);
+        }
+        methods.sort(Comparator.comparing((ExecutableElement method) -> method.getSimpleName().toString())
+                               .thenComparingInt(method -> method.getParameters().size()));
+        return methods;
+    }
+
+    /**
+     * 원래 메서드와 같은 접근 제한자 (인터페이스의 메서드는 모두 public)
+     */
+    private static String accessModifier(ExecutableElement method) {
+        final Set<Modifier> modifiers = method.getModifiers();
+        if (method.getEnclosingElement().getKind() == ElementKind.INTERFACE || modifiers.contains(Modifier.PUBLIC)) {
+            return "public ";
+        }
+        return modifiers.contains(Modifier.PROTECTED) ? "protected " : "";
+    }
+
+    private boolean samePackage(TypeElement type, ExecutableElement method) {
+        final PackageElement typePackage = processingEnv.getElementUtils().getPackageOf(type);
+        return typePackage.equals(processingEnv.getElementUtils().getPackageOf(method));
+    }
+
+    /**
+     * 파라미터 수가 가장 적은 private 이 아닌 생성자
+     */
+    private static ExecutableElement superConstructor(TypeElement type) {
+        ExecutableElement found = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            if (found == null || constructor.getParameters().size() < found.getParameters().size()) {
+                found = constructor;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * target, logTrace, status 등 프록시가 쓰는 이름과 겹치는 파라미터는 이름을 바꾼다.
+     */
+    private static List<String> parameterNames(ExecutableElement method) {
+        final List<String> names = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            final String name = parameter.getSimpleName().toString();
+            names.add(RESERVED_NAMES.contains(name) ? name + "Arg" : name);
+        }
+        return names;
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return "(" + type + ") 0";
+            default:
+                return "(" + type + ") null"; // 생성자가 오버로딩 되어 있어도 고를 수 있도록 캐스팅한다.
+        }
+    }
+
+    private static void appendTypeParameters(StringBuilder source, List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return;
+        }
+        source.append('<');
+        for (int i = 0; i < typeParameters.size(); i++) {
+            final TypeParameterElement typeParameter = typeParameters.get(i);
+            if (i > 0) {
+                source.append(", ");
+            }
+            source.append(typeParameter.getSimpleName());
+            final List<? extends TypeMirror> bounds = typeParameter.getBounds();
+            if (!(bounds.size() == 1 && bounds.get(0).toString().equals("java.lang.Object"))) {
+                source.append(" extends ");
+                for (int j = 0; j < bounds.size(); j++) {
+                    if (j > 0) {
+                        source.append(" & ");
+                    }
+                    source.append(bounds.get(j));
+                }
+            }
+        }
+        source.append("> ");
+    }
+
+    private static void appendThrows(StringBuilder source, List<? extends TypeMirror> thrownTypes) {
+        for (int i = 0; i < thrownTypes.size(); i++) {
+            source.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+        }
+    }
+}